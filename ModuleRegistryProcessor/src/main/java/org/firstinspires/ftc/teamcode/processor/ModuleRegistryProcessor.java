@@ -0,0 +1,193 @@
+package org.firstinspires.ftc.teamcode.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates {@code GeneratedModuleRegistry}, the table {@code ModuleManager} uses to create and look up modules.  Every
+ *  class annotated with {@code @RobotModule} gets an index into the table, a constructor reference, and the indices of
+ *  its registered subclasses.
+ * @implNote The annotation and {@code Module} are matched by name so that this project doesn't depend on TeamCode
+ */
+public final class ModuleRegistryProcessor extends AbstractProcessor {
+    public static final String CORE_PACKAGE = "org.firstinspires.ftc.teamcode.modules.core";
+    public static final String ANNOTATION_NAME = CORE_PACKAGE + ".RobotModule";
+    public static final String MODULE_CLASS_NAME = CORE_PACKAGE + ".Module";
+    public static final String OP_MODE_CLASS_NAME = "com.qualcomm.robotcore.eventloop.opmode.OpMode";
+    public static final String GENERATED_CLASS_SIMPLE_NAME = "GeneratedModuleRegistry";
+
+    /**
+     * Has the registry been written yet?  It can only be written once per compilation.
+     */
+    private boolean generated = false;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ANNOTATION_NAME);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (generated || annotations.isEmpty()) {
+            return false;
+        }
+        final Messager messager = processingEnv.getMessager();
+        final Types types = processingEnv.getTypeUtils();
+        final TypeElement annotation = processingEnv.getElementUtils().getTypeElement(ANNOTATION_NAME);
+        final TypeElement moduleElement = processingEnv.getElementUtils().getTypeElement(MODULE_CLASS_NAME);
+        if (annotation == null || moduleElement == null) {
+            return false;
+        }
+
+        // collect and validate every registered module, sorted by name so the generated indices are stable
+        final List<TypeElement> modules = new ArrayList<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@RobotModule can only be applied to classes", element);
+                continue;
+            }
+            final TypeElement module = (TypeElement) element;
+            if (!isAccessible(module)) {
+                messager.printMessage(Diagnostic.Kind.ERROR,
+                        "Registered modules must be public (and static and nested in public classes, if nested)", module);
+                continue;
+            }
+            if (module.getModifiers().contains(Modifier.ABSTRACT)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Abstract classes cannot be registered modules", module);
+                continue;
+            }
+            if (!types.isSubtype(module.asType(), types.erasure(moduleElement.asType()))) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Registered modules must extend " + MODULE_CLASS_NAME, module);
+                continue;
+            }
+            if (!hasRegistrarConstructor(module)) {
+                messager.printMessage(Diagnostic.Kind.ERROR,
+                        "Registered modules must have a public constructor that takes exactly one " + OP_MODE_CLASS_NAME, module);
+                continue;
+            }
+            modules.add(module);
+        }
+        modules.sort(Comparator.comparing(module -> module.getQualifiedName().toString()));
+
+        // resolve subclasses to indices
+        final int count = modules.size();
+        final List<List<Integer>> subclasses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final TypeElement module = modules.get(i);
+            final List<Integer> moduleSubclasses = new ArrayList<>();
+            for (int j = 0; j < count; j++) {
+                if (j != i && types.isSubtype(modules.get(j).asType(), module.asType())) {
+                    moduleSubclasses.add(j);
+                }
+            }
+            subclasses.add(moduleSubclasses);
+        }
+
+        try {
+            writeRegistry(modules, subclasses);
+        }
+        catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Could not write module registry: " + e.getMessage());
+        }
+        generated = true;
+        return true;
+    }
+
+    /**
+     * Can the generated registry, which is in another package, reference the module's class and constructor?
+     */
+    private static boolean isAccessible(TypeElement module) {
+        Element element = module;
+        while (element instanceof TypeElement) {
+            final TypeElement type = (TypeElement) element;
+            if (!type.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+            if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+                return false; // inner classes can't be created without an instance of the enclosing class
+            }
+            element = type.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private boolean hasRegistrarConstructor(TypeElement module) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(module.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PUBLIC)
+                    && constructor.getParameters().size() == 1
+                    && processingEnv.getTypeUtils().erasure(constructor.getParameters().get(0).asType())
+                            .toString().equals(OP_MODE_CLASS_NAME)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeRegistry(List<TypeElement> modules, List<List<Integer>> subclasses) throws IOException {
+        final JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                CORE_PACKAGE + "." + GENERATED_CLASS_SIMPLE_NAME, modules.toArray(new Element[0]));
+        try (Writer writer = file.openWriter()) {
+            writer.write("package " + CORE_PACKAGE + ";\n\n");
+            writer.write("/**\n * Generated by " + ModuleRegistryProcessor.class.getName() + ".  Do not edit.\n */\n");
+            writer.write("final class " + GENERATED_CLASS_SIMPLE_NAME + " extends ModuleRegistry {\n");
+            writer.write("    " + GENERATED_CLASS_SIMPLE_NAME + "() {\n");
+            writer.write("        super(\n");
+
+            writer.write("                new Class<?>[] {\n");
+            for (TypeElement module : modules) {
+                writer.write("                        " + module.getQualifiedName() + ".class,\n");
+            }
+            writer.write("                },\n");
+
+            writer.write("                new ModuleFactory[] {\n");
+            for (TypeElement module : modules) {
+                writer.write("                        " + module.getQualifiedName() + "::new,\n");
+            }
+            writer.write("                },\n");
+
+            writer.write("                new int[][] {\n");
+            for (List<Integer> moduleSubclasses : subclasses) {
+                writer.write("                        " + toArrayLiteral(moduleSubclasses) + ",\n");
+            }
+            writer.write("                }\n");
+            writer.write("        );\n");
+            writer.write("    }\n");
+            writer.write("}\n");
+        }
+    }
+
+    private static String toArrayLiteral(List<Integer> values) {
+        final StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(values.get(i));
+        }
+        return builder.append('}').toString();
+    }
+}
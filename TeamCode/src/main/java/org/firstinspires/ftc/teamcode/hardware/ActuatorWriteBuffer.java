@@ -0,0 +1,154 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.Servo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Stages motor powers and servo positions so that they can be written to the hardware all at once, at the end of a
+ *  control tick.  Every write is a Lynx command round trip over the hub bus, so a write is dropped if its value is
+ *  within an epsilon of the value last written to the same device.
+ * <br />
+ * Each module owns its buffer and flushes it at the end of its own control tick (i.e. the end of a task iteration, or
+ *  of a call from the OpMode's loop).  There is no scheduler-wide flush, since modules' ticks run at different rates
+ *  and on different threads, and a module's writes shouldn't wait for another module's tick.
+ * @implNote Values can be staged from any thread, but a buffer should only be flushed by the thread that owns it.
+ *  {@link #flush()} is synchronized so that the occasional flush from another thread is still safe.
+ */
+@Config("Actuator Write Buffer")
+public final class ActuatorWriteBuffer {
+    /**
+     * Motor powers closer than this to the last written power are not written
+     */
+    public static double POWER_EPSILON = 1e-3;
+
+    /**
+     * Servo positions closer than this to the last written position are not written
+     */
+    public static double POSITION_EPSILON = 1e-3;
+
+    /**
+     * A single device in the buffer
+     */
+    public static final class Channel {
+        private final DoubleConsumer writer;
+
+        /**
+         * Is this channel a servo (as opposed to a motor)?
+         */
+        private final boolean isServo;
+
+        private volatile double stagedValue = Double.NaN;
+
+        /**
+         * The value last written to the device, or NaN if nothing has been written yet
+         */
+        private double writtenValue = Double.NaN;
+
+        private Channel(DoubleConsumer writer, boolean isServo) {
+            this.writer = writer;
+            this.isServo = isServo;
+        }
+
+        /**
+         * Sets the value that will be written at the next flush
+         * @param value The motor power or servo position
+         */
+        public void stage(double value) {
+            stagedValue = value;
+        }
+
+        /**
+         * Gets the value that will be written at the next flush
+         * @return The staged value, or NaN if nothing has been staged
+         */
+        public double getStagedValue() {
+            return stagedValue;
+        }
+
+        /**
+         * Writes the staged value, if it differs enough from the last written value
+         * @return True if the value was written, otherwise false
+         */
+        private boolean flush() {
+            final double value = stagedValue;
+            if (!Double.isNaN(writtenValue)) {
+                final double epsilon = isServo ? POSITION_EPSILON : POWER_EPSILON;
+                // always write an exact 0 for motors, so that they actually stop
+                final boolean stopping = !isServo && value == 0 && writtenValue != 0;
+                if (!stopping && Math.abs(value - writtenValue) <= epsilon) {
+                    return false;
+                }
+            }
+            writer.accept(value);
+            writtenValue = value;
+            return true;
+        }
+    }
+
+    /**
+     * Every channel, in the order they are flushed
+     */
+    private final List<Channel> channels = new ArrayList<>();
+
+    private volatile long issuedCount;
+    private volatile long suppressedCount;
+
+    /**
+     * Adds a motor to the buffer.  Channels are flushed in the order they are added.
+     * @param motor The motor
+     * @return The channel used to stage the motor's power
+     */
+    public synchronized Channel addMotor(DcMotorSimple motor) {
+        final Channel channel = new Channel(motor::setPower, false);
+        channels.add(channel);
+        return channel;
+    }
+
+    /**
+     * Adds a servo to the buffer.  Channels are flushed in the order they are added.
+     * @param servo The servo
+     * @return The channel used to stage the servo's position
+     */
+    public synchronized Channel addServo(Servo servo) {
+        final Channel channel = new Channel(servo::setPosition, true);
+        channels.add(channel);
+        return channel;
+    }
+
+    /**
+     * Writes every staged value that has changed since it was last written, in the order the channels were added
+     */
+    public synchronized void flush() {
+        for (int i = 0; i < channels.size(); i++) {
+            final Channel channel = channels.get(i);
+            if (Double.isNaN(channel.stagedValue)) {
+                continue; // nothing has been staged yet
+            }
+            if (channel.flush()) {
+                issuedCount++;
+            }
+            else {
+                suppressedCount++;
+            }
+        }
+    }
+
+    /**
+     * Gets the amount of writes that have been sent to the hardware
+     */
+    public long getIssuedCount() {
+        return issuedCount;
+    }
+
+    /**
+     * Gets the amount of writes that were dropped because the value had not changed
+     */
+    public long getSuppressedCount() {
+        return suppressedCount;
+    }
+}
@@ -0,0 +1,166 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import org.firstinspires.ftc.teamcode.modules.concurrent.RateGroup;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps every hub in {@link LynxModule.BulkCachingMode#MANUAL} mode and refreshes their bulk caches at most once per
+ *  scheduler tick (one period of {@link RateGroup#CONTROL_FAST}).  In {@link LynxModule.BulkCachingMode#AUTO} mode, a
+ *  hub does a new bulk read whenever a channel is read twice, which happens constantly when module tasks and the OpMode
+ *  thread read encoders at the same time.  With the coordinator, every thread reading during the same tick shares the
+ *  same snapshot, so each hub does one bulk read per tick.
+ * <br />
+ * A snapshot is never replaced while a thread is reading from it.  Code that reads several values that belong together
+ *  (i.e. every drive encoder) wraps the reads in {@link #beginRead()} and {@link #endRead()}, and a new tick's clear is
+ *  put off until no such reads are in progress, so a clear from another thread can't land between them.
+ * @apiNote Code that reads encoders or motor velocities must call {@link #sync()} (or {@link #beginRead()}) first, so
+ *  that it never reads a snapshot older than one tick.  Nothing clears the caches otherwise, so a reader that doesn't
+ *  sync can see frozen values.  {@link org.firstinspires.ftc.teamcode.modules.concurrent.ModuleTask}s sync
+ *  automatically before each iteration.
+ */
+public final class BulkReadCoordinator {
+    private static BulkReadCoordinator instance;
+
+    /**
+     * Gets the coordinator, creating it if it doesn't exist yet
+     * @return The coordinator shared by every thread
+     */
+    public static synchronized BulkReadCoordinator getInstance() {
+        if (instance == null) {
+            instance = new BulkReadCoordinator();
+        }
+        return instance;
+    }
+
+    private static final LynxModule[] NO_HUBS = new LynxModule[0];
+
+    /**
+     * The hubs being coordinated
+     */
+    private volatile LynxModule[] hubs = NO_HUBS;
+
+    /**
+     * The time ticks are counted from, in nanoseconds
+     */
+    private volatile long epochNanos = System.nanoTime();
+
+    /**
+     * The tick the caches were last cleared in, or -1 if they haven't been cleared yet
+     */
+    private volatile long lastTick = -1;
+
+    /**
+     * When the current snapshot's bulk reads were done, in nanoseconds
+     */
+    private volatile long snapshotNanos;
+
+    /**
+     * Held for reading by {@link #beginRead()} until {@link #endRead()}, and for writing while the caches are replaced.
+     *  Clearing only ever tries to lock it, so a new snapshot is put off rather than waiting for readers.
+     */
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    private volatile long clearCount;
+
+    private BulkReadCoordinator() {}
+
+    /**
+     * Puts every hub on a hardware map into {@link LynxModule.BulkCachingMode#MANUAL} mode and starts coordinating
+     *  their bulk reads.  This replaces any previously attached hubs.
+     * @param hardwareMap The hardware map containing the hubs
+     */
+    public synchronized void attach(HardwareMap hardwareMap) {
+        final List<LynxModule> allHubs = hardwareMap.getAll(LynxModule.class);
+        for (LynxModule hub : allHubs) {
+            hub.setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
+        }
+        hubs = allHubs.toArray(NO_HUBS);
+        epochNanos = System.nanoTime();
+        lastTick = -1;
+        clearCount = 0;
+    }
+
+    /**
+     * Makes sure the bulk caches have been refreshed during the current tick, unless another thread is reading from the
+     *  current snapshot
+     * @return The time the current snapshot was read, in nanoseconds
+     * @see System#nanoTime()
+     */
+    public long sync() {
+        final long tick = (System.nanoTime() - epochNanos) / RateGroup.CONTROL_FAST.getPeriodNanos();
+        if (tick == lastTick) {
+            return snapshotNanos; // another thread already refreshed the caches this tick
+        }
+        final ReentrantReadWriteLock.WriteLock writeLock = snapshotLock.writeLock();
+        if (!writeLock.tryLock()) {
+            return snapshotNanos; // someone is reading the current snapshot, so the next sync will refresh it
+        }
+        try {
+            if (tick != lastTick) {
+                takeSnapshot();
+                lastTick = tick;
+            }
+            return snapshotNanos;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Clears the caches and immediately does a new bulk read of every hub, so the snapshot is stamped with when its data
+     *  was actually read rather than when a reader first needed it
+     * @implNote The caller must hold {@link #snapshotLock}'s write lock
+     */
+    private void takeSnapshot() {
+        final LynxModule[] currentHubs = hubs;
+        final long beforeNanos = System.nanoTime();
+        for (LynxModule hub : currentHubs) {
+            hub.clearBulkCache();
+            hub.getBulkData(); // in MANUAL mode, this also fills the cache
+        }
+        // the hubs were read somewhere in between; without hubs, this is just the current time
+        snapshotNanos = beforeNanos + (System.nanoTime() - beforeNanos) / 2;
+        clearCount++;
+    }
+
+    /**
+     * Syncs, then keeps the snapshot from being replaced until {@link #endRead()}, so that several values can be read
+     *  from the same snapshot
+     * @return The time the snapshot being read was read from the hubs, in nanoseconds
+     * @apiNote Every call must be followed by {@link #endRead()} on the same thread, in a {@code finally} block.  Only
+     *  reads should happen in between, since every other thread's syncs are put off until then.
+     */
+    public long beginRead() {
+        sync();
+        snapshotLock.readLock().lock();
+        return snapshotNanos;
+    }
+
+    /**
+     * Allows the snapshot read since {@link #beginRead()} to be replaced again
+     */
+    public void endRead() {
+        snapshotLock.readLock().unlock();
+    }
+
+    /**
+     * Gets the time the current snapshot was taken, without refreshing it
+     * @return The time the hubs were last read, in nanoseconds
+     * @see System#nanoTime()
+     */
+    public long getSnapshotNanos() {
+        return snapshotNanos;
+    }
+
+    /**
+     * Gets the amount of times the caches have been cleared since the hubs were attached
+     */
+    public long getClearCount() {
+        return clearCount;
+    }
+}
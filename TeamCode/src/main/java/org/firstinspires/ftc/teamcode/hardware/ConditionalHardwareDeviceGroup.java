@@ -4,6 +4,7 @@ import android.util.Pair;
 import com.qualcomm.robotcore.hardware.HardwareDevice;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
+import java.util.Arrays;
 import java.util.Hashtable;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -12,11 +13,70 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public final class ConditionalHardwareDeviceGroup {
     /**
-     * The hardware devices.
+     * A typed reference to a device loaded into a group.  Handles are resolved once, when the device is loaded, so
+     *  getting a device through its handle doesn't need to lock, hash, or cast anything.
+     * @param <T> The type of the hardware device
+     * @see #tryLoadDevice(Class, String)
+     */
+    public static final class DeviceHandle<T extends HardwareDevice> {
+        /**
+         * The device's position in the group's device array
+         */
+        private final int index;
+
+        /**
+         * The device, or null if it is not available
+         */
+        private final T device;
+
+        private DeviceHandle(int index, T device) {
+            this.index = index;
+            this.device = device;
+        }
+
+        /**
+         * Gets the device's position in the group, in the order the devices were loaded
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Is the device accessible?
+         * @return True if the hardware device exists, otherwise false
+         */
+        public boolean isAvailable() {
+            return device != null;
+        }
+
+        /**
+         * Gets the device
+         * @return The device
+         * @throws NullPointerException The device is inaccessible
+         * @apiNote This should only be called within
+         *  {@link ConditionalHardwareDeviceGroup#executeIfAllAreAvailable(Runnable)}, or after checking
+         *  {@link #isAvailable()}
+         */
+        public T get() {
+            if (device == null) {
+                throw new NullPointerException();
+            }
+            return device;
+        }
+    }
+
+    /**
+     * The handle of every device in the group, indexed by {@link DeviceHandle#getIndex()}
+     */
+    private volatile DeviceHandle<?>[] handles;
+
+    /**
+     * The position of each device in {@link #handles}.
      * Each device is saved with the name used by the hardware map to retrieve it (its key).
      * @see com.qualcomm.robotcore.hardware.HardwareMap#get(Class, String)
+     * @implNote This is only used while loading devices and by {@link #getLoadedDevice(Class, String)}
      */
-    private final Hashtable<String, ConditionalHardwareDevice<?>> devices;
+    private final Hashtable<String, Integer> indices;
 
     /**
      * Is every device in this group available?
@@ -31,7 +91,8 @@ public final class ConditionalHardwareDeviceGroup {
      */
     public ConditionalHardwareDeviceGroup(HardwareMap hardwareMap) {
         this.hardwareMap = hardwareMap;
-        devices = new Hashtable<>();
+        handles = new DeviceHandle<?>[0];
+        indices = new Hashtable<>();
         allAreAccessible = new AtomicBoolean(true);
     }
 
@@ -43,18 +104,32 @@ public final class ConditionalHardwareDeviceGroup {
      * Attempts to add the specified hardware device to the group
      * @param deviceType A class representing the device
      * @param deviceName The name of the device
+     * @return A handle to the device.  If the device has already been loaded, the existing handle is returned.
      * @param <T> The device's type
+     * @throws ClassCastException The device has already been loaded with a type that is incompatible with deviceType
      */
-    public <T extends HardwareDevice> void tryLoadDevice(Class<? extends T> deviceType, String deviceName) {
-        if (devices.containsKey(deviceName) && devices.get(deviceName) != null) {
-            return; // hardware device has already been successfully loaded
+    public synchronized <T extends HardwareDevice> DeviceHandle<T> tryLoadDevice(Class<? extends T> deviceType, String deviceName) {
+        final Integer existingIndex = indices.get(deviceName);
+        if (existingIndex != null) {
+            // hardware device has already been loaded
+            final DeviceHandle<?> existing = handles[existingIndex];
+            if (existing.isAvailable()) {
+                deviceType.cast(existing.device);
+            }
+            @SuppressWarnings("unchecked") final DeviceHandle<T> ret = (DeviceHandle<T>) existing;
+            return ret;
         }
 
         final ConditionalHardwareDevice<T> maybeDevice = ConditionalHardwareDevice.tryGetHardwareDevice(hardwareMap, deviceType, deviceName);
         final boolean deviceExists = maybeDevice.isAvailable();
 
         allAreAccessible.compareAndSet(true, deviceExists); // if this is already false, no need to set it to something else
-        devices.put(deviceName, maybeDevice);
+
+        final DeviceHandle<T> handle = new DeviceHandle<>(handles.length, deviceExists ? maybeDevice.requireDevice() : null);
+        handles = Arrays.copyOf(handles, handles.length + 1); // devices are only loaded during init, so this is fine
+        handles[handle.index] = handle;
+        indices.put(deviceName, handle.index);
+        return handle;
     }
 
     /**
@@ -78,10 +153,12 @@ public final class ConditionalHardwareDeviceGroup {
      * @param <T> The expected type of the hardware device
      * @throws NullPointerException The hardware device is inaccessible
      * @throws ClassCastException The retrieved device is not of the expected type, and no cast can be made to convert it to said class
+     * @apiNote This looks the device up by name every time it is called.  Code that runs every loop should use the
+     *  {@link DeviceHandle} returned by {@link #tryLoadDevice(Class, String)} instead.
      */
     public <T extends HardwareDevice> T getLoadedDevice(Class<? extends T> expectedClass,String deviceName) {
-        final ConditionalHardwareDevice<?> maybeDevice = devices.get(deviceName);
-        return expectedClass.cast(maybeDevice.requireDevice());
+        final Integer index = indices.get(deviceName);
+        return expectedClass.cast(handles[index].get());
     }
 
     /**
@@ -0,0 +1,284 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import android.content.Context;
+import com.acmerobotics.dashboard.config.Config;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerImpl;
+import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerNotifier;
+import com.qualcomm.robotcore.hardware.IMU;
+import com.qualcomm.robotcore.util.RobotLog;
+import com.qualcomm.robotcore.util.WebHandlerManager;
+import org.firstinspires.ftc.ftccommon.external.WebHandlerRegistrar;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.AngularVelocity;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.teamcode.modules.core.LatencyHistogram;
+import org.firstinspires.ftc.teamcode.modules.core.ModuleMetrics;
+import org.firstinspires.ftc.teamcode.modules.core.TimingProbe;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls an IMU at a fixed rate on its own thread, and publishes the latest reading as an immutable {@link Sample}.
+ *  Every IMU read is an I2C transaction that takes milliseconds, so rather than every consumer (the field-centric drive
+ *  train, odometry, Road Runner's drive classes) reading the IMU itself, they all share the latest sample, which costs
+ *  nothing to read.
+ * @apiNote Consumers never read the IMU themselves, even if the latest sample is older than {@link #STALE_AFTER_MS}
+ *  (i.e. the sampler thread has stalled), since a read on a control loop's thread would stall that loop too.  Consumers
+ *  that can't act on stale headings should check {@link #isStale()}.
+ */
+@Config("IMU Sampler")
+public final class ImuSampler {
+    /**
+     * How often the IMU is read, in hertz.  Changes take effect the next time a sampler is started.
+     */
+    public static double SAMPLE_HZ = 100;
+
+    /**
+     * How old a sample can be before it is considered stale, in milliseconds
+     */
+    public static double STALE_AFTER_MS = 50;
+
+    /**
+     * The name given to each sampler's thread
+     */
+    public static final String THREAD_NAME = "IMU Sampler";
+
+    /**
+     * A single reading of the IMU.  Angles are in radians and rates are in radians per second.
+     */
+    public static final class Sample {
+        public final double yaw;
+        public final double pitch;
+        public final double roll;
+
+        public final double xRotationRate;
+        public final double yRotationRate;
+        public final double zRotationRate;
+
+        /**
+         * The time the angles were read, in nanoseconds
+         * @see System#nanoTime()
+         */
+        public final long timestampNanos;
+
+        private Sample(YawPitchRollAngles angles, AngularVelocity velocity) {
+            yaw = angles.getYaw(AngleUnit.RADIANS);
+            pitch = angles.getPitch(AngleUnit.RADIANS);
+            roll = angles.getRoll(AngleUnit.RADIANS);
+            xRotationRate = velocity.xRotationRate;
+            yRotationRate = velocity.yRotationRate;
+            zRotationRate = velocity.zRotationRate;
+            timestampNanos = angles.getAcquisitionTime();
+        }
+
+        public double getYaw(AngleUnit unit) {
+            return unit.fromRadians(yaw);
+        }
+
+        public double getPitch(AngleUnit unit) {
+            return unit.fromRadians(pitch);
+        }
+
+        public double getRoll(AngleUnit unit) {
+            return unit.fromRadians(roll);
+        }
+
+        /**
+         * Gets the rotation rate around the robot's Z axis (the yaw rate)
+         * @param unit The angle unit of the result
+         * @return The rate, in units per second
+         */
+        public double getZRotationRate(AngleUnit unit) {
+            return unit.getUnnormalized().fromRadians(zRotationRate);
+        }
+
+        /**
+         * Gets how long ago this sample was taken
+         * @return The age, in nanoseconds
+         */
+        public long getAgeNanos() {
+            return System.nanoTime() - timestampNanos;
+        }
+    }
+
+    /**
+     * The sampler of every IMU that is currently being polled
+     */
+    private static final Map<IMU, ImuSampler> samplers = new IdentityHashMap<>();
+
+    /**
+     * Gets the sampler of an IMU, starting one if the IMU isn't being polled yet
+     * @param imu The IMU.  It must already be initialized.
+     * @return The sampler shared by every consumer of the IMU
+     */
+    public static synchronized ImuSampler getInstance(IMU imu) {
+        ImuSampler sampler = samplers.get(imu);
+        if (sampler == null) {
+            sampler = new ImuSampler(imu);
+            samplers.put(imu, sampler);
+            sampler.start();
+        }
+        return sampler;
+    }
+
+    /**
+     * Stops every sampler when any OpMode stops, including OpModes that don't extend
+     *  {@link org.firstinspires.ftc.teamcode.opmode.OpBase} (i.e. Road Runner's tuners)
+     */
+    private static final OpModeManagerNotifier.Notifications stopOnOpModeStop = new OpModeManagerNotifier.Notifications() {
+        @Override
+        public void onOpModePreInit(OpMode opMode) {}
+
+        @Override
+        public void onOpModePreStart(OpMode opMode) {}
+
+        @Override
+        public void onOpModePostStop(OpMode opMode) {
+            stopAll();
+        }
+    };
+
+    /**
+     * Registers {@link #stopOnOpModeStop} when the robot controller app starts
+     * @implNote The OpMode manager only keeps a weak reference to its listeners, so the listener is kept in a static
+     *  field.  This is registered the same way as Road Runner's {@code LogFiles},
+     *  since {@code @OnCreateEventLoop} is unreliable.
+     */
+    @WebHandlerRegistrar
+    public static void registerStopListener(Context context, WebHandlerManager manager) {
+        OpModeManagerImpl.getOpModeManagerOfActivity(
+                AppUtil.getInstance().getActivity()
+        ).registerListener(stopOnOpModeStop);
+    }
+
+    /**
+     * Stops every sampler.  Called when an OpMode stops, since the next OpMode gets new IMU objects.
+     */
+    public static synchronized void stopAll() {
+        for (ImuSampler sampler : samplers.values()) {
+            sampler.executor.shutdownNow();
+        }
+        samplers.clear();
+    }
+
+    private final IMU imu;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Measures how long each IMU read takes
+     */
+    private final TimingProbe readProbe = ModuleMetrics.getProbe(THREAD_NAME + "/read");
+
+    /**
+     * How old samples are when consumers read them, in nanoseconds
+     */
+    private final LatencyHistogram sampleAges = ModuleMetrics.getHistogram(THREAD_NAME + "/sample age");
+
+    private volatile Sample latest;
+
+    private volatile long sampleCount;
+
+    /**
+     * Incremented by every consumer thread, so it has to be atomic
+     */
+    private final AtomicLong staleReadCount = new AtomicLong();
+
+    private ImuSampler(IMU imu) {
+        this.imu = imu;
+        executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true); // the robot controller app shouldn't have to wait for us to exit
+            return thread;
+        });
+    }
+
+    private void start() {
+        sample(); // so that there is a sample before the first scheduled read
+        final long periodNanos = (long) (1e9 / Math.max(SAMPLE_HZ, 1));
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                sample();
+            }
+            catch (RuntimeException e) {
+                // an exception would cancel every future read, so log it and try again next period
+                RobotLog.ee(THREAD_NAME, e, "Failed to read the IMU");
+            }
+        }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Reads the IMU and publishes the result
+     * @implNote Synchronized so that {@link #resetYaw()}'s read doesn't overlap with the sampler thread's read
+     */
+    private synchronized void sample() {
+        readProbe.begin();
+        final YawPitchRollAngles angles = imu.getRobotYawPitchRollAngles();
+        final AngularVelocity velocity = imu.getRobotAngularVelocity(AngleUnit.RADIANS);
+        latest = new Sample(angles, velocity);
+        readProbe.end();
+        sampleCount++;
+    }
+
+    /**
+     * Gets the latest sample.  This never blocks or reads the IMU, even if the sample is stale.
+     * @return The latest sample
+     * @see #isStale()
+     */
+    public Sample getLatest() {
+        final Sample sample = latest;
+        final long ageNanos = sample.getAgeNanos();
+        if (ageNanos > STALE_AFTER_MS * 1e6) {
+            staleReadCount.incrementAndGet();
+        }
+        sampleAges.record(ageNanos);
+        return sample;
+    }
+
+    private static boolean isStale(Sample sample) {
+        return sample.getAgeNanos() > STALE_AFTER_MS * 1e6;
+    }
+
+    /**
+     * Is the latest sample older than {@link #STALE_AFTER_MS}?
+     */
+    public boolean isStale() {
+        return isStale(latest);
+    }
+
+    /**
+     * Resets the IMU's yaw, and takes a new sample so that consumers don't see the old yaw afterward
+     */
+    public synchronized void resetYaw() {
+        imu.resetYaw();
+        sample();
+    }
+
+    /**
+     * Gets the amount of times the IMU has been read
+     */
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Gets the amount of times a consumer was given a stale sample
+     */
+    public long getStaleReadCount() {
+        return staleReadCount.get();
+    }
+
+    /**
+     * Gets the histogram of how old samples were when consumers read them, in nanoseconds
+     */
+    public LatencyHistogram getSampleAges() {
+        return sampleAges;
+    }
+}
@@ -5,9 +5,11 @@ import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import org.firstinspires.ftc.teamcode.hardware.ConditionalHardwareDevice;
 import org.firstinspires.ftc.teamcode.modules.core.Module;
+import org.firstinspires.ftc.teamcode.modules.core.RobotModule;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
+@RobotModule
 public class ActiveIntake extends Module {
 	private final ConditionalHardwareDevice<DcMotor> intakeMotor;
 
@@ -32,6 +34,7 @@ public class ActiveIntake extends Module {
 
 	public void setPower(double newPower) {
 		activePower = newPower;
+		markLogDirty();
 		intakeMotor.runIfAvailable(intake -> {
 			if (on.get()) {
 				intake.setPower(activePower);
@@ -48,6 +51,7 @@ public class ActiveIntake extends Module {
 			intakeMotor.runIfAvailable(intake ->
 					intake.setPower(activePower)
 			);
+			markLogDirty();
 		}
 	}
 
@@ -57,6 +61,7 @@ public class ActiveIntake extends Module {
 
 	public void turbo() {
 		on.set(true);
+		markLogDirty();
 		intakeMotor.runIfAvailable(intake ->
 			intake.setPower(TURBO_POWER)
 		);
@@ -75,6 +80,7 @@ public class ActiveIntake extends Module {
 			intakeMotor.runIfAvailable(intake ->
 					intake.setPower(0.0)
 			);
+			markLogDirty();
 		}
 	}
 
@@ -87,11 +93,16 @@ public class ActiveIntake extends Module {
 		stop();
 	}
 
+	@Override
+	protected boolean tracksLogChanges() {
+		return true;
+	}
+
 	@Override
 	public void log() {
 		intakeMotor.runIfAvailable(dcMotor -> {
-			getTelemetry().addData("Is intake active", isActive());
-			getTelemetry().addData("Intake power", getPower());
+			getLog().addData("Is intake active", isActive());
+			getLog().addData("Intake power", getPower());
 		});
 	}
 }
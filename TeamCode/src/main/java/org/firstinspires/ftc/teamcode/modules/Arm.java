@@ -5,15 +5,25 @@ import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.util.RobotLog;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.teamcode.hardware.ActuatorWriteBuffer;
+import org.firstinspires.ftc.teamcode.hardware.BulkReadCoordinator;
 import org.firstinspires.ftc.teamcode.hardware.ConditionalHardwareDevice;
 import org.firstinspires.ftc.teamcode.hardware.GearRatio;
 import org.firstinspires.ftc.teamcode.modules.concurrent.ConcurrentModule;
-import org.firstinspires.ftc.teamcode.modules.concurrent.ModuleThread;
-
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
-
+import org.firstinspires.ftc.teamcode.modules.concurrent.ModuleScheduler;
+import org.firstinspires.ftc.teamcode.modules.concurrent.ModuleTask;
+import org.firstinspires.ftc.teamcode.modules.concurrent.RateGroup;
+import org.firstinspires.ftc.teamcode.modules.core.LatencyHistogram;
+import org.firstinspires.ftc.teamcode.modules.core.ModuleMetrics;
+import org.firstinspires.ftc.teamcode.modules.core.RobotModule;
+import org.firstinspires.ftc.teamcode.util.TrapezoidalProfile;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@RobotModule
 public final class Arm extends ConcurrentModule {
     /**
      * One full rotation of the arm motor in encoder ticks.<br />
@@ -125,6 +135,42 @@ public final class Arm extends ConcurrentModule {
      */
     public static final String FLAP_SERVO_NAME = "Flap Servo";
 
+    /**
+     * Buffers writes to the arm motor and wrist servo, so that unchanged values aren't sent to the hub every iteration
+     *  of {@link ArmPositionUpdaterTask}
+     */
+    private final ActuatorWriteBuffer actuators;
+
+    /**
+     * The power of the arm motor, or null if there is no arm motor
+     */
+    private final ActuatorWriteBuffer.Channel armPower;
+
+    /**
+     * The position of the wrist servo, or null if there is no wrist servo
+     */
+    private final ActuatorWriteBuffer.Channel wristPosition;
+
+    /**
+     * The lowest arm rotation in the gravity feedforward table, in {@link #ANGLE_UNIT}s
+     */
+    private static final double FEEDFORWARD_FIRST_ROTATION = -90;
+
+    /**
+     * The highest arm rotation in the gravity feedforward table, in {@link #ANGLE_UNIT}s
+     */
+    private static final double FEEDFORWARD_LAST_ROTATION = 270;
+
+    /**
+     * The amount of entries in the gravity feedforward table (one every 5 degrees)
+     */
+    private static final int FEEDFORWARD_ENTRIES = 73;
+
+    /**
+     * The power needed to hold the arm against gravity
+     */
+    private final ArmGravityFeedforward gravityFeedforward;
+
     /**
      * Initializes the module and registers it with the specified OpMode
      *
@@ -138,19 +184,19 @@ public final class Arm extends ConcurrentModule {
 
         // status update
         armMotor.runIfAvailable(
-                device -> getTelemetry().addLine("[Arm] found arm motor of type " + device.getDeviceName() + " on port " + device.getPortNumber()),
-                () -> getTelemetry().addLine("[Arm] could not find arm motor!")
+                device -> addSetupLine("[Arm] found arm motor of type " + device.getDeviceName() + " on port " + device.getPortNumber()),
+                () -> addSetupLine("[Arm] could not find arm motor!")
         );
         wristServo.runIfAvailable(
                 device -> {
-                    getTelemetry().addLine("[Arm] found wrist servo of type " + device.getDeviceName() + " on port " + device.getPortNumber());
+                    addSetupLine("[Arm] found wrist servo of type " + device.getDeviceName() + " on port " + device.getPortNumber());
                     device.setPosition(0.5);
                 },
-                () -> getTelemetry().addLine("[Arm] could not find wrist servo!")
+                () -> addSetupLine("[Arm] could not find wrist servo!")
         );
         flapServo.runIfAvailable(
-                device -> getTelemetry().addLine("[Arm] found flap servo of type " + device.getDeviceName() + " on port " + device.getPortNumber()),
-                () -> getTelemetry().addLine("[Arm] could not find flap servo!")
+                device -> addSetupLine("[Arm] found flap servo of type " + device.getDeviceName() + " on port " + device.getPortNumber()),
+                () -> addSetupLine("[Arm] could not find flap servo!")
         );
 
         armMotor.runIfAvailable((arm) -> {
@@ -159,8 +205,24 @@ public final class Arm extends ConcurrentModule {
             arm.setDirection(DcMotorSimple.Direction.FORWARD);
             arm.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
         });
+
+        actuators = new ActuatorWriteBuffer();
+        armPower = armMotor.isAvailable() ? actuators.addMotor(armMotor.requireDevice()) : null;
+        wristPosition = wristServo.isAvailable() ? actuators.addServo(wristServo.requireDevice()) : null;
         armData = new ArmData();
 
+        ArmGravityFeedforward feedforward;
+        try {
+            feedforward = ArmGravityFeedforward.load(FEEDFORWARD_FIRST_ROTATION, FEEDFORWARD_LAST_ROTATION, FEEDFORWARD_ENTRIES);
+        }
+        catch (IOException | IllegalArgumentException e) {
+            RobotLog.ww(getClass().getSimpleName(), e, "Could not load measured gravity feedforward; using arm geometry");
+            feedforward = ArmGravityFeedforward.fromGeometry(ArmGravityFeedforward.HOLDING_POWER,
+                    FEEDFORWARD_FIRST_ROTATION, FEEDFORWARD_LAST_ROTATION, FEEDFORWARD_ENTRIES);
+        }
+        gravityFeedforward = feedforward;
+        addSetupLine("[Arm] gravity feedforward from " + (gravityFeedforward.isMeasured() ? "measurements" : "geometry"));
+
         isFlapOpen = true;
         closeFlap();
 
@@ -169,113 +231,387 @@ public final class Arm extends ConcurrentModule {
     }
 
     /**
-     * A thread that keeps the arm motor at the target position
+     * The presets that profiles are precomputed between
+     */
+    private static final double[] PROFILED_PRESETS = {
+            ArmPresets.IDLE,
+            ArmPresets.READY_TO_INTAKE,
+            ArmPresets.DEPOSIT_ON_FLOOR,
+            ArmPresets.DEPOSIT_ON_BACKDROP
+    };
+
+    /**
+     * A periodic task that moves the arm motor to the target position.  Instead of jumping straight to a new target,
+     *  the task follows a {@link TrapezoidalProfile} to it, so big moves don't overshoot or draw huge currents.
+     *  Profiles between {@link ArmPresets} are computed when the task is created; other profiles are planned into a
+     *  reused profile when the target changes.
+     * <br />
+     * The PID controller works in time units: the integral is in encoder tick-seconds and the derivative is in encoder
+     *  ticks per second, using the time between the bulk reads the encoder positions came from.  This way, the gains
+     *  mean the same thing no matter how fast the task actually runs.
+     * @see ModuleScheduler#setRateGroupOverride(Class, RateGroup)
      */
     @Config("Arm (Position Updater Thread)")
-    private static class ArmPositionUpdaterThread extends ModuleThread<Arm> {
-        public static final String THREAD_NAME = "Arm Position Updater";
+    private static class ArmPositionUpdaterTask extends ModuleTask<Arm> {
+        public static final String TASK_NAME = "Arm Position Updater";
 
+        /**
+         * Power per encoder tick of error
+         */
         public static double kP = 0.000945;
-        public static double kI = 0.001;
+
+        /**
+         * Power per encoder tick-second of accumulated error.  This used to be 0.001 per tick per iteration, which is
+         *  0.2 per tick-second at 200 Hz.
+         */
+        public static double kI = 0.2;
+
+        /**
+         * Power per encoder tick per second of change in error
+         */
         public static double kD = 0;
 
+        /**
+         * Power per encoder tick per second of profile velocity
+         */
+        public static double kV = 0;
+
         public static double INTEGRAL_MAX_POWER = 0.05;
 
         /**
-         * Initializes the thread
+         * The fastest the arm will be moved, in {@link #ANGLE_UNIT}s per second.  If this or {@link #MAX_ACCELERATION}
+         *  isn't positive, the arm moves straight to its target without a profile.
+         */
+        public static double MAX_VELOCITY = 100;
+
+        /**
+         * The fastest the arm will speed up or slow down, in {@link #ANGLE_UNIT}s per second squared
+         */
+        public static double MAX_ACCELERATION = 200;
+
+        /**
+         * The longest time step the controller will integrate over, in seconds.  If the task was held up (i.e. by a
+         *  garbage collection pause), the error during the pause is unknown, so it isn't integrated.
+         */
+        public static double MAX_DT_SECONDS = 0.05;
+
+        private double prevError;
+
+        /**
+         * The accumulated error, in encoder tick-seconds
+         */
+        private double errorIntegral;
+
+        /**
+         * The time of the bulk read used by the previous iteration, or 0 before the first iteration
+         * @see BulkReadCoordinator#getSnapshotNanos()
+         */
+        private long prevSnapshotNanos;
+
+        /**
+         * The sequence number of the command currently being followed, or -1 before the first command
+         * @see ArmData#getSequence(long)
+         */
+        private long commandSequence;
+
+        private volatile long appliedCommandCount;
+
+        /**
+         * The target position of the command currently being followed, in encoder ticks
+         */
+        private volatile int appliedTarget;
+
+        private boolean adjustWristPosition;
+        private double wristRotation;
+
+        /**
+         * The profile the arm is currently following, in encoder ticks
+         */
+        private final TrapezoidalProfile profile = new TrapezoidalProfile();
+
+        /**
+         * The time of the bulk read used by the iteration that started {@link #profile}, in nanoseconds
+         */
+        private long profileStartNanos;
+
+        /**
+         * The target positions of {@link #PROFILED_PRESETS}, in encoder ticks
+         */
+        private final int[] presetTargets;
+
+        /**
+         * The profile from every preset to every other preset.  The profile from preset i to preset j is at
+         *  {@code i * presetTargets.length + j}.
+         */
+        private final TrapezoidalProfile[] presetProfiles;
+
+        /**
+         * The constraints the preset profiles were computed with, in encoder ticks
+         */
+        private double presetMaxVelocity, presetMaxAcceleration;
+
+        private volatile double profileDuration;
+        private volatile long cachedProfileCount;
+        private volatile long plannedProfileCount;
+
+        /**
+         * Records the time between the bulk reads used by consecutive iterations
+         */
+        private final LatencyHistogram dtHistogram;
+
+        /**
+         * The time step used by the latest iteration, in seconds
+         */
+        private volatile double lastDtSeconds;
+
+        /**
+         * Initializes the task
          * @param arm The arm to use
          */
-        public ArmPositionUpdaterThread(Arm arm) {
-            super(arm, THREAD_NAME);
+        public ArmPositionUpdaterTask(Arm arm) {
+            super(arm, TASK_NAME, RateGroup.CONTROL_FAST);
+            dtHistogram = ModuleMetrics.getHistogram(Arm.class.getSimpleName() + "/" + TASK_NAME + " dt");
+
+            presetTargets = new int[PROFILED_PRESETS.length];
+            for (int i = 0; i < presetTargets.length; i++) {
+                presetTargets[i] = toTargetPosition(PROFILED_PRESETS[i], ANGLE_UNIT);
+            }
+            presetProfiles = new TrapezoidalProfile[presetTargets.length * presetTargets.length];
+            for (int i = 0; i < presetProfiles.length; i++) {
+                presetProfiles[i] = new TrapezoidalProfile();
+            }
+            if (areConstraintsValid(toTicks(MAX_VELOCITY), toTicks(MAX_ACCELERATION))) {
+                computePresetProfiles(toTicks(MAX_VELOCITY), toTicks(MAX_ACCELERATION));
+            } // otherwise they're computed by the first profile after the constraints are fixed
         }
 
-        @Override
-        public void execute() {
-            while (host.getState().isInInit()) {
-                if (host.getState().isTerminated()) {
-                    return; // if OpMode ends in init, end the thread
+        /**
+         * Can profiles be planned with these constraints?  {@link #MAX_VELOCITY} and {@link #MAX_ACCELERATION} can be
+         *  edited live on the dashboard, so they may be zero, negative, or NaN while someone is typing.
+         */
+        private static boolean areConstraintsValid(double maxVelocity, double maxAcceleration) {
+            return maxVelocity > 0 && maxAcceleration > 0;
+        }
+
+        /**
+         * Converts an amount of arm rotation to encoder ticks
+         * @param rotation The amount of rotation, in {@link #ANGLE_UNIT}s
+         */
+        private static double toTicks(double rotation) {
+            return rotation * ONE_REVOLUTION_ENCODER_TICKS / ONE_REVOLUTION_OUR_ANGLE_UNIT;
+        }
+
+        /**
+         * Plans the profiles between every pair of presets
+         * @param maxVelocity The maximum velocity, in encoder ticks per second
+         * @param maxAcceleration The maximum acceleration, in encoder ticks per second squared
+         */
+        private void computePresetProfiles(double maxVelocity, double maxAcceleration) {
+            for (int from = 0; from < presetTargets.length; from++) {
+                for (int to = 0; to < presetTargets.length; to++) {
+                    presetProfiles[from * presetTargets.length + to]
+                            .plan(presetTargets[from], presetTargets[to], maxVelocity, maxAcceleration);
                 }
-                Thread.yield(); // wait until OpMode starts before moving the motor
             }
+            presetMaxVelocity = maxVelocity;
+            presetMaxAcceleration = maxAcceleration;
+        }
 
-            host.armMotor.runIfAvailable(arm -> { // this thread does nothing if there is no arm motor to update
-                int curTarget = 0;
-                int error,
-                        prevError = 0,
-                        errorChange,
-                        errorTotal = 0;
-                double power;
-                boolean adjustWristPosition = false;
-                int currentPosition;
-                final AtomicReference<Double> wristRotation = new AtomicReference<>(0.0);
-
-                while (host.getState().isRunning()) {
-                    if (host.armData.isDirty.compareAndSet(true, false)) {
-                        curTarget = host.armData.getTargetPosition();
-                        adjustWristPosition = host.armData.getAdjustWristPosition();
-                        if (adjustWristPosition)
-                            host.wristServo.runIfAvailable(servo -> wristRotation.set(servo.getPosition()));
-
-                        // if we never made it to the target (i.e. we're tuning the PID controller and kI has been 0 for
-                        //  a while), we don't want a potentially massive error total to roll over to our new position
-                        //  and potentially be detrimental/dangerous
-                        errorTotal = 0;
-                    }
-
-                    currentPosition = arm.getCurrentPosition();
-                    if (adjustWristPosition) {
-                        final int finalCurrentPosition = currentPosition;
-                        host.wristServo.runIfAvailable(servo ->
-                                servo.setPosition(
-                                        wristRotation.get() - finalCurrentPosition / ONE_REVOLUTION_ENCODER_TICKS
-                                ));
-                    }
-
-                    error = currentPosition - curTarget;
-                    errorChange = error - prevError;
-                    errorTotal += error;
-                    errorTotal = (int)(Math.min(Math.abs(errorTotal), INTEGRAL_MAX_POWER / kI) * Math.signum(errorTotal)); // integral sum limit (errorTotal * kI <= INTEGRAL_MAX_POWER)
-
-                    power = error == 0 ? 0 : (error * kP) + (errorChange * kD) + (errorTotal * kI);
-                    arm.setPower(power);
-                    prevError = error;
+        /**
+         * Finds the preset with the given target position
+         * @param targetPosition The target position, in encoder ticks
+         * @return The index of the preset in {@link #presetTargets}, or -1 if no preset has that target
+         */
+        private int indexOfPreset(double targetPosition) {
+            for (int i = 0; i < presetTargets.length; i++) {
+                if (presetTargets[i] == targetPosition) {
+                    return i;
                 }
-                arm.setPower(0.0); // this probably does something
-            });
+            }
+            return -1;
         }
-    }
 
-    private static class ArmData {
-        public final AtomicBoolean isDirty = new AtomicBoolean(true);
-        private int targetPosition = 0;
-        private boolean adjustWristPosition = false;
-        private final Object dataMonitor = new Object(); // I'm pretty sure this is how threads work
-        public int getTargetPosition() {
-            synchronized (dataMonitor) {
-                return targetPosition;
+        /**
+         * Starts following a profile to a new target
+         * @param target The new target position, in encoder ticks
+         * @param nowNanos The time of the current bulk read, in nanoseconds
+         */
+        private void startProfile(int target, long nowNanos) {
+            final double maxVelocity = toTicks(MAX_VELOCITY);
+            final double maxAcceleration = toTicks(MAX_ACCELERATION);
+            if (!areConstraintsValid(maxVelocity, maxAcceleration)) {
+                // planning would throw and stop the task, so step straight to the target instead
+                RobotLog.ww(Arm.class.getSimpleName(), "Invalid arm motion profile constraints (velocity "
+                        + MAX_VELOCITY + ", acceleration " + MAX_ACCELERATION + "); moving without a profile");
+                profile.hold(target);
+                profileStartNanos = nowNanos;
+                profileDuration = 0;
+                return;
             }
-        }
-        public void setTargetPosition(int newTarget) {
-            if (targetPosition == newTarget) {
-                return; // nothing to update
+            if (maxVelocity != presetMaxVelocity || maxAcceleration != presetMaxAcceleration) {
+                computePresetProfiles(maxVelocity, maxAcceleration); // the constraints were changed on the dashboard
             }
 
-            synchronized (dataMonitor) {
-                targetPosition = newTarget;
-                isDirty.set(true);
+            final double t = (nowNanos - profileStartNanos) / 1e9;
+            final boolean settled = profile.isFinished(t);
+            final int from = settled ? indexOfPreset(profile.getEnd()) : -1;
+            final int to = indexOfPreset(target);
+            if (from != -1 && to != -1) {
+                profile.set(presetProfiles[from * presetTargets.length + to]);
+                cachedProfileCount++;
+            }
+            else {
+                // if we're in the middle of a move, start the new one from where the arm should be right now.  The new
+                //  profile starts at rest, so the arm slows down a bit more than it needs to when it is re-targeted
+                profile.plan(settled ? profile.getEnd() : profile.getPosition(t), target, maxVelocity, maxAcceleration);
+                plannedProfileCount++;
             }
+            profileStartNanos = nowNanos;
+            profileDuration = profile.getDuration();
+        }
+
+        @Override
+        protected void onStart() {
+            profile.hold(0); // the encoder was reset when the arm was initialized
+            profileStartNanos = 0;
+            profileDuration = 0;
+            prevError = 0;
+            errorIntegral = 0;
+            prevSnapshotNanos = 0;
+            commandSequence = -1; // pick up the current command, even if it hasn't changed since the last time we ran
+            appliedCommandCount = 0;
+            adjustWristPosition = false;
+            wristRotation = 0.0;
         }
-        public boolean getAdjustWristPosition() {
-            synchronized (dataMonitor) {
-                return adjustWristPosition;
+
+        @Override
+        protected void iterate() {
+            if (!host.armMotor.isAvailable()) {
+                return; // this task does nothing if there is no arm motor to update
+            }
+            final DcMotor arm = host.armMotor.requireDevice();
+
+            // the task's run() already synced the bulk cache, so this is the time the encoder position was read
+            final long snapshotNanos = BulkReadCoordinator.getInstance().getSnapshotNanos();
+
+            final long command = host.armData.getCommand();
+            if (ArmData.getSequence(command) != commandSequence) {
+                commandSequence = ArmData.getSequence(command);
+                appliedCommandCount++;
+                appliedTarget = ArmData.getTargetPosition(command);
+                startProfile(appliedTarget, snapshotNanos);
+                adjustWristPosition = ArmData.getAdjustWristPosition(command) && host.wristServo.isAvailable();
+                if (adjustWristPosition)
+                    wristRotation = host.wristServo.requireDevice().getPosition();
+
+                // if we never made it to the target (i.e. we're tuning the PID controller and kI has been 0 for
+                //  a while), we don't want a potentially massive error total to roll over to our new position
+                //  and potentially be detrimental/dangerous
+                errorIntegral = 0;
+            }
+
+            final double t = (snapshotNanos - profileStartNanos) / 1e9;
+            final double setpoint = profile.getPosition(t);
+            final double setpointVelocity = profile.getVelocity(t);
+            if (adjustWristPosition) {
+                // follow the profile rather than the encoder, so the wrist doesn't chase the arm's overshoot
+                host.wristPosition.stage(wristRotation - setpoint / ONE_REVOLUTION_ENCODER_TICKS);
+            }
+
+            final double error = arm.getCurrentPosition() - setpoint;
+            double errorDerivative = 0;
+            if (prevSnapshotNanos != 0 && snapshotNanos != prevSnapshotNanos) {
+                final long dtNanos = snapshotNanos - prevSnapshotNanos;
+                dtHistogram.record(dtNanos);
+                final double dt = Math.min(dtNanos / 1e9, MAX_DT_SECONDS);
+                lastDtSeconds = dt;
+                errorDerivative = (error - prevError) / dt;
+                errorIntegral += error * dt;
+                // integral sum limit (errorIntegral * kI <= INTEGRAL_MAX_POWER)
+                errorIntegral = Math.min(Math.abs(errorIntegral), INTEGRAL_MAX_POWER / kI) * Math.signum(errorIntegral);
             }
+            // otherwise, this is the first iteration or the encoder hasn't been read again, so there is no time step
+
+            // positive error needs positive power, so moving towards larger positions needs negative power
+            final double setpointRotation = setpoint * ONE_REVOLUTION_OUR_ANGLE_UNIT / ONE_REVOLUTION_ENCODER_TICKS
+                    - ARM_ANGLE_OFFSET;
+            final double feedforward = -setpointVelocity * kV + host.gravityFeedforward.getPower(setpointRotation);
+            final double power = error == 0 ? feedforward
+                    : (error * kP) + (errorDerivative * kD) + (errorIntegral * kI) + feedforward;
+            host.armPower.stage(power);
+            host.actuators.flush();
+            prevError = error;
+            prevSnapshotNanos = snapshotNanos;
         }
-        public void setAdjustWristPosition(boolean newValue) {
-            synchronized (dataMonitor) {
-                adjustWristPosition = newValue;
+
+        @Override
+        protected void onStop() {
+            if (host.armPower != null) {
+                host.armPower.stage(0.0); // this probably does something
+                host.actuators.flush();
             }
         }
     }
+
+    /**
+     * The latest command for {@link ArmPositionUpdaterTask}.  The target position, whether to adjust the wrist, and a
+     *  sequence number are packed into one {@link AtomicLong}, so the updater reads a consistent command with a single
+     *  volatile load and never waits on the OpMode thread.  The sequence number is increased every time the command
+     *  changes, which tells the updater there is a new command to start.
+     * <br />
+     * Bits 0-31 hold the target position, bit 32 holds the wrist flag, and bits 33-63 hold the sequence number.
+     */
+    private static final class ArmData {
+        private static final long TARGET_POSITION_MASK = 0xFFFF_FFFFL;
+        private static final long ADJUST_WRIST_POSITION_BIT = 1L << 32;
+        private static final long FIELDS_MASK = TARGET_POSITION_MASK | ADJUST_WRIST_POSITION_BIT;
+        private static final int SEQUENCE_SHIFT = 33;
+
+        private final AtomicLong command = new AtomicLong(0);
+
+        /**
+         * Gets the latest command
+         * @return The packed command.  Use the static getters to unpack it.
+         */
+        public long getCommand() {
+            return command.get();
+        }
+
+        /**
+         * Replaces the current command, if the new command is different
+         * @param targetPosition The target position, in encoder ticks
+         * @param adjustWristPosition Should the wrist rotate with the arm?
+         */
+        public void setCommand(int targetPosition, boolean adjustWristPosition) {
+            final long fields = (targetPosition & TARGET_POSITION_MASK) | (adjustWristPosition ? ADJUST_WRIST_POSITION_BIT : 0);
+            long current;
+            do {
+                current = command.get();
+                if ((current & FIELDS_MASK) == fields) {
+                    return; // nothing to update
+                }
+            } while (!command.compareAndSet(current, fields | ((getSequence(current) + 1) << SEQUENCE_SHIFT)));
+        }
+
+        public int getTargetPosition() {
+            return getTargetPosition(command.get());
+        }
+
+        public static int getTargetPosition(long command) {
+            return (int) (command & TARGET_POSITION_MASK);
+        }
+
+        public static boolean getAdjustWristPosition(long command) {
+            return (command & ADJUST_WRIST_POSITION_BIT) != 0;
+        }
+
+        /**
+         * Gets how many times the command had changed when the given command was set
+         */
+        public static long getSequence(long command) {
+            return command >>> SEQUENCE_SHIFT;
+        }
+    }
     private final ArmData armData;
 
     /**
@@ -283,9 +619,18 @@ public final class Arm extends ConcurrentModule {
      * @return The arm's position, in encoder ticks
      */
     public int getArmMotorPosition() {
+        BulkReadCoordinator.getInstance().sync();
         return armMotor.requireDevice().getCurrentPosition();
     }
 
+    /**
+     * Gets the power the arm's position controller last sent to the arm motor
+     * @return The arm motor's power, or 0 if there is no arm motor
+     */
+    public double getArmPower() {
+        return armPower == null ? 0 : armPower.getStagedValue();
+    }
+
     /**
      * Gets the arm motor's target position
      * @return The arm's target position, in encoder ticks
@@ -308,13 +653,30 @@ public final class Arm extends ConcurrentModule {
             return; // don't rotate the arm into the floor
         }
 
-        armData.setTargetPosition((int)Math.round(
+        armData.setCommand(toEncoderTicks(normalizedAngle), preserveWristRotation);
+    }
+
+    /**
+     * Converts a normalized arm angle to an encoder position
+     * @param normalizedAngle The angle, in {@link #ANGLE_UNIT}s, normalized by {@link #normalizeAngleOurWay(double, AngleUnit)}
+     * @return The encoder position, in ticks
+     */
+    private static int toEncoderTicks(double normalizedAngle) {
+        return (int)Math.round(
                 normalizedAngle
                         * ONE_REVOLUTION_ENCODER_TICKS // multiply before dividing to retain maximum precision
                         / ONE_REVOLUTION_OUR_ANGLE_UNIT
-        ));
+        );
+    }
 
-        armData.setAdjustWristPosition(preserveWristRotation);
+    /**
+     * Gets the encoder position that {@link #rotateArmTo(double, AngleUnit)} would target for a rotation
+     * @param rotation The rotation
+     * @param angleUnit The unit of rotation used
+     * @return The target position, in encoder ticks
+     */
+    private static int toTargetPosition(double rotation, AngleUnit angleUnit) {
+        return toEncoderTicks(normalizeAngleOurWay(rotation + angleUnit.fromUnit(ANGLE_UNIT, ARM_ANGLE_OFFSET), angleUnit));
     }
 
     /**
@@ -365,7 +727,8 @@ public final class Arm extends ConcurrentModule {
     public void rotateWristTo(double rotation, AngleUnit angleUnit) {
         wristServo.runIfAvailable((Servo wrist) -> {
             final double convertedRotation = ANGLE_UNIT.fromUnit(angleUnit, rotation); // convert angle to our unit
-            wrist.setPosition(convertedRotation * ONE_REVOLUTION_ENCODER_TICKS / ONE_REVOLUTION_OUR_ANGLE_UNIT);
+            wristPosition.stage(convertedRotation * ONE_REVOLUTION_ENCODER_TICKS / ONE_REVOLUTION_OUR_ANGLE_UNIT);
+            actuators.flush(); // the updater task might not be running yet
         });
     }
 
@@ -453,18 +816,89 @@ public final class Arm extends ConcurrentModule {
         return isFlapOpen;
     }
 
+    /**
+     * Keeps the arm at its target position
+     * @implNote This is set by {@link #registerModuleThreads()}, which runs during the superclass constructor, so it
+     *  must not have an initializer
+     */
+    private ArmPositionUpdaterTask positionUpdater;
+
     @Override
     protected void registerModuleThreads() {
-        registerAsyncOperation(new ArmPositionUpdaterThread(this));
+        positionUpdater = new ArmPositionUpdaterTask(this);
+        registerPeriodicTask(positionUpdater);
+    }
+
+    /**
+     * Gets the rate the arm's position controller is actually running at
+     * @return The achieved frequency, in hertz
+     */
+    public double getControllerFrequency() {
+        return positionUpdater.getAchievedFrequency();
+    }
+
+    /**
+     * Gets how late the arm's position controller starts each iteration on average
+     * @return The average jitter, in nanoseconds
+     */
+    public double getControllerJitterNanos() {
+        return positionUpdater.getAverageJitterNanos();
+    }
+
+    /**
+     * Gets the time step used by the latest iteration of the arm's position controller
+     * @return The time between the encoder readings used by the last two iterations, in seconds
+     */
+    public double getControllerDtSeconds() {
+        return positionUpdater.lastDtSeconds;
+    }
+
+    /**
+     * Gets how many different commands have been given to the arm (i.e. by {@link #rotateArmTo(double)})
+     */
+    public long getArmCommandCount() {
+        return ArmData.getSequence(armData.getCommand());
+    }
+
+    /**
+     * Gets how many commands the arm's position controller has started following since it was started.  Commands that
+     *  are replaced before the controller's next iteration are never followed.
+     */
+    public long getAppliedArmCommandCount() {
+        return positionUpdater.appliedCommandCount;
+    }
+
+    /**
+     * Gets the target position of the command the arm's position controller is currently following.  This lags behind
+     *  {@link #getArmMotorTarget()} until the controller's next iteration.
+     * @return The target position, in encoder ticks
+     */
+    public int getAppliedArmMotorTarget() {
+        return positionUpdater.appliedTarget;
+    }
+
+    /**
+     * Gets how long the arm's current (or latest) move takes from start to finish
+     * @return The duration of the motion profile, in seconds
+     */
+    public double getMoveDuration() {
+        return positionUpdater.profileDuration;
     }
 
     @Override
     public void log() {
-        getTelemetry().addData("[Arm] module state", getState());
-        armMotor.runIfAvailable(arm -> getTelemetry().addData( "[Arm] (arm motor) current rotation",
+        getLog().addData("[Arm] module state", getState());
+        armMotor.runIfAvailable(arm -> getLog().addData( "[Arm] (arm motor) current rotation",
                 Math.rint(getArmRotation(AngleUnit.DEGREES) * 100) / 100 ));
-        wristServo.runIfAvailable(wrist -> getTelemetry().addData( "[Arm] (wrist servo) current rotation",
+        wristServo.runIfAvailable(wrist -> getLog().addData( "[Arm] (wrist servo) current rotation",
                 Math.rint(getWristRotation(AngleUnit.DEGREES) * 100) / 100 ));
-        flapServo.runIfAvailable(flap -> getTelemetry().addData("[Arm] is the flap open", isFlapOpen()));
+        flapServo.runIfAvailable(flap -> getLog().addData("[Arm] is the flap open", isFlapOpen()));
+        getLog().addData("[Arm] controller rate", "%.0f Hz (dt %.2f ms, jitter avg %.2f ms)",
+                getControllerFrequency(), getControllerDtSeconds() * 1e3, getControllerJitterNanos() / 1e6);
+        getLog().addData("[Arm] commands given/applied", "%d/%d", getArmCommandCount(), getAppliedArmCommandCount());
+        getLog().addData("[Arm] move duration", "%.2f s (%d precomputed/%d planned)", getMoveDuration(),
+                positionUpdater.cachedProfileCount, positionUpdater.plannedProfileCount);
+        getLog().addData("[Arm] actuator writes issued/suppressed", "%d/%d",
+                actuators.getIssuedCount(), actuators.getSuppressedCount());
     }
 }
@@ -0,0 +1,241 @@
+package org.firstinspires.ftc.teamcode.modules;
+
+import com.acmerobotics.dashboard.config.Config;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The motor power needed to hold the {@link Arm} still against gravity, by arm rotation.  The table is built once, either
+ *  from holding powers measured by {@link org.firstinspires.ftc.teamcode.opmode.test.ArmGravityTuner} or from the arm's
+ *  geometry (gravity's torque on the arm is proportional to the cosine of the arm's angle from horizontal).  Looking up
+ *  a power only interpolates between two entries, so it is cheap enough to do every iteration of the arm's controller.
+ * <br />
+ * Rotations are in {@link Arm#ANGLE_UNIT}s, measured the same way as {@link Arm#getArmRotation()}.  Powers are signed
+ *  the same way as the power sent to the arm motor.
+ */
+@Config("Arm Gravity Feedforward")
+public final class ArmGravityFeedforward {
+    /**
+     * The power needed to hold the arm horizontal.  This is only used if no measurements have been saved.
+     */
+    public static double HOLDING_POWER = 0;
+
+    /**
+     * What the power from the table is multiplied by.  Set this to 0 to turn off the feedforward.
+     */
+    public static double GAIN = 1;
+
+    /**
+     * Where measured holding powers are saved.  This is AppUtil.FIRST_FOLDER, which isn't referenced directly because
+     *  AppUtil loads native code when it is initialized, so it can't be used in simulations.
+     */
+    public static final File SAMPLE_FILE = new File("/sdcard/FIRST/arm_gravity_feedforward.csv");
+
+    /**
+     * The rotation of the first entry in the table
+     */
+    private final double firstRotation;
+
+    /**
+     * The difference in rotation between neighboring entries
+     */
+    private final double rotationPerEntry;
+
+    private final double[] powers;
+
+    /**
+     * Were the entries interpolated from measurements (rather than from the arm's geometry)?
+     */
+    private final boolean measured;
+
+    private ArmGravityFeedforward(double firstRotation, double lastRotation, double[] powers, boolean measured) {
+        this.firstRotation = firstRotation;
+        this.rotationPerEntry = (lastRotation - firstRotation) / (powers.length - 1);
+        this.powers = powers;
+        this.measured = measured;
+    }
+
+    /**
+     * Builds a table from the arm's geometry
+     * @param holdingPower The power needed to hold the arm horizontal
+     * @param firstRotation The lowest rotation in the table
+     * @param lastRotation The highest rotation in the table
+     * @param entries The number of entries in the table
+     * @return The table
+     * @throws IllegalArgumentException The table has fewer than 2 entries, or the rotations are out of order
+     */
+    public static ArmGravityFeedforward fromGeometry(double holdingPower, double firstRotation, double lastRotation, int entries) {
+        checkRange(firstRotation, lastRotation, entries);
+        final double[] powers = new double[entries];
+        for (int i = 0; i < entries; i++) {
+            final double rotation = firstRotation + (lastRotation - firstRotation) * i / (entries - 1);
+            powers[i] = holdingPower * Math.cos(Arm.ANGLE_UNIT.getUnnormalized().toRadians(rotation));
+        }
+        return new ArmGravityFeedforward(firstRotation, lastRotation, powers, false);
+    }
+
+    /**
+     * Builds a table from measured holding powers.  Rotations between two measurements are linearly interpolated, and
+     *  rotations outside the measurements use the closest measurement.
+     * @param sampleRotations The rotations the measurements were made at, in increasing order
+     * @param samplePowers The measured holding powers
+     * @param firstRotation The lowest rotation in the table
+     * @param lastRotation The highest rotation in the table
+     * @param entries The number of entries in the table
+     * @return The table
+     * @throws IllegalArgumentException There are no measurements, the measurements are out of order, the table has fewer
+     *  than 2 entries, or the table's rotations are out of order
+     */
+    public static ArmGravityFeedforward fromSamples(double[] sampleRotations, double[] samplePowers,
+                                                    double firstRotation, double lastRotation, int entries) {
+        checkRange(firstRotation, lastRotation, entries);
+        if (sampleRotations.length == 0 || sampleRotations.length != samplePowers.length) {
+            throw new IllegalArgumentException("Expected the same, nonzero amount of rotations and powers (got "
+                    + sampleRotations.length + " rotations and " + samplePowers.length + " powers)");
+        }
+        for (int i = 1; i < sampleRotations.length; i++) {
+            if (!(sampleRotations[i] > sampleRotations[i - 1])) {
+                throw new IllegalArgumentException("Sample rotations must be in increasing order");
+            }
+        }
+
+        final double[] powers = new double[entries];
+        int sample = 0;
+        for (int i = 0; i < entries; i++) {
+            final double rotation = firstRotation + (lastRotation - firstRotation) * i / (entries - 1);
+            while (sample < sampleRotations.length - 1 && sampleRotations[sample + 1] <= rotation) {
+                sample++;
+            }
+            if (rotation <= sampleRotations[0]) {
+                powers[i] = samplePowers[0];
+            }
+            else if (sample == sampleRotations.length - 1) {
+                powers[i] = samplePowers[sample];
+            }
+            else {
+                final double fraction = (rotation - sampleRotations[sample])
+                        / (sampleRotations[sample + 1] - sampleRotations[sample]);
+                powers[i] = samplePowers[sample] + (samplePowers[sample + 1] - samplePowers[sample]) * fraction;
+            }
+        }
+        return new ArmGravityFeedforward(firstRotation, lastRotation, powers, true);
+    }
+
+    /**
+     * Builds a table from the measurements in {@link #SAMPLE_FILE}, or from the arm's geometry and
+     *  {@link #HOLDING_POWER} if nothing has been measured
+     * @param firstRotation The lowest rotation in the table
+     * @param lastRotation The highest rotation in the table
+     * @param entries The number of entries in the table
+     * @return The table
+     * @throws IOException The sample file exists, but couldn't be read
+     */
+    public static ArmGravityFeedforward load(double firstRotation, double lastRotation, int entries) throws IOException {
+        final double[][] samples;
+        try {
+            samples = readSamples(SAMPLE_FILE);
+        }
+        catch (FileNotFoundException e) {
+            return fromGeometry(HOLDING_POWER, firstRotation, lastRotation, entries);
+        }
+        return fromSamples(samples[0], samples[1], firstRotation, lastRotation, entries);
+    }
+
+    private static void checkRange(double firstRotation, double lastRotation, int entries) {
+        if (entries < 2 || !(lastRotation > firstRotation)) {
+            throw new IllegalArgumentException("A feedforward table needs at least 2 entries over an increasing range of "
+                    + "rotations (got " + entries + " entries from " + firstRotation + " to " + lastRotation + ")");
+        }
+    }
+
+    /**
+     * Gets the power needed to hold the arm at a rotation, multiplied by {@link #GAIN}
+     * @param rotation The rotation of the arm, in {@link Arm#ANGLE_UNIT}s
+     * @return The holding power
+     */
+    public double getPower(double rotation) {
+        final double index = (rotation - firstRotation) / rotationPerEntry;
+        final double power;
+        if (index <= 0) {
+            power = powers[0];
+        }
+        else if (index >= powers.length - 1) {
+            power = powers[powers.length - 1];
+        }
+        else {
+            final int i = (int) index;
+            power = powers[i] + (powers[i + 1] - powers[i]) * (index - i);
+        }
+        return power * GAIN;
+    }
+
+    /**
+     * Were the entries interpolated from measurements (rather than from the arm's geometry)?
+     */
+    public boolean isMeasured() {
+        return measured;
+    }
+
+    /**
+     * Saves measured holding powers, replacing any previous measurements
+     * @param file The file to write to (usually {@link #SAMPLE_FILE})
+     * @param rotations The rotations the measurements were made at, in increasing order
+     * @param powers The measured holding powers
+     * @throws IOException The file couldn't be written
+     */
+    public static void saveSamples(File file, double[] rotations, double[] powers) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("# arm rotation (" + Arm.ANGLE_UNIT + "), holding power");
+            for (int i = 0; i < rotations.length; i++) {
+                writer.printf(Locale.US, "%.3f,%.5f%n", rotations[i], powers[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads measured holding powers
+     * @param file The file to read from (usually {@link #SAMPLE_FILE})
+     * @return The rotations at index 0 and the powers at index 1
+     * @throws FileNotFoundException The file doesn't exist
+     * @throws IOException The file couldn't be read, or a line isn't a rotation and a power separated by a comma
+     */
+    public static double[][] readSamples(File file) throws IOException {
+        double[] rotations = new double[8];
+        double[] powers = new double[8];
+        int count = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                final String[] fields = line.split(",");
+                if (fields.length != 2) {
+                    throw new IOException("Malformed line in " + file + ": " + line);
+                }
+                if (count == rotations.length) {
+                    rotations = Arrays.copyOf(rotations, count * 2);
+                    powers = Arrays.copyOf(powers, count * 2);
+                }
+                try {
+                    rotations[count] = Double.parseDouble(fields[0]);
+                    powers[count] = Double.parseDouble(fields[1]);
+                }
+                catch (NumberFormatException e) {
+                    throw new IOException("Malformed line in " + file + ": " + line, e);
+                }
+                count++;
+            }
+        }
+        return new double[][] { Arrays.copyOf(rotations, count), Arrays.copyOf(powers, count) };
+    }
+}
@@ -4,6 +4,7 @@ import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.Servo;
 import org.firstinspires.ftc.teamcode.hardware.ConditionalHardwareDevice;
 import org.firstinspires.ftc.teamcode.modules.core.Module;
+import org.firstinspires.ftc.teamcode.modules.core.ModuleLog;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -24,8 +25,8 @@ public class Claw extends Module {
     public Claw(OpMode registrar, String servoName, double grabbingServoPosition, double releasedServoPosition) {
         super(registrar);
 
-        getTelemetry().addLine("[" + servoName +"] grab pos: " + grabbingServoPosition);
-        getTelemetry().addLine("[" + servoName +"] release pos: " + releasedServoPosition);
+        addSetupLine("[" + servoName +"] grab pos: " + grabbingServoPosition);
+        addSetupLine("[" + servoName +"] release pos: " + releasedServoPosition);
 
         this.grabbingServoPosition = (grabbingServoPosition % 1 == 0 && grabbingServoPosition != 0) ? 1 : (1 + grabbingServoPosition) % 1;
         this.releasedServoPosition = (releasedServoPosition % 1 == 0 && releasedServoPosition != 0) ? 1 : (1 + releasedServoPosition) % 1;
@@ -80,7 +81,15 @@ public class Claw extends Module {
 
     @Override
     public void log() {
-        clawServo.runIfAvailable(claw -> getTelemetry().addData(claw.getDeviceName() + " pos", claw.getPosition()));
+        logTo(getLog());
+    }
+
+    /**
+     * Writes the claw's status to a log
+     * @param log The log, which may belong to a module containing this claw
+     */
+    /* package-private */ void logTo(ModuleLog log) {
+        clawServo.runIfAvailable(claw -> log.addData(claw.getDeviceName() + " pos", claw.getPosition()));
     }
 
     @Override
@@ -42,9 +42,9 @@ public class DoubleClaw extends Module {
 
     @Override
     public void log() {
-        getTelemetry().addData("Claw state", getClawState());
-        inner.log();
-        outer.log();
+        getLog().addData("Claw state", getClawState());
+        inner.logTo(getLog());
+        outer.logTo(getLog());
     }
 
     public void incrementClawState() {
@@ -1,13 +1,17 @@
 package org.firstinspires.ftc.teamcode.modules;
 
-import android.util.Pair;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import org.firstinspires.ftc.teamcode.hardware.ActuatorWriteBuffer;
 import org.firstinspires.ftc.teamcode.hardware.ConditionalHardwareDeviceGroup;
 import org.firstinspires.ftc.teamcode.modules.core.Module;
+import org.firstinspires.ftc.teamcode.modules.core.ModuleMetrics;
+import org.firstinspires.ftc.teamcode.modules.core.RobotModule;
+import org.firstinspires.ftc.teamcode.modules.core.TimingProbe;
 
+@RobotModule
 public class DriveTrain extends Module {
     /**
      * The motor that drives the front right mecanum wheel
@@ -15,7 +19,7 @@ public class DriveTrain extends Module {
      * {@link ConditionalHardwareDeviceGroup#executeIfAllAreAvailable(Runnable)} of {@link #hardwareDevices}
      */
     protected final DcMotorEx getFrontRightMecanumDriver() {
-        return hardwareDevices.getLoadedDevice(DcMotorEx.class, FRONT_RIGHT_MECANUM_DRIVER_DEFAULT_NAME);
+        return frontRightMecanumDriver.get();
     }
 
     /**
@@ -30,7 +34,7 @@ public class DriveTrain extends Module {
      * {@link ConditionalHardwareDeviceGroup#executeIfAllAreAvailable(Runnable)} of {@link #hardwareDevices}
      */
     protected final DcMotorEx getFrontLeftMecanumDriver() {
-        return hardwareDevices.getLoadedDevice(DcMotorEx.class, FRONT_LEFT_MECANUM_DRIVER_DEFAULT_NAME);
+        return frontLeftMecanumDriver.get();
     }
 
 
@@ -46,7 +50,7 @@ public class DriveTrain extends Module {
      * {@link ConditionalHardwareDeviceGroup#executeIfAllAreAvailable(Runnable)} of {@link #hardwareDevices}
      */
     protected final DcMotorEx getBackRightMecanumDriver() {
-        return hardwareDevices.getLoadedDevice(DcMotorEx.class, BACK_RIGHT_MECANUM_DRIVER_DEFAULT_NAME);
+        return backRightMecanumDriver.get();
     }
 
 
@@ -61,7 +65,7 @@ public class DriveTrain extends Module {
      * {@link ConditionalHardwareDeviceGroup#executeIfAllAreAvailable(Runnable)} of {@link #hardwareDevices}
      */
     protected final DcMotorEx getBackLeftMecanumDriver() {
-        return hardwareDevices.getLoadedDevice(DcMotorEx.class, BACK_LEFT_MECANUM_DRIVER_DEFAULT_NAME);
+        return backLeftMecanumDriver.get();
     }
 
 
@@ -75,20 +79,42 @@ public class DriveTrain extends Module {
      */
     protected final ConditionalHardwareDeviceGroup hardwareDevices;
 
+    // Handles to the drive motors, resolved when they are loaded
+    private final ConditionalHardwareDeviceGroup.DeviceHandle<DcMotorEx> frontRightMecanumDriver;
+    private final ConditionalHardwareDeviceGroup.DeviceHandle<DcMotorEx> frontLeftMecanumDriver;
+    private final ConditionalHardwareDeviceGroup.DeviceHandle<DcMotorEx> backRightMecanumDriver;
+    private final ConditionalHardwareDeviceGroup.DeviceHandle<DcMotorEx> backLeftMecanumDriver;
+
+    /**
+     * Buffers writes to the drive motors, so that unchanged powers aren't sent to the hub
+     */
+    protected final ActuatorWriteBuffer actuators;
+
+    // The power of each drive motor, in the order they are written.  These are only set if all drive motors are available.
+    protected ActuatorWriteBuffer.Channel frontLeftPower;
+    protected ActuatorWriteBuffer.Channel frontRightPower;
+    protected ActuatorWriteBuffer.Channel backLeftPower;
+    protected ActuatorWriteBuffer.Channel backRightPower;
+
+    /**
+     * Measures {@link #setVelocity(double, double, double)}
+     */
+    protected final TimingProbe setVelocityProbe;
+
     /**
      * Attempts to initialize the module by getting motors with the default names from a hardware map
      * @param registrar the OpMode that will be using the module
      */
     public DriveTrain(OpMode registrar) {
         super(registrar);
+        setVelocityProbe = ModuleMetrics.getProbe(getClass().getSimpleName() + ".setVelocity");
+        actuators = new ActuatorWriteBuffer();
 
         hardwareDevices = new ConditionalHardwareDeviceGroup(parent.hardwareMap);
-        hardwareDevices.tryLoadDevices(
-                new Pair<>(DcMotorEx.class, FRONT_RIGHT_MECANUM_DRIVER_DEFAULT_NAME),
-                new Pair<>(DcMotorEx.class, FRONT_LEFT_MECANUM_DRIVER_DEFAULT_NAME),
-                new Pair<>(DcMotorEx.class, BACK_RIGHT_MECANUM_DRIVER_DEFAULT_NAME),
-                new Pair<>(DcMotorEx.class, BACK_LEFT_MECANUM_DRIVER_DEFAULT_NAME)
-        );
+        frontRightMecanumDriver = hardwareDevices.tryLoadDevice(DcMotorEx.class, FRONT_RIGHT_MECANUM_DRIVER_DEFAULT_NAME);
+        frontLeftMecanumDriver = hardwareDevices.tryLoadDevice(DcMotorEx.class, FRONT_LEFT_MECANUM_DRIVER_DEFAULT_NAME);
+        backRightMecanumDriver = hardwareDevices.tryLoadDevice(DcMotorEx.class, BACK_RIGHT_MECANUM_DRIVER_DEFAULT_NAME);
+        backLeftMecanumDriver = hardwareDevices.tryLoadDevice(DcMotorEx.class, BACK_LEFT_MECANUM_DRIVER_DEFAULT_NAME);
 
         hardwareDevices.executeIfAllAreAvailable(() -> {
 
@@ -105,8 +131,13 @@ public class DriveTrain extends Module {
                     getBackRightMecanumDriver()
             );
 
-            getTelemetry().addLine("[Drive Train] Found all drive motors");
-        }, () -> getTelemetry().addLine("[Drive Train] Could not find all drive motors!"));
+            frontLeftPower = actuators.addMotor(getFrontLeftMecanumDriver());
+            frontRightPower = actuators.addMotor(getFrontRightMecanumDriver());
+            backLeftPower = actuators.addMotor(getBackLeftMecanumDriver());
+            backRightPower = actuators.addMotor(getBackRightMecanumDriver());
+
+            addSetupLine("[Drive Train] Found all drive motors");
+        }, () -> addSetupLine("[Drive Train] Could not find all drive motors!"));
     }
 
     /**
@@ -131,7 +162,12 @@ public class DriveTrain extends Module {
 
     @Override
     public void log() {
-        // nothing to log
+        getLog().addData("[Drive Train] Moving by vector:", "<%f, %f, %f>", lastDistX, lastDistY, lastRotation);
+        hardwareDevices.executeIfAllAreAvailable(() -> getLog().addData("[Drive Train] motor power",
+                "%f, %f, %f, %f", frontLeftPower.getStagedValue(), frontRightPower.getStagedValue(),
+                backLeftPower.getStagedValue(), backRightPower.getStagedValue()));
+        getLog().addData("[Drive Train] motor writes issued/suppressed", "%d/%d",
+                actuators.getIssuedCount(), actuators.getSuppressedCount());
     }
 
     /**
@@ -144,48 +180,77 @@ public class DriveTrain extends Module {
      */
     public static final double SCALE = 1;
 
+    /**
+     * The latest command passed to {@link #setVelocity(double, double, double)}, kept for {@link #log()}
+     * @implNote These are written without allocating anything, so that telemetry isn't formatted on the drive loop
+     */
+    private volatile double lastDistX, lastDistY, lastRotation;
+
+    /**
+     * Records a movement command for {@link #log()}.  Subclasses that override
+     *  {@link #setVelocity(double, double, double)} must call this, or the logged vector never changes.
+     * @param distX The right velocity
+     * @param distY The forward velocity
+     * @param rotation The rotational velocity
+     */
+    protected final void recordVelocityCommand(double distX, double distY, double rotation) {
+        lastDistX = distX;
+        lastDistY = distY;
+        lastRotation = rotation;
+    }
+
     /**
      * Moves and rotates the robot
      * @param distX The right velocity
      * @param distY The forward velocity
      * @param rotation The rotational velocity
+     * @implNote This doesn't allocate, so that the garbage collector never pauses the drive loop
      */
     public void setVelocity(double distX, double distY, double rotation) {
-        hardwareDevices.executeIfAllAreAvailable(() -> {
-            getTelemetry().addData("[Drive Train] Moving by vector:", "<%f, %f, %f>", distX, distY, rotation);
-
-            // Combine the requests for each axis-motion to determine each wheel's power.
-            // (formula was found on gm0)
-            double leftFrontPower = distY + distX + rotation;
-            double leftBackPower = distY - distX + rotation;
-            double rightFrontPower = distY + distX - rotation;
-            double rightBackPower = distY - distX - rotation;
-
-            // Normalize the values so no wheel power exceeds 100%
-            // This ensures that the robot maintains the desired motion.
-            double max = Math.max(Math.abs(leftFrontPower), Math.abs(rightFrontPower));
-            max = Math.max(max, Math.abs(leftBackPower));
-            max = Math.max(max, Math.abs(rightBackPower));
-
-            if (max > 1.0) {
-                leftFrontPower /= max;
-                rightFrontPower /= max;
-                leftBackPower /= max;
-                rightBackPower /= max;
-            }
-
-            leftFrontPower = Math.pow(leftFrontPower, POWER_SCALE) * SCALE;
-            rightFrontPower = Math.pow(rightFrontPower, POWER_SCALE) * SCALE;
-            rightBackPower = Math.pow(rightBackPower, POWER_SCALE) * SCALE;
-            leftBackPower = Math.pow(leftBackPower, POWER_SCALE) * SCALE;
-
-            getTelemetry().addData("Setting motor power", "%f, %f, %f, %f", leftFrontPower, rightFrontPower, leftBackPower, rightBackPower);
-
-            // Send calculated power to wheels
-            getFrontLeftMecanumDriver().setPower(leftFrontPower);
-            getFrontRightMecanumDriver().setPower(rightFrontPower);
-            getBackRightMecanumDriver().setPower(rightBackPower);
-            getBackLeftMecanumDriver().setPower(leftBackPower);
-        });
+        if (!hardwareDevices.areAllDevicesAvailable()) {
+            return;
+        }
+        setVelocityProbe.begin();
+        recordVelocityCommand(distX, distY, rotation);
+
+        // Combine the requests for each axis-motion to determine each wheel's power.
+        // (formula was found on gm0)
+        double leftFrontPower = distY + distX + rotation;
+        double leftBackPower = distY - distX + rotation;
+        double rightFrontPower = distY + distX - rotation;
+        double rightBackPower = distY - distX - rotation;
+
+        // Normalize the values so no wheel power exceeds 100%
+        // This ensures that the robot maintains the desired motion.
+        double max = Math.max(Math.abs(leftFrontPower), Math.abs(rightFrontPower));
+        max = Math.max(max, Math.abs(leftBackPower));
+        max = Math.max(max, Math.abs(rightBackPower));
+
+        if (max > 1.0) {
+            leftFrontPower /= max;
+            rightFrontPower /= max;
+            leftBackPower /= max;
+            rightBackPower /= max;
+        }
+
+        // Send calculated power to wheels
+        frontLeftPower.stage(scalePower(leftFrontPower));
+        frontRightPower.stage(scalePower(rightFrontPower));
+        backRightPower.stage(scalePower(rightBackPower));
+        backLeftPower.stage(scalePower(leftBackPower));
+        actuators.flush();
+        setVelocityProbe.end();
+    }
+
+    /**
+     * Applies {@link #POWER_SCALE} and {@link #SCALE} to a motor power
+     * @param power The normalized motor power
+     * @return The scaled power
+     */
+    protected static double scalePower(double power) {
+        if (POWER_SCALE == 1) {
+            return power * SCALE; // Math.pow is expensive, even for an exponent of 1
+        }
+        return Math.pow(power, POWER_SCALE) * SCALE;
     }
 }
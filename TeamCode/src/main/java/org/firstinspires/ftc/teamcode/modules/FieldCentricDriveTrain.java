@@ -5,7 +5,10 @@ import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.IMU;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 import org.firstinspires.ftc.teamcode.hardware.ConditionalHardwareDeviceGroup;
+import org.firstinspires.ftc.teamcode.hardware.ImuSampler;
+import org.firstinspires.ftc.teamcode.modules.core.RobotModule;
 
+@RobotModule
 public class FieldCentricDriveTrain extends DriveTrain {
 
     public static final AngleUnit ANGLE_UNIT = AngleUnit.RADIANS;
@@ -16,7 +19,7 @@ public class FieldCentricDriveTrain extends DriveTrain {
      * {@link ConditionalHardwareDeviceGroup#executeIfAllAreAvailable(Runnable)} of {@link #hardwareDevices}
      */
     protected final IMU getIMU() {
-        return hardwareDevices.getLoadedDevice(IMU.class, IMU_NAME);
+        return imu.get();
     }
 
     private static final IMU.Parameters IMU_PARAMETERS = new IMU.Parameters(new RevHubOrientationOnRobot(
@@ -28,47 +31,99 @@ public class FieldCentricDriveTrain extends DriveTrain {
 
     public static final String IMU_NAME = "imu";
 
+    private final ConditionalHardwareDeviceGroup.DeviceHandle<IMU> imu;
+
+    /**
+     * Polls the IMU in the background, or null if the hardware devices are unavailable
+     */
+    private final ImuSampler imuSampler;
+
+    /**
+     * Gets the latest IMU reading
+     * @return The latest sample, which may be up to one sampling period old
+     * @apiNote This should only be called within the
+     * {@link ConditionalHardwareDeviceGroup#executeIfAllAreAvailable(Runnable)} of {@link #hardwareDevices}
+     */
+    protected final ImuSampler.Sample getImuSample() {
+        return imuSampler.getLatest();
+    }
+
+    /**
+     * Gets the sampler polling the IMU
+     * @return The sampler, or null if the hardware devices are unavailable
+     */
+    protected final ImuSampler getImuSampler() {
+        return imuSampler;
+    }
+
     public FieldCentricDriveTrain(OpMode registrar) {
         super(registrar);
-        hardwareDevices.tryLoadDevice(IMU.class, IMU_NAME);
+        imu = hardwareDevices.tryLoadDevice(IMU.class, IMU_NAME);
+
+        // the IMU has to be initialized before it can be sampled
+        hardwareDevices.executeIfAllAreAvailable(() -> getIMU().initialize(getImuParameters()));
+        imuSampler = hardwareDevices.areAllDevicesAvailable() ? ImuSampler.getInstance(getIMU()) : null;
 
         hardwareDevices.executeIfAllAreAvailable(() -> {
-            getIMU().initialize(getImuParameters());
             resetRotation();
-            getTelemetry().addLine("[Field Centric Drive Train] Found IMU");
-        }, () -> getTelemetry().addLine("[Field Centric Drive Train] Couldn't find IMU!"));
+            addSetupLine("[Field Centric Drive Train] Found IMU");
+        }, () -> addSetupLine("[Field Centric Drive Train] Couldn't find IMU!"));
     }
 
     public void resetRotation() {
-        hardwareDevices.executeIfAllAreAvailable(getIMU()::resetYaw);
+        hardwareDevices.executeIfAllAreAvailable(imuSampler::resetYaw);
     }
 
+    @Override
+    public void log() {
+        super.log();
+        getLog().addData("[Field Centric Drive Train] current x rotation", lastRotX);
+        getLog().addData("[Field Centric Drive Train] current y rotation", lastRotY);
+        getLog().addData("[Field Centric Drive Train] bot heading value", lastHeading);
+        hardwareDevices.executeIfAllAreAvailable(() -> getLog().addData(
+                "[Field Centric Drive Train] IMU sample age p95", "%.1f ms (%d stale reads)",
+                imuSampler.getSampleAges().getPercentile(95) / 1e6, imuSampler.getStaleReadCount()));
+    }
+
+    /**
+     * The robot-relative movement and heading computed by the latest call to
+     *  {@link #setVelocity(double, double, double)}, kept for {@link #log()}
+     */
+    private volatile double lastRotX, lastRotY, lastHeading;
+
+    /**
+     * {@inheritDoc}
+     * @implNote Like {@link DriveTrain#setVelocity(double, double, double)}, this doesn't allocate
+     */
     @Override
     public void setVelocity(double distX, double distY, double rotation) {
-        hardwareDevices.executeIfAllAreAvailable(() -> {
-            double botHeading = getIMU().getRobotYawPitchRollAngles().getYaw(ANGLE_UNIT)/* - curZero*/;
-
-            // Rotate the movement direction counter to the robot's rotation
-            double rotX = (distX * Math.cos(-botHeading) - distY * Math.sin(-botHeading));
-            double rotY = distX * Math.sin(-botHeading) + distY * Math.cos(-botHeading);
-            getTelemetry().addData("[Field Centric Drive Train] current x rotation", rotX);
-            getTelemetry().addData("[Field Centric Drive Train] current y rotation", rotY);
-            getTelemetry().addData("[Field Centric Drive Train] bot heading value", botHeading);
-            rotX = rotX * 1.1;  // Counteract imperfect strafing
-
-            // Denominator is the largest motor power (absolute value) or 1
-            // This ensures all the powers maintain the same ratio,
-            // but only if at least one is out of the range [-1, 1]
-            double denominator = Math.max(Math.abs(rotY) + Math.abs(rotX) + Math.abs(rotation), 1);
-            double frontLeftPower = (rotY + rotX + rotation) / denominator;
-            double backLeftPower = (rotY - rotX + rotation) / denominator;
-            double frontRightPower = (rotY - rotX - rotation) / denominator;
-            double backRightPower = (rotY + rotX - rotation) / denominator;
-            //Set power to motors
-            getFrontLeftMecanumDriver().setPower(frontLeftPower);
-            getBackLeftMecanumDriver().setPower(backLeftPower);
-            getFrontRightMecanumDriver().setPower(frontRightPower);
-            getBackRightMecanumDriver().setPower(backRightPower);
-        });
+        if (!hardwareDevices.areAllDevicesAvailable()) {
+            return;
+        }
+        setVelocityProbe.begin();
+        recordVelocityCommand(distX, distY, rotation);
+        final double botHeading = getImuSample().getYaw(ANGLE_UNIT)/* - curZero*/;
+
+        // Rotate the movement direction counter to the robot's rotation
+        final double cos = Math.cos(-botHeading);
+        final double sin = Math.sin(-botHeading);
+        double rotX = distX * cos - distY * sin;
+        final double rotY = distX * sin + distY * cos;
+        lastRotX = rotX;
+        lastRotY = rotY;
+        lastHeading = botHeading;
+        rotX = rotX * 1.1;  // Counteract imperfect strafing
+
+        // Denominator is the largest motor power (absolute value) or 1
+        // This ensures all the powers maintain the same ratio,
+        // but only if at least one is out of the range [-1, 1]
+        final double denominator = Math.max(Math.abs(rotY) + Math.abs(rotX) + Math.abs(rotation), 1);
+        //Set power to motors
+        frontLeftPower.stage((rotY + rotX + rotation) / denominator);
+        backLeftPower.stage((rotY - rotX + rotation) / denominator);
+        frontRightPower.stage((rotY - rotX - rotation) / denominator);
+        backRightPower.stage((rotY + rotX - rotation) / denominator);
+        actuators.flush();
+        setVelocityProbe.end();
     }
 }
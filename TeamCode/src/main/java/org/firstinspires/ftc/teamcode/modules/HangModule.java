@@ -4,10 +4,13 @@ import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import org.firstinspires.ftc.teamcode.hardware.ConditionalHardwareDevice;
 import org.firstinspires.ftc.teamcode.modules.concurrent.ConcurrentModule;
-import org.firstinspires.ftc.teamcode.modules.concurrent.ModuleThread;
+import org.firstinspires.ftc.teamcode.modules.concurrent.ModuleTask;
+import org.firstinspires.ftc.teamcode.modules.concurrent.RateGroup;
+import org.firstinspires.ftc.teamcode.modules.core.RobotModule;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
+@RobotModule
 public class HangModule extends ConcurrentModule {
     private final AtomicBoolean isUp;
 
@@ -17,15 +20,15 @@ public class HangModule extends ConcurrentModule {
 
     public static final String HANG_THREAD_GROUP_NAME = "Hang Threads";
 
-    private static class HangPIDThread extends ModuleThread<HangModule> {
-        public static final String THREAD_NAME = "Hang PID Thread";
+    private static class HangPIDTask extends ModuleTask<HangModule> {
+        public static final String TASK_NAME = "Hang PID";
 
-        public HangPIDThread(HangModule host) {
-            super(host, THREAD_NAME);
+        public HangPIDTask(HangModule host) {
+            super(host, TASK_NAME, RateGroup.CONTROL);
         }
 
         @Override
-        public void execute() {
+        protected void iterate() {
             host.hangMotor.runIfAvailable(hang -> {
 
             });
@@ -50,7 +53,7 @@ public class HangModule extends ConcurrentModule {
 
     @Override
     protected void registerModuleThreads() {
-        registerAsyncOperation(new HangPIDThread(this));
+        registerPeriodicTask(new HangPIDTask(this));
     }
 
     public void toggleHangState() {
@@ -63,7 +66,7 @@ public class HangModule extends ConcurrentModule {
      */
     @Override
     public void cleanupModule() {
-
+        super.cleanupModule(); // stops the hang task
     }
 
     /**
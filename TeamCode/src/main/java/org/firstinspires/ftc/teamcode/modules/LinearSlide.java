@@ -3,6 +3,7 @@ package org.firstinspires.ftc.teamcode.modules;
 import androidx.annotation.NonNull;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.DcMotor;
+import org.firstinspires.ftc.teamcode.hardware.BulkReadCoordinator;
 import org.firstinspires.ftc.teamcode.modules.core.Module;
 
 @Deprecated
@@ -101,6 +102,7 @@ public class LinearSlide extends Module {
     }
 
     public double getCurrentExtension() {
+        BulkReadCoordinator.getInstance().sync(); // the hubs don't refresh their caches on their own
         return slideMotor.getCurrentPosition();
     }
 
@@ -114,6 +116,6 @@ public class LinearSlide extends Module {
 
     @Override
     public void log() {
-        getTelemetry().addData("[Linear Slides] Current extension", getCurrentExtension());
+        getLog().addData("[Linear Slides] Current extension", getCurrentExtension());
     }
 }
@@ -5,7 +5,9 @@ import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.Servo;
 import org.firstinspires.ftc.teamcode.hardware.ConditionalHardwareDevice;
 import org.firstinspires.ftc.teamcode.modules.core.Module;
+import org.firstinspires.ftc.teamcode.modules.core.RobotModule;
 
+@RobotModule
 public class PlaneLauncher extends Module {
 
     private static final double SERVO_POSITION_LAUNCHED = 0;
@@ -28,6 +30,7 @@ public class PlaneLauncher extends Module {
 
     public void launch() {
         launcherServo.runIfAvailable(launcher -> launcher.setPosition(SERVO_POSITION_LAUNCHED));
+        markLogDirty();
     }
 
     public boolean hasLaunched() {
@@ -39,8 +42,13 @@ public class PlaneLauncher extends Module {
 
     }
 
+    @Override
+    protected boolean tracksLogChanges() {
+        return true;
+    }
+
     @Override
     public void log() {
-        launcherServo.runIfAvailable(launcher -> getTelemetry().addData("[Plane Launcher] has launched", hasLaunched()));
+        launcherServo.runIfAvailable(launcher -> getLog().addData("[Plane Launcher] has launched", hasLaunched()));
     }
 }
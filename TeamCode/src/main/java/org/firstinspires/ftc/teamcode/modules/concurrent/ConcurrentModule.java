@@ -5,6 +5,9 @@ import com.qualcomm.robotcore.util.ElapsedTime;
 import com.qualcomm.robotcore.util.RobotLog;
 import org.firstinspires.ftc.teamcode.modules.core.Module;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Represents a module that utilizes external threads
  */
@@ -57,6 +60,12 @@ public abstract class ConcurrentModule extends Module {
         return threadStartNotifier;
     }
 
+    /**
+     * The periodic tasks registered by this module
+     * @see #registerPeriodicTask(ModuleTask)
+     */
+    private final List<ModuleTask<?>> periodicTasks = new ArrayList<>();
+
     /**
      * Initializes the module and registers it with the specified OpMode
      *
@@ -88,8 +97,9 @@ public abstract class ConcurrentModule extends Module {
     }
 
     /**
-     * Overridden by child classes to register all necessary threads
+     * Overridden by child classes to register all necessary threads and periodic tasks
      * @see #registerAsyncOperation(ModuleThread)
+     * @see #registerPeriodicTask(ModuleTask)
      */
     protected abstract void registerModuleThreads();
 
@@ -113,7 +123,28 @@ public abstract class ConcurrentModule extends Module {
     }
 
     /**
-     * Signals to this module's threads that the parent {@link OpMode} has entered its main execution loop
+     * Registers a periodic task, which will be run by the {@link ModuleScheduler} at the rate of its
+     *  {@link RateGroup} while the module is {@link ModuleRunState#RUNNING}
+     * @param task The task to register
+     * @throws IllegalStateException Attempted to register a task outside of {@link #registerModuleThreads()}
+     * @throws IllegalArgumentException The provided {@link ModuleTask} belongs to a different host module
+     * @apiNote This should only be called in {@link #registerModuleThreads()}
+     */
+    protected final void registerPeriodicTask(ModuleTask<?> task) {
+        if (state != ModuleRunState.NEW) {
+            throw new IllegalStateException("Cannot register periodic tasks outside of constructor!");
+        }
+
+        if (task.host != this) {
+            throw new IllegalArgumentException("Attempted to register a periodic task with designated host " + task.host + " to a separate module " + this);
+        }
+
+        periodicTasks.add(task);
+    }
+
+    /**
+     * Signals to this module's threads that the parent {@link OpMode} has entered its main execution loop, and starts
+     *  running its periodic tasks
      */
     public final void startThreads() {
         if (!state.isTerminated()) {
@@ -122,17 +153,33 @@ public abstract class ConcurrentModule extends Module {
         synchronized (threadStartNotifier) {
             threadStartNotifier.notifyAll(); // in case exitSetup() was never called
         }
+
+        if (state.isRunning()) {
+            final ModuleScheduler scheduler = ModuleScheduler.getInstance();
+            for (ModuleTask<?> task : periodicTasks) {
+                scheduler.schedule(task);
+            }
+        }
     }
 
     /**
      * Signals to the module's threads that the parent {@link OpMode} has terminated and interrupts them after the duration
-     * specified by {@link #MODULE_THREAD_TERMINATION_TIMEOUT_MILLIS}
+     * specified by {@link #MODULE_THREAD_TERMINATION_TIMEOUT_MILLIS}.  Periodic tasks are descheduled within the same
+     * duration.
      */
     private void endThreads() {
         state = ModuleRunState.TERMINATED;
         moduleThreadGroup.interrupt();
 
         ElapsedTime timer = new ElapsedTime();
+        final ModuleScheduler scheduler = ModuleScheduler.getInstance();
+        for (ModuleTask<?> task : periodicTasks) {
+            final long remainingMillis = Math.max(0, MODULE_THREAD_TERMINATION_TIMEOUT_MILLIS - (long)timer.milliseconds());
+            if (!scheduler.deschedule(task, remainingMillis)) {
+                RobotLog.ee(ConcurrentModule.class.getSimpleName(), "Periodic task " + task.getName() + " of module " + getClass().getCanonicalName() + " did not finish its last iteration in time!");
+            }
+        }
+
         while (timer.milliseconds() < MODULE_THREAD_TERMINATION_TIMEOUT_MILLIS &&
                 moduleThreadGroup.activeCount() > 0 // we don't have to wait the entire time if all threads end gracefully
         ) {
@@ -0,0 +1,144 @@
+package org.firstinspires.ftc.teamcode.modules.concurrent;
+
+import com.qualcomm.robotcore.util.RobotLog;
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the {@link ModuleTask}s of every {@link ConcurrentModule} at a fixed rate on a small, shared pool of threads.
+ *  This replaces having one free-spinning {@link ModuleThread} per operation, which would keep a Control Hub core busy
+ *  and compete with the OpMode thread for the hub bus.
+ */
+public final class ModuleScheduler {
+    /**
+     * The amount of threads used to run tasks.  The Control Hub has 4 cores, and the OpMode thread needs one of them.
+     */
+    public static final int POOL_SIZE = 2;
+
+    /**
+     * The name given to the scheduler's threads
+     */
+    public static final String THREAD_NAME = "Module Scheduler";
+
+    private static ModuleScheduler instance;
+
+    /**
+     * Gets the scheduler, creating it if it doesn't exist yet
+     * @return The scheduler shared by all modules
+     */
+    public static synchronized ModuleScheduler getInstance() {
+        if (instance == null) {
+            instance = new ModuleScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Rate groups set by OpModes for specific modules
+     * @see #setRateGroupOverride(Class, RateGroup)
+     */
+    private static final Map<Class<? extends ConcurrentModule>, RateGroup> rateGroupOverrides = new ConcurrentHashMap<>();
+
+    /**
+     * Makes every task registered by a type of module run in the specified rate group, instead of its default one
+     * @param moduleClass The class of the module
+     * @param rateGroup The rate group to use
+     */
+    public static void setRateGroupOverride(Class<? extends ConcurrentModule> moduleClass, RateGroup rateGroup) {
+        rateGroupOverrides.put(moduleClass, rateGroup);
+    }
+
+    /**
+     * Removes all rate group overrides set by {@link #setRateGroupOverride(Class, RateGroup)}
+     */
+    public static void clearRateGroupOverrides() {
+        rateGroupOverrides.clear();
+    }
+
+    /**
+     * Gets the rate group tasks registered by a type of module should run in
+     * @param moduleClass The class of the module
+     * @param defaultRateGroup The rate group to use if no override has been set
+     * @return The rate group
+     */
+    public static RateGroup getRateGroupOverride(Class<? extends ConcurrentModule> moduleClass, RateGroup defaultRateGroup) {
+        final RateGroup override = rateGroupOverrides.get(moduleClass);
+        return override == null ? defaultRateGroup : override;
+    }
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Every task that is currently scheduled
+     */
+    private final List<ModuleTask<?>> scheduledTasks;
+
+    private ModuleScheduler() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable, THREAD_NAME + " #" + threadCount.incrementAndGet());
+            thread.setDaemon(true); // the robot controller app shouldn't have to wait for us to exit
+            return thread;
+        };
+        executor = new ScheduledThreadPoolExecutor(POOL_SIZE, threadFactory);
+        executor.setRemoveOnCancelPolicy(true);
+        scheduledTasks = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Starts running a task at the rate specified by its rate group
+     * @param task The task to run
+     */
+    public void schedule(ModuleTask<?> task) {
+        if (task.isActive()) {
+            return;
+        }
+        scheduledTasks.add(task);
+        task.start(executor);
+    }
+
+    /**
+     * Stops running a task, waiting for its current iteration to finish.  The task's statistics are written to the
+     *  robot log.
+     * @param task The task to stop
+     * @param timeoutMillis The maximum amount of time to wait for the current iteration to finish
+     * @return True if the task stopped in time, otherwise false
+     */
+    public boolean deschedule(ModuleTask<?> task, long timeoutMillis) {
+        final boolean stopped = task.stop(timeoutMillis);
+        scheduledTasks.remove(task);
+        RobotLog.ii(THREAD_NAME, formatStatistics(task));
+        return stopped;
+    }
+
+    /**
+     * Outputs the statistics of every scheduled task to telemetry
+     * @param telemetry The telemetry to log to
+     */
+    public void logStatistics(Telemetry telemetry) {
+        for (ModuleTask<?> task : scheduledTasks) {
+            telemetry.addData("[Scheduler] " + task.getName(), formatStatistics(task));
+        }
+    }
+
+    private static String formatStatistics(ModuleTask<?> task) {
+        return String.format(Locale.US,
+                "%.0f/%.0f Hz, %d overruns in %d runs, jitter avg %.2f max %.2f ms, longest run %.2f ms",
+                task.getAchievedFrequency(),
+                task.getRateGroup().getFrequency(),
+                task.getOverrunCount(),
+                task.getIterationCount(),
+                task.getAverageJitterNanos() / 1e6,
+                task.getMaxJitterNanos() / 1e6,
+                task.getMaxExecutionNanos() / 1e6
+        );
+    }
+}
@@ -0,0 +1,363 @@
+package org.firstinspires.ftc.teamcode.modules.concurrent;
+
+import com.qualcomm.robotcore.util.RobotLog;
+import org.firstinspires.ftc.teamcode.hardware.BulkReadCoordinator;
+import org.firstinspires.ftc.teamcode.modules.core.ModuleMetrics;
+import org.firstinspires.ftc.teamcode.modules.core.TimingProbe;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A periodic operation belonging to a {@link ConcurrentModule}.  Unlike a {@link ModuleThread}, a task does not own a
+ *  thread; it is run at a fixed rate by the shared {@link ModuleScheduler} while its host is
+ *  {@link ModuleRunState#RUNNING}.
+ * @implNote Each task is scheduled once at a fixed rate, rather than rescheduling itself after every iteration, so that
+ *  running it doesn't allocate a new scheduled future every period.  It is only rescheduled if its rate group's period
+ *  changes (i.e. from FTC Dashboard).
+ * @param <T> The type of the host module
+ * @see ConcurrentModule#registerPeriodicTask(ModuleTask)
+ */
+public abstract class ModuleTask<T extends ConcurrentModule> implements Runnable {
+    /**
+     * The module that registered this task
+     */
+    protected final T host;
+
+    /**
+     * The name of this task, used when reporting statistics
+     */
+    private final String name;
+
+    /**
+     * The rate group used if no override is set for the host module
+     * @see ModuleScheduler#setRateGroupOverride(Class, RateGroup)
+     */
+    private final RateGroup defaultRateGroup;
+
+    /**
+     * Measures the wall-clock and CPU time of each iteration
+     */
+    private final TimingProbe iterationProbe;
+
+    /**
+     * Held while {@link #iterate()} is running, so that {@link #stop(long)} can wait for the current iteration to finish
+     */
+    private final ReentrantLock iterationLock = new ReentrantLock();
+
+    /**
+     * Is the task currently scheduled?  Whoever sets this from true to false (either {@link #stop(long)} or the task
+     *  stopping itself) is responsible for calling {@link #onStop()}, so it is called exactly once.
+     */
+    private final AtomicBoolean active = new AtomicBoolean();
+
+    /**
+     * Has {@link #onStart()} been called since the task was last scheduled?
+     */
+    private boolean started;
+
+    private ScheduledExecutorService executor;
+
+    private ScheduledFuture<?> future;
+
+    /**
+     * The period {@link #future} was scheduled with, in nanoseconds
+     */
+    private long periodNanos;
+
+    /**
+     * The time that the next iteration should start at, in nanoseconds.  Runs that start before this are catching up
+     *  with periods that were skipped after an overrun, and do nothing.
+     * @see System#nanoTime()
+     */
+    private long nextDeadlineNanos;
+
+    // Statistics.  These are only written by the iteration currently running, but can be read from any thread
+    private volatile long iterationCount;
+    private volatile long overrunCount;
+    private volatile long lastJitterNanos;
+    private volatile long maxJitterNanos;
+    private volatile long totalJitterNanos;
+    private volatile long maxExecutionNanos;
+    private volatile long firstIterationStartNanos;
+    private volatile long lastIterationStartNanos;
+
+    /**
+     * Initializes the task
+     * @param host The module that will register this task
+     * @param name The name of the task
+     * @param defaultRateGroup How often the task will run, unless overridden for the host module
+     */
+    public ModuleTask(T host, String name, RateGroup defaultRateGroup) {
+        this.host = host;
+        this.name = name;
+        this.defaultRateGroup = defaultRateGroup;
+        iterationProbe = ModuleMetrics.getProbe(host.getClass().getSimpleName() + "/" + name);
+    }
+
+    /**
+     * Called once per period while the host module is running
+     * @throws InterruptedException The task was interrupted, and should not be run again
+     */
+    protected abstract void iterate() throws InterruptedException;
+
+    /**
+     * Called before the first iteration after the task has been scheduled
+     */
+    protected void onStart() {}
+
+    /**
+     * Called once the task has been descheduled and its last iteration has finished (i.e. to stop any motors the task
+     *  was controlling)
+     */
+    protected void onStop() {}
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the rate group this task is currently running in
+     * @return The override for the host module, if one is set; otherwise the task's default rate group
+     */
+    public RateGroup getRateGroup() {
+        return ModuleScheduler.getRateGroupOverride(host.getClass(), defaultRateGroup);
+    }
+
+    public boolean isActive() {
+        return active.get();
+    }
+
+    /**
+     * Schedules the task to start running as soon as possible
+     * @param executor The executor that will run the task
+     * @implNote Package-private so that only {@link ModuleScheduler} can schedule tasks
+     */
+    /* package-private */ final synchronized void start(ScheduledExecutorService executor) {
+        if (active.get()) {
+            return;
+        }
+        this.executor = executor;
+        started = false;
+        iterationCount = 0;
+        overrunCount = 0;
+        lastJitterNanos = 0;
+        maxJitterNanos = 0;
+        totalJitterNanos = 0;
+        maxExecutionNanos = 0;
+        active.set(true);
+        nextDeadlineNanos = System.nanoTime();
+        schedule(0);
+    }
+
+    /**
+     * Schedules {@link #run()} at the current rate group's rate.  The caller must hold this task's monitor.
+     * @param initialDelayNanos The time until the first run, in nanoseconds
+     */
+    private void schedule(long initialDelayNanos) {
+        periodNanos = getRateGroup().getPeriodNanos();
+        future = executor.scheduleAtFixedRate(this, initialDelayNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Deschedules the task and waits for the current iteration (if any) to finish, then calls {@link #onStop()}
+     * @param timeoutMillis The maximum amount of time to wait for the current iteration
+     * @return True if the task stopped in time, otherwise false
+     * @implNote Package-private so that only {@link ModuleScheduler} can stop tasks
+     */
+    /* package-private */ final boolean stop(long timeoutMillis) {
+        final boolean deactivated;
+        synchronized (this) {
+            deactivated = active.compareAndSet(true, false);
+            if (deactivated && future != null) {
+                future.cancel(false);
+            }
+        }
+
+        // if the task already stopped itself, this still waits for its onStop() to finish
+        try {
+            if (!iterationLock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            if (deactivated) {
+                onStop();
+            }
+        }
+        finally {
+            iterationLock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Stops the task from inside {@link #run()}, calling {@link #onStop()} unless {@link #stop(long)} got there first.
+     *  The caller must hold {@link #iterationLock}.
+     */
+    private void stopFromIteration() {
+        final boolean deactivated;
+        synchronized (this) {
+            deactivated = active.compareAndSet(true, false);
+            if (deactivated) {
+                future.cancel(false);
+            }
+        }
+        if (deactivated) {
+            onStop();
+        }
+    }
+
+    /**
+     * Runs a single iteration.  This should only be called by the {@link ModuleScheduler}
+     */
+    @Override
+    public final void run() {
+        if (!active.get()) {
+            return;
+        }
+
+        iterationLock.lock();
+        try {
+            if (!active.get()) {
+                return; // stopped while we were waiting for the lock
+            }
+            if (host.getState().isTerminated()) {
+                stopFromIteration();
+                return;
+            }
+
+            final long startNanos = System.nanoTime();
+            if (startNanos < nextDeadlineNanos) {
+                return; // a period that was skipped after an overrun
+            }
+            recordJitter(startNanos - nextDeadlineNanos, startNanos);
+
+            if (!started) {
+                started = true;
+                onStart();
+            }
+            BulkReadCoordinator.getInstance().sync();
+            iterationProbe.begin();
+            try {
+                iterate();
+            }
+            finally {
+                iterationProbe.end();
+            }
+
+            final long endNanos = System.nanoTime();
+            final long executionNanos = endNanos - startNanos;
+            if (executionNanos > maxExecutionNanos) {
+                maxExecutionNanos = executionNanos;
+            }
+
+            nextDeadlineNanos += periodNanos;
+            if (endNanos > nextDeadlineNanos) {
+                // we missed at least one deadline.  The executor would run the missed periods back-to-back to catch up
+                //  (which would only make the overrun worse for every other task), so skip them instead
+                overrunCount++;
+                nextDeadlineNanos += ((endNanos - nextDeadlineNanos) / periodNanos + 1) * periodNanos;
+            }
+        }
+        catch (InterruptedException e) {
+            stopFromIteration(); // interrupts are our signal to stop running
+            return;
+        }
+        catch (RuntimeException e) {
+            stopFromIteration();
+            RobotLog.ee(ModuleTask.class.getSimpleName(), e, "Task " + name + " of module "
+                    + host.getClass().getSimpleName() + " threw an exception and has been stopped");
+            return;
+        }
+        finally {
+            iterationLock.unlock();
+        }
+
+        if (getRateGroup().getPeriodNanos() != periodNanos) {
+            synchronized (this) {
+                if (active.get()) {
+                    // the rate group's frequency was changed, so start over at the new rate
+                    future.cancel(false);
+                    nextDeadlineNanos = System.nanoTime();
+                    schedule(0);
+                }
+            }
+        }
+    }
+
+    private void recordJitter(long jitterNanos, long startNanos) {
+        if (iterationCount == 0) {
+            firstIterationStartNanos = startNanos;
+        }
+        lastIterationStartNanos = startNanos;
+        lastJitterNanos = jitterNanos;
+        if (jitterNanos > maxJitterNanos) {
+            maxJitterNanos = jitterNanos;
+        }
+        totalJitterNanos += jitterNanos;
+        iterationCount++;
+    }
+
+    /**
+     * Gets the amount of iterations run since the task was last scheduled
+     */
+    public long getIterationCount() {
+        return iterationCount;
+    }
+
+    /**
+     * Gets the amount of iterations that finished after the deadline of the next iteration
+     */
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    /**
+     * Gets how late the latest iteration started, in nanoseconds
+     */
+    public long getLastJitterNanos() {
+        return lastJitterNanos;
+    }
+
+    /**
+     * Gets the latest any iteration has started, in nanoseconds
+     */
+    public long getMaxJitterNanos() {
+        return maxJitterNanos;
+    }
+
+    /**
+     * Gets how late iterations start on average, in nanoseconds
+     */
+    public double getAverageJitterNanos() {
+        final long count = iterationCount;
+        return count == 0 ? 0 : (double)totalJitterNanos / count;
+    }
+
+    /**
+     * Gets the longest time a single iteration has taken, in nanoseconds
+     */
+    public long getMaxExecutionNanos() {
+        return maxExecutionNanos;
+    }
+
+    /**
+     * Gets the rate the task has actually been running at
+     * @return The achieved frequency, in hertz
+     */
+    public double getAchievedFrequency() {
+        final long count = iterationCount;
+        if (count < 2) {
+            return 0;
+        }
+        return (count - 1) * 1e9 / (lastIterationStartNanos - firstIterationStartNanos);
+    }
+}
@@ -0,0 +1,69 @@
+package org.firstinspires.ftc.teamcode.modules.concurrent;
+
+import com.acmerobotics.dashboard.config.Config;
+
+/**
+ * Describes how often a {@link ModuleTask} is run by the {@link ModuleScheduler}.  The actual frequencies are read from
+ *  {@link Frequencies}, so they can be tuned from FTC Dashboard without changing any module code.
+ * @see ModuleScheduler#setRateGroupOverride(Class, RateGroup)
+ */
+public enum RateGroup {
+    /**
+     * Closed-loop controllers that need to react quickly (i.e. the arm's PID controller)
+     */
+    CONTROL_FAST,
+
+    /**
+     * Controllers for mechanisms that move slowly (i.e. the hang mechanism)
+     */
+    CONTROL,
+
+    /**
+     * Background work that only needs to keep up with the Driver Station (i.e. telemetry)
+     */
+    TELEMETRY;
+
+    /**
+     * The frequency of each rate group, in hertz
+     */
+    @Config("Module Scheduler (Rate Groups)")
+    public static final class Frequencies {
+        public static double CONTROL_FAST_HZ = 200;
+        public static double CONTROL_HZ = 50;
+        public static double TELEMETRY_HZ = 10;
+    }
+
+    /**
+     * The lowest frequency a rate group can be set to.  Used so that a frequency of 0 from the dashboard doesn't stall
+     *  a task forever.
+     */
+    public static final double MINIMUM_FREQUENCY_HZ = 1;
+
+    /**
+     * Gets the frequency of this rate group
+     * @return The frequency, in hertz
+     */
+    public double getFrequency() {
+        final double frequency;
+        switch (this) {
+            case CONTROL_FAST:
+                frequency = Frequencies.CONTROL_FAST_HZ;
+                break;
+            case CONTROL:
+                frequency = Frequencies.CONTROL_HZ;
+                break;
+            default:
+                frequency = Frequencies.TELEMETRY_HZ;
+                break;
+        }
+        return Math.max(frequency, MINIMUM_FREQUENCY_HZ);
+    }
+
+    /**
+     * Gets the period of this rate group
+     * @return The time between two runs of a task in this group, in nanoseconds
+     */
+    public long getPeriodNanos() {
+        return (long)(1e9 / getFrequency());
+    }
+}
@@ -0,0 +1,222 @@
+package org.firstinspires.ftc.teamcode.modules.core;
+
+import com.acmerobotics.dashboard.FtcDashboard;
+import com.acmerobotics.dashboard.config.Config;
+import com.acmerobotics.dashboard.telemetry.TelemetryPacket;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Builds and sends FTC Dashboard packets on its own low-priority thread, so that building the packet, serializing it,
+ *  and waiting on the network never happen in a control loop.  The control loop fills in a snapshot of whatever it
+ *  wants to show and hands it over with {@link #publish()}; the publisher thread turns the latest snapshot into a
+ *  packet at {@link #PUBLISH_HZ}.
+ * <br />
+ * Snapshots are triple-buffered: the control loop writes one, the publisher renders another, and the third holds the
+ *  latest published snapshot.  Neither side ever waits for the other.  If the control loop publishes faster than the
+ *  publisher renders (or the dashboard falls behind), older snapshots are overwritten and never sent.
+ * @param <S> The type of the snapshots.  Snapshots are reused, so they should be mutable objects that the control loop
+ *  overwrites completely each time.
+ */
+@Config("Dashboard Publisher")
+public final class DashboardPublisher<S> {
+    /**
+     * How often packets are sent, in hertz.  This is read again after every send, so changes take effect within one
+     *  period.
+     */
+    public static double PUBLISH_HZ = 20;
+
+    /**
+     * Turns a snapshot into a packet, on the publisher's thread
+     * @param <S> The type of the snapshots
+     */
+    public interface Renderer<S> {
+        /**
+         * Adds a snapshot's data and drawings to a packet
+         * @param snapshot The snapshot.  The control loop won't touch it until this returns.
+         * @param packet The packet to add to
+         */
+        void render(S snapshot, TelemetryPacket packet);
+    }
+
+    private final String name;
+
+    private final Renderer<S> renderer;
+
+    private final Consumer<TelemetryPacket> sender;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Set in {@link #latest} when the latest snapshot hasn't been rendered yet
+     */
+    private static final int FRESH = 4;
+
+    /**
+     * The three snapshots
+     */
+    private final Object[] snapshots;
+
+    /**
+     * The index of the snapshot the control loop is writing.  Only accessed by the control loop.
+     */
+    private int back = 0;
+
+    /**
+     * The index of the latest published snapshot, combined with {@link #FRESH}.  Swapping the index and the flag
+     *  together means the publisher can never see the flag without the snapshot it belongs to.
+     */
+    private final AtomicInteger latest = new AtomicInteger(1);
+
+    /**
+     * The index of the snapshot being rendered.  Only accessed by the publisher thread.
+     */
+    private int front = 2;
+
+    /**
+     * Measures how long building and sending each packet takes
+     */
+    private final TimingProbe sendProbe;
+
+    private volatile long publishCount;
+    private volatile long sentCount;
+
+    /**
+     * Creates and starts a publisher that sends packets to FTC Dashboard
+     * @param name The name of the publisher's thread
+     * @param snapshotFactory Creates the three snapshots the publisher cycles through
+     * @param renderer Turns snapshots into packets
+     */
+    public DashboardPublisher(String name, Supplier<S> snapshotFactory, Renderer<S> renderer) {
+        this(name, snapshotFactory, renderer, DashboardPublisher::sendToDashboard);
+    }
+
+    /**
+     * Creates and starts a publisher
+     * @param name The name of the publisher's thread
+     * @param snapshotFactory Creates the three snapshots the publisher cycles through
+     * @param renderer Turns snapshots into packets
+     * @param sender Sends each packet, on the publisher's thread
+     */
+    public DashboardPublisher(String name, Supplier<S> snapshotFactory, Renderer<S> renderer,
+                              Consumer<TelemetryPacket> sender) {
+        this.name = name;
+        this.renderer = renderer;
+        this.sender = sender;
+        snapshots = new Object[] { snapshotFactory.get(), snapshotFactory.get(), snapshotFactory.get() };
+        sendProbe = ModuleMetrics.getProbe(name + "/send");
+
+        executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true); // the robot controller app shouldn't have to wait for us to exit
+            thread.setPriority(Thread.MIN_PRIORITY); // control loops come first
+            return thread;
+        });
+        scheduleNextSend();
+    }
+
+    /**
+     * Schedules {@link #sendAndReschedule()} one period from now, using the current {@link #PUBLISH_HZ}
+     */
+    private void scheduleNextSend() {
+        final long periodNanos = (long) (1e9 / Math.max(PUBLISH_HZ, 1));
+        try {
+            executor.schedule(this::sendAndReschedule, periodNanos, TimeUnit.NANOSECONDS);
+        }
+        catch (RejectedExecutionException e) {
+            // the publisher was stopped
+        }
+    }
+
+    /**
+     * Sends the latest snapshot, then schedules the next send.  Scheduling after sending means a slow send pushes the
+     *  next one back instead of queueing more sends behind it.
+     */
+    private void sendAndReschedule() {
+        try {
+            send();
+        }
+        catch (RuntimeException e) {
+            // log it and try again next period, rather than never sending again
+            RobotLog.ee(name, e, "Failed to send a dashboard packet");
+        }
+        scheduleNextSend();
+    }
+
+    /**
+     * Gets the snapshot for the control loop to fill in before calling {@link #publish()}
+     * @return The snapshot.  This is a different object after every {@link #publish()}, and it may contain the data of
+     *  an older snapshot.
+     * @apiNote This must only be called from the control loop's thread
+     */
+    @SuppressWarnings("unchecked")
+    public S getSnapshot() {
+        return (S) snapshots[back];
+    }
+
+    /**
+     * Hands the snapshot from {@link #getSnapshot()} to the publisher.  This never blocks or allocates.
+     * @apiNote This must only be called from the control loop's thread
+     */
+    public void publish() {
+        back = latest.getAndSet(back | FRESH) & ~FRESH;
+        publishCount++;
+    }
+
+    /**
+     * Renders and sends the latest snapshot, if it hasn't been sent yet
+     */
+    @SuppressWarnings("unchecked")
+    private void send() {
+        if ((latest.get() & FRESH) == 0) {
+            return; // nothing new
+        }
+        front = latest.getAndSet(front) & ~FRESH;
+        sendProbe.begin();
+        final TelemetryPacket packet = new TelemetryPacket();
+        renderer.render((S) snapshots[front], packet);
+        sender.accept(packet);
+        sendProbe.end();
+        sentCount++;
+    }
+
+    private static void sendToDashboard(TelemetryPacket packet) {
+        final FtcDashboard dashboard = FtcDashboard.getInstance();
+        if (dashboard != null) { // the dashboard doesn't exist off the robot (i.e. in simulations)
+            dashboard.sendTelemetryPacket(packet);
+        }
+    }
+
+    /**
+     * Gets the amount of snapshots the control loop has published
+     */
+    public long getPublishCount() {
+        return publishCount;
+    }
+
+    /**
+     * Gets the amount of packets that have been sent.  Published snapshots that were overwritten before they could be
+     *  sent account for the difference from {@link #getPublishCount()}.
+     */
+    public long getSentCount() {
+        return sentCount;
+    }
+
+    /**
+     * Stops sending packets
+     */
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
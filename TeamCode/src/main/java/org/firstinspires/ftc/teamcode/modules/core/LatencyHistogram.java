@@ -0,0 +1,133 @@
+package org.firstinspires.ftc.teamcode.modules.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size histogram of durations with log-linear buckets: every power of two is split into
+ *  {@code 2^SUB_BUCKET_BITS} equally sized buckets, so any recorded value is reported within 12.5% of its actual value.
+ *  Recording is lock-free and never allocates, so it is safe to use on control loops.
+ */
+public final class LatencyHistogram {
+    /**
+     * The amount of bits used to split each power of two into linear buckets
+     */
+    public static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The largest power of two that gets its own buckets.  Anything larger is recorded in the last bucket.  2^40 ns is
+     *  about 18 minutes, which is longer than any match.
+     */
+    public static final int MAX_EXPONENT = 40;
+
+    /**
+     * The total amount of buckets
+     */
+    public static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalValue = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Records a value
+     * @param value The value, typically in nanoseconds.  Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.incrementAndGet();
+        totalValue.addAndGet(value);
+
+        long currentMax = maxValue.get();
+        while (value > currentMax && !maxValue.compareAndSet(currentMax, value)) {
+            currentMax = maxValue.get();
+        }
+    }
+
+    /**
+     * Removes every recorded value
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalValue.set(0);
+        maxValue.set(0);
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        final long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalValue.get() / count;
+    }
+
+    /**
+     * Gets the value at a percentile
+     * @param percentile The percentile, from 0 to 100
+     * @return The upper bound of the bucket containing the percentile (capped at the maximum recorded value), or 0 if
+     *  nothing has been recorded
+     */
+    public long getPercentile(double percentile) {
+        final long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                // the last bucket has no upper bound
+                return i == BUCKET_COUNT - 1 ? getMax() : Math.min(bucketUpperBound(i), getMax());
+            }
+        }
+        return getMax(); // values were recorded while we were counting
+    }
+
+    /**
+     * Gets the bucket a value belongs in
+     * @param value The value (must not be negative)
+     * @return The index of the bucket
+     */
+    /* package-private */ static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value; // small values get one bucket each
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Gets the largest value that belongs in a bucket
+     * @param index The index of the bucket
+     * @return The largest value
+     */
+    /* package-private */ static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKET_COUNT - 1 + SUB_BUCKET_BITS;
+        final int subBucket = index % SUB_BUCKET_COUNT;
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+}
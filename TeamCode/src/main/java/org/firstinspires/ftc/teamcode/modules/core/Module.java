@@ -3,6 +3,8 @@ package org.firstinspires.ftc.teamcode.modules.core;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import org.firstinspires.ftc.robotcore.external.Telemetry;
 
+import java.util.List;
+
 /**
  * The base class for hardware modules
  * Used to interface with hardware elements
@@ -13,12 +15,29 @@ public abstract class Module {
      */
     public final OpMode parent;
 
+    /**
+     * The lines written by {@link #log()}
+     */
+    private final ModuleLog log = new ModuleLog();
+
+    /**
+     * Collects the lines passed to {@link #addSetupLine(String)} by modules being created on one of
+     *  {@link ModuleManager}'s init threads.  Null on every other thread.
+     */
+    /* package-private */ static final ThreadLocal<List<String>> deferredSetupLines = new ThreadLocal<>();
+
+    /**
+     * Have the values this module logs changed since it last logged?
+     * @see #tracksLogChanges()
+     */
+    private volatile boolean logDirty = true;
+
     /**
      * Initializes the module and registers it with the specified OpMode.  This is where references to any hardware
      *  devices used by the module are loaded.
      * @param registrar The OpMode initializing the module
-     * @implNote In order to be used in {@link ModuleManager}, all modules should have a public constructor that takes
-     *  exactly the same parameters as this one
+     * @implNote In order to be used in {@link ModuleManager}, all modules should be annotated with {@link RobotModule}
+     *  and have a public constructor that takes exactly the same parameters as this one
      * @see ModuleManager#getModule(Class)
      */
     public Module(OpMode registrar) {
@@ -32,6 +51,71 @@ public abstract class Module {
         return parent.telemetry;
     }
 
+    /**
+     * Shows a line of telemetry about the module's setup (i.e. which hardware devices were found).  Use this instead of
+     *  {@link #getTelemetry()} in constructors: modules may be created concurrently by
+     *  {@link ModuleManager#loadModules(Class[])}, and telemetry isn't thread-safe, so those lines are collected and
+     *  added on the OpMode's thread once loading finishes.
+     * @param line The line to show
+     */
+    protected final void addSetupLine(String line) {
+        final List<String> deferred = deferredSetupLines.get();
+        if (deferred != null) {
+            deferred.add(line);
+        }
+        else {
+            getTelemetry().addLine(line);
+        }
+    }
+
+    /**
+     * Used for writing the module's status from {@link #log()}
+     */
+    protected ModuleLog getLog() {
+        return log;
+    }
+
+    /**
+     * Gets how often this module's status is rewritten by {@link TelemetryPipeline}.  Modules whose status is expensive
+     *  to format should override this.
+     * @return The rate, in hertz.  By default, the status is rewritten every time the pipeline flushes.
+     */
+    public double getLogRateHz() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Does this module call {@link #markLogDirty()} whenever a value it logs changes?  If so, {@link #log()} is only
+     *  called when something has changed.
+     * @return False by default, in which case the module's status is rewritten at its log rate
+     */
+    protected boolean tracksLogChanges() {
+        return false;
+    }
+
+    /**
+     * Signals that a value this module logs has changed
+     * @see #tracksLogChanges()
+     */
+    protected final void markLogDirty() {
+        logDirty = true;
+    }
+
+    /**
+     * Checks whether {@link #log()} needs to be called, and marks the module's status as up to date
+     * @return True if the module doesn't track its changes or if it has changed, otherwise false
+     */
+    /* package-private */ final boolean shouldRewriteLog() {
+        if (!tracksLogChanges()) {
+            return true;
+        }
+        if (!logDirty) {
+            return false;
+        }
+        logDirty = false;
+        return true;
+    }
+
     /**
      * Ran by parent OpMode in its stop() method
      * Cleans up items like background threads
@@ -39,7 +123,8 @@ public abstract class Module {
     public abstract void cleanupModule();
 
     /**
-     * Logs data about the module to telemetry
+     * Logs data about the module to {@link #getLog()}.  Called by {@link TelemetryPipeline}, which publishes the log to
+     *  telemetry.
      */
     public abstract void log();
 }
@@ -0,0 +1,17 @@
+package org.firstinspires.ftc.teamcode.modules.core;
+
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+
+/**
+ * Creates an instance of a registered module.  Implemented by references to each module's constructor.
+ * @see RobotModule
+ */
+@FunctionalInterface
+public interface ModuleFactory {
+    /**
+     * Creates the module
+     * @param registrar The OpMode initializing the module
+     * @return The new module
+     */
+    Module create(OpMode registrar);
+}
@@ -0,0 +1,148 @@
+package org.firstinspires.ftc.teamcode.modules.core;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The status lines a module outputs from {@link Module#log()}.  It mirrors the parts of {@link Telemetry} that modules
+ *  use, but keeps the formatted lines so the {@link TelemetryPipeline} can publish them again without calling
+ *  {@link Module#log()} when the module's values haven't changed.
+ * @implNote Entries and their buffers are reused every time the log is rewritten, so formatting only allocates the final
+ *  String of each line.  A log should only be written and published by the thread running the pipeline.
+ */
+public final class ModuleLog {
+    /**
+     * A single line of the log
+     */
+    private static final class Entry {
+        private String caption;
+
+        /**
+         * The buffer the value is formatted into
+         */
+        private final StringBuilder value = new StringBuilder();
+
+        /**
+         * Is this a line without a caption (i.e. from {@link #addLine(String)})?
+         */
+        private boolean isLine;
+
+        /**
+         * The value as of the last time the log was written, or null if it hasn't been built yet
+         */
+        private String text;
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * The amount of entries in use.  Entries past this are kept so they can be reused.
+     */
+    private int size;
+
+    /**
+     * Used by {@link #addData(String, String, Object...)}.  Created when first needed, since most modules don't format.
+     */
+    private StringBuilder formatBuffer;
+    private Formatter formatter;
+
+    private Entry nextEntry(String caption, boolean isLine) {
+        if (size == entries.size()) {
+            entries.add(new Entry());
+        }
+        final Entry entry = entries.get(size++);
+        entry.caption = caption;
+        entry.isLine = isLine;
+        entry.value.setLength(0);
+        entry.text = null;
+        return entry;
+    }
+
+    public void addData(String caption, Object value) {
+        nextEntry(caption, false).value.append(value);
+    }
+
+    public void addData(String caption, double value) {
+        nextEntry(caption, false).value.append(value);
+    }
+
+    public void addData(String caption, long value) {
+        nextEntry(caption, false).value.append(value);
+    }
+
+    public void addData(String caption, boolean value) {
+        nextEntry(caption, false).value.append(value);
+    }
+
+    /**
+     * Adds a formatted value
+     * @param caption The caption of the line
+     * @param format The format string
+     * @param args The values to format
+     * @see String#format(String, Object...)
+     */
+    public void addData(String caption, String format, Object... args) {
+        format(nextEntry(caption, false), format, args);
+    }
+
+    public void addLine(String line) {
+        nextEntry(null, true).value.append(line);
+    }
+
+    /**
+     * Adds a formatted line without a caption
+     * @param format The format string
+     * @param args The values to format
+     * @see String#format(String, Object...)
+     */
+    public void addLine(String format, Object... args) {
+        format(nextEntry(null, true), format, args);
+    }
+
+    private void format(Entry entry, String format, Object... args) {
+        if (formatter == null) {
+            formatBuffer = new StringBuilder();
+            formatter = new Formatter(formatBuffer, Locale.US);
+        }
+        formatBuffer.setLength(0);
+        formatter.format(format, args);
+        entry.value.append(formatBuffer);
+    }
+
+    /**
+     * Removes every line, so that the log can be rewritten
+     */
+    /* package-private */ void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds every line to telemetry.  Each value's String is only built the first time it is published.
+     * @param telemetry The telemetry to publish to
+     */
+    /* package-private */ void publish(Telemetry telemetry) {
+        for (int i = 0; i < size; i++) {
+            final Entry entry = entries.get(i);
+            if (entry.text == null) {
+                entry.text = entry.value.toString();
+            }
+            if (entry.isLine) {
+                telemetry.addLine(entry.text);
+            }
+            else {
+                telemetry.addData(entry.caption, entry.text);
+            }
+        }
+    }
+
+    /**
+     * Gets the amount of lines in the log
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -1,16 +1,19 @@
 package org.firstinspires.ftc.teamcode.modules.core;
 
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
-import org.firstinspires.ftc.teamcode.modules.*;
 import org.firstinspires.ftc.teamcode.modules.concurrent.ConcurrentModule;
-import org.firstinspires.ftc.teamcode.modules.detection.PropDetector;
-import org.firstinspires.ftc.teamcode.modules.location.AprilTagLocator;
-import org.firstinspires.ftc.teamcode.modules.location.Odometry;
-import org.firstinspires.ftc.teamcode.util.SwitchStatement;
 
 import java.lang.reflect.Modifier;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A class that manages the life cycle of modules used by {@link OpMode}s
@@ -27,83 +30,356 @@ public final class ModuleManager {
     private final OpMode opMode;
 
     /**
-     * A collection of the loaded modules
+     * The registry of every module that can be loaded
+     */
+    private final ModuleRegistry registry;
+
+    /**
+     * The loaded modules, in the order they were loaded
      */
     private final List<Module> loadedModules;
 
+    /**
+     * The loaded modules, indexed by their index in {@link #registry}.  Modules that haven't been loaded are null.
+     */
+    private final Module[] moduleInstances;
+
+    /**
+     * Publishes the status of every loaded module
+     */
+    private final TelemetryPipeline telemetryPipeline;
+
+    /**
+     * Measures each loaded module's {@link Module#cleanupModule()}, in the same order as {@link #loadedModules}
+     */
+    private final List<TimingProbe> cleanupProbes;
+
+    /**
+     * Measures {@link #logModuleStatus()} as a whole
+     */
+    private final TimingProbe logModuleStatusProbe;
+
+    /**
+     * How long each module took to create, in milliseconds, indexed by module index
+     * @see #logInitTimes()
+     */
+    private final double[] initTimesMillis;
+
+    /**
+     * The maximum amount of time {@link #loadModules(Class[])} will wait for modules to be created.  The robot's stuck
+     *  detector would eventually kill an OpMode that hangs in init, so we give up before that.
+     */
+    public static final long MODULE_INIT_TIMEOUT_MILLIS = 8000;
+
+    /**
+     * The maximum amount of threads used to create modules concurrently
+     */
+    public static final int MAX_INIT_THREADS = 4;
+
+    /**
+     * The name given to the threads creating modules
+     */
+    public static final String INIT_THREAD_NAME = "Module Init";
+
     /**
      * Initializes the module manager
      * @param registrar The {@link OpMode} initializing this class
      */
     public ModuleManager(OpMode registrar) {
         opMode = registrar;
-        loadedModules = new LinkedList<>();
+        registry = ModuleRegistry.getInstance();
+        loadedModules = new ArrayList<>(registry.getModuleCount());
+        moduleInstances = new Module[registry.getModuleCount()];
+        initTimesMillis = new double[registry.getModuleCount()];
+        telemetryPipeline = new TelemetryPipeline(registrar);
+        cleanupProbes = new ArrayList<>(registry.getModuleCount());
+        logModuleStatusProbe = ModuleMetrics.getProbe(ModuleManager.class.getSimpleName() + ".logModuleStatus");
         areThreadsStarted = false;
     }
 
     /**
-     * Retrieves an instance of a module, initializing it if no instance is available
+     * Retrieves an instance of a module, initializing it if no instance is available.
+     *  If a registered subclass of the module has already been loaded, that instance is returned instead.
      * @param moduleClass The class of the module to get
      * @return The module
      * @param <T> The type of the module to get
-     * @throws IllegalArgumentException The provided class is not a registered method
-     *  as its only parameter
+     * @throws IllegalArgumentException The provided class is not a registered module
+     * @see RobotModule
      * @see Module#Module(OpMode)  Module
      */
     public <T extends Module> T getModule(Class<T> moduleClass) throws IllegalArgumentException {
-        if (Modifier.isAbstract(moduleClass.getModifiers())) {
-            throw new IllegalArgumentException("Trying to retrieve an instance an abstract class!");
+        final int index = registry.indexOf(moduleClass);
+        if (index < 0) {
+            if (Modifier.isAbstract(moduleClass.getModifiers())) {
+                throw new IllegalArgumentException("Trying to retrieve an instance an abstract class!");
+            }
+            throw new IllegalArgumentException("Provided class "
+                    + moduleClass.getCanonicalName()
+                    + " is not a registered module!");
         }
 
-        for (Module module : loadedModules) {
-            if (moduleClass.isInstance(module)) {
-                return moduleClass.cast(module);
-            }
+        final Module loadedModule = findLoadedModule(index);
+        if (loadedModule != null) {
+            return moduleClass.cast(loadedModule);
         }
 
         // no module of the specified type exists
-        T module = initModule(moduleClass);
-        if (module == null) {
-            throw new IllegalArgumentException("Provided class "
-                    + moduleClass.getCanonicalName()
-                    + " is not a registered module!");
+        return moduleClass.cast(loadModule(index));
+    }
+
+    /**
+     * Finds a loaded instance of a registered module or one of its registered subclasses
+     * @param index The index of the module
+     * @return The loaded instance, or null if none has been loaded
+     */
+    private Module findLoadedModule(int index) {
+        final Module module = moduleInstances[index];
+        if (module != null) {
+            return module;
+        }
+        for (int subclass : registry.getSubclasses(index)) {
+            if (moduleInstances[subclass] != null) {
+                return moduleInstances[subclass];
+            }
         }
+        return null;
+    }
 
+    /**
+     * Creates a registered module and adds it to the loaded modules
+     * @param index The index of the module
+     * @return The new module
+     */
+    private Module loadModule(int index) {
+        final Module module = createModule(index);
+        registerModule(index, module);
+        return module;
+    }
+
+    /**
+     * Creates an instance of a registered module and records how long it took
+     * @param index The index of the module
+     * @return The new module
+     * @implNote This is called from the init executor in {@link #loadModules(Class[])}, so it must not modify any of the
+     *  manager's collections
+     */
+    private Module createModule(int index) {
+        final long startNanos = System.nanoTime();
+        final Module module = registry.create(index, opMode);
+        initTimesMillis[index] = (System.nanoTime() - startNanos) / 1e6;
+        return module;
+    }
+
+    /**
+     * Adds a newly created module to the loaded modules, starting its threads if necessary
+     * @param index The index of the module
+     * @param module The module
+     */
+    private void registerModule(int index, Module module) {
         if (module instanceof ConcurrentModule && areThreadsStarted) {
             ((ConcurrentModule)module).startThreads();
         }
 
+        moduleInstances[index] = module;
         loadedModules.add(module);
-        return module;
+        telemetryPipeline.addModule(module, ModuleMetrics.getProbe(module.getClass().getSimpleName() + ".log"));
+        cleanupProbes.add(ModuleMetrics.getProbe(module.getClass().getSimpleName() + ".cleanupModule"));
     }
 
-    private <T extends Module> T initModule(Class<? extends T> moduleClass) {
+    /**
+     * Loads the specified modules, creating them concurrently.  Afterwards, the modules can be retrieved with
+     *  {@link #getModule(Class)} without any further initialization.
+     * @param moduleClasses The classes of the modules to load
+     * @throws IllegalArgumentException One of the provided classes is not a registered module
+     * @throws IllegalStateException A module could not be created, or the modules took longer than
+     *  {@link #MODULE_INIT_TIMEOUT_MILLIS} to create
+     * @implNote Modules that were created successfully are still loaded if another module fails or times out, so that
+     *  {@link #unloadAll()} can clean them up.  Modules that finish being created after loading has been given up on
+     *  are cleaned up immediately.  Telemetry lines added with {@link Module#addSetupLine(String)} while creating
+     *  modules are added on the calling thread, in registry order, once loading finishes.
+     */
+    @SafeVarargs
+    public final void loadModules(Class<? extends Module>... moduleClasses) throws IllegalArgumentException, IllegalStateException {
+        final int moduleCount = registry.getModuleCount();
+        final boolean[] isRequired = getRequiredModules(moduleClasses);
+
+        // A module is satisfied by an instance of one of its registered subclasses (see getModule()), so rather than
+        //  creating both, only the subclass is created
+        final int[] provider = new int[moduleCount];
+        final boolean[] isDone = new boolean[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            provider[i] = i;
+            if (!isRequired[i]) {
+                continue;
+            }
+            isDone[i] = findLoadedModule(i) != null;
+            for (int subclass : registry.getSubclasses(i)) {
+                if (isRequired[subclass]) {
+                    provider[i] = subclass;
+                    break;
+                }
+            }
+        }
+
+        int remaining = 0;
+        for (int i = 0; i < moduleCount; i++) {
+            if (isRequired[i] && !isDone[i] && provider[i] == i) {
+                remaining++;
+            }
+        }
+        if (remaining == 0) {
+            return;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(remaining, MAX_INIT_THREADS), runnable -> {
+            final Thread thread = new Thread(runnable, INIT_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        final CompletionService<Integer> completionService = new ExecutorCompletionService<>(executor);
+        final boolean[] isSubmitted = new boolean[moduleCount];
+        final Module[] createdModules = new Module[moduleCount];
+        final List<List<String>> setupLines = new ArrayList<>(moduleCount);
+        for (int i = 0; i < moduleCount; i++) {
+            setupLines.add(null);
+        }
+        // set once loading finishes, so modules still being created are cleaned up rather than leaked.  Guards
+        //  createdModules and setupLines
+        final AtomicBoolean isAbandoned = new AtomicBoolean();
+        final long deadlineNanos = System.nanoTime() + MODULE_INIT_TIMEOUT_MILLIS * 1_000_000;
+
         try {
-            return moduleClass.cast(
-                    new SwitchStatement<Class<?>, Module>()
-                            .addCase(PropDetector.class, clazz -> new PropDetector(opMode))
+            for (int i = 0; i < moduleCount; i++) {
+                if (!isRequired[i] || isDone[i] || provider[i] != i) {
+                    continue;
+                }
+                final int index = i;
+                isSubmitted[index] = true;
+                completionService.submit(() -> {
+                    final List<String> lines = new ArrayList<>();
+                    final Module module;
+                    Module.deferredSetupLines.set(lines);
+                    try {
+                        module = createModule(index);
+                    }
+                    finally {
+                        Module.deferredSetupLines.remove();
+                    }
+                    synchronized (isAbandoned) {
+                        if (!isAbandoned.get()) {
+                            createdModules[index] = module;
+                            setupLines.set(index, lines);
+                            return index;
+                        }
+                    }
+                    module.cleanupModule();
+                    return index;
+                });
+            }
 
-                            .addCase(AprilTagLocator.class, clazz -> new AprilTagLocator(opMode))
-                            .addCase(Odometry.class, clazz -> new Odometry(opMode))
+            while (remaining > 0) {
+                final Future<Integer> completed;
+                try {
+                    completed = completionService.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while initializing modules", e);
+                }
+                if (completed == null) {
+                    throw new IllegalStateException("Timed out after " + MODULE_INIT_TIMEOUT_MILLIS
+                            + " ms while initializing modules: " + describePending(isSubmitted, isDone));
+                }
 
-                            .addCase(ActiveIntake.class, clazz -> new ActiveIntake(opMode))
-                            .addCase(Arm.class, clazz -> new Arm(opMode))
-                            .addCase(DriveTrain.class, clazz -> new DriveTrain(opMode))
-                            .addCase(FieldCentricDriveTrain.class, clazz -> new FieldCentricDriveTrain(opMode))
+                final int index;
+                try {
+                    index = completed.get();
+                }
+                catch (ExecutionException e) {
+                    throw new IllegalStateException("Failed to initialize a module", e.getCause());
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while initializing modules", e);
+                }
+                remaining--;
+                for (int i = 0; i < moduleCount; i++) {
+                    if (provider[i] == index) {
+                        isDone[i] = true;
+                    }
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
 
-                            .addCase(HangModule.class, clazz -> new HangModule(opMode))
-                            .addCase(PlaneLauncher.class, clazz -> new PlaneLauncher(opMode))
+            // register in registry order so that loadedModules stays deterministic.  Every module that has been created
+            //  is registered, even if we haven't seen its completion yet; anything still being created cleans itself up
+            synchronized (isAbandoned) {
+                isAbandoned.set(true);
+            }
+            for (int index = 0; index < moduleCount; index++) {
+                if (createdModules[index] != null) {
+                    registerModule(index, createdModules[index]);
+                    for (String line : setupLines.get(index)) {
+                        opMode.telemetry.addLine(line);
+                    }
+                }
+            }
+        }
+    }
 
-                            .execute(moduleClass)
-            );
+    private String describePending(boolean[] isSubmitted, boolean[] isDone) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < registry.getModuleCount(); i++) {
+            if (isSubmitted[i] && !isDone[i]) {
+                if (builder.length() > 0) {
+                    builder.append(", ");
+                }
+                builder.append(registry.getModuleClass(i).getSimpleName());
+            }
         }
-        catch (ClassCastException e) {
-            return null; // just in case
+        return builder.toString();
+    }
+
+    /**
+     * Outputs how long each loaded module took to create
+     */
+    public void logInitTimes() {
+        double totalMillis = 0;
+        for (Module module : loadedModules) {
+            final int index = registry.indexOf(module.getClass());
+            opMode.telemetry.addData("[Module Manager] " + module.getClass().getSimpleName() + " init time",
+                    "%.1f ms", initTimesMillis[index]);
+            totalMillis += initTimesMillis[index];
         }
+        opMode.telemetry.addData("[Module Manager] sum of module init times", "%.1f ms", totalMillis);
     }
 
     /**
-     * Starts all {@link org.firstinspires.ftc.teamcode.modules.concurrent.ModuleThread}s belonging to any loaded
+     * Determines which modules are needed to load the specified modules
+     * @param moduleClasses The classes of the requested modules
+     * @return For each module index, whether the module was requested
+     * @throws IllegalArgumentException One of the provided classes is not a registered module
+     */
+    @SafeVarargs
+    private final boolean[] getRequiredModules(Class<? extends Module>... moduleClasses) throws IllegalArgumentException {
+        final boolean[] isRequired = new boolean[registry.getModuleCount()];
+        for (Class<? extends Module> moduleClass : moduleClasses) {
+            final int index = registry.indexOf(moduleClass);
+            if (index < 0) {
+                throw new IllegalArgumentException("Provided class "
+                        + moduleClass.getCanonicalName()
+                        + " is not a registered module!");
+            }
+            isRequired[index] = true;
+        }
+        return isRequired;
+    }
+
+    /**
+     * Starts all {@link org.firstinspires.ftc.teamcode.modules.concurrent.ModuleThread}s and
+     *  {@link org.firstinspires.ftc.teamcode.modules.concurrent.ModuleTask}s belonging to any loaded
      *  {@link ConcurrentModule}s
      * @see ConcurrentModule#startThreads()
      */
@@ -117,23 +393,32 @@ public final class ModuleManager {
     }
 
     /**
-     * Outputs the status of all loaded modules
+     * Outputs the status of all loaded modules, along with the statistics of every scheduled periodic task.  This can be
+     *  called every loop iteration; telemetry is only updated at {@link TelemetryPipeline#FLUSH_HZ}.  The time each
+     *  module takes to log is recorded in {@link ModuleMetrics}.
      * @see Module#log()
+     * @see TelemetryPipeline#flush()
      */
     public void logModuleStatus() {
-        for (Module module : loadedModules) {
-            module.log();
-        }
-        opMode.telemetry.update();
+        logModuleStatusProbe.begin();
+        telemetryPipeline.flush();
+        logModuleStatusProbe.end();
+    }
+
+    public TelemetryPipeline getTelemetryPipeline() {
+        return telemetryPipeline;
     }
 
     /**
-     * Unloads all loaded modules
+     * Unloads all loaded modules.  The time each module takes to clean up is recorded in {@link ModuleMetrics}.
      * @see Module#cleanupModule()
      */
     public void unloadAll() {
-        for (Module module : loadedModules) {
-            module.cleanupModule();
+        for (int i = 0; i < loadedModules.size(); i++) {
+            final TimingProbe probe = cleanupProbes.get(i);
+            probe.begin();
+            loadedModules.get(i).cleanupModule();
+            probe.end();
         }
     }
 }
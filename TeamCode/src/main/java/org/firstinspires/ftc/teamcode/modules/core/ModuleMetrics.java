@@ -0,0 +1,114 @@
+package org.firstinspires.ftc.teamcode.modules.core;
+
+import com.acmerobotics.dashboard.FtcDashboard;
+import com.acmerobotics.dashboard.telemetry.TelemetryPacket;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of every {@link TimingProbe} and standalone {@link LatencyHistogram}, and publishes their statistics when
+ *  the OpMode stops
+ */
+public final class ModuleMetrics {
+    public static final String TAG = "ModuleMetrics";
+
+    private static final Map<String, TimingProbe> probes = new ConcurrentHashMap<>();
+
+    /**
+     * Histograms of durations that aren't the runtime of a section of code (i.e. how old a sensor reading is)
+     */
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private ModuleMetrics() {}
+
+    /**
+     * Gets the probe with the specified name, creating it if it doesn't exist yet
+     * @param name The name of the probe, typically {@code ModuleName.method}
+     * @return The probe
+     * @apiNote Probes should be retrieved ahead of time (i.e. in a constructor), not on the code path being measured
+     */
+    public static TimingProbe getProbe(String name) {
+        TimingProbe probe = probes.get(name);
+        if (probe == null) {
+            probe = new TimingProbe(name);
+            final TimingProbe existing = probes.putIfAbsent(name, probe);
+            if (existing != null) {
+                probe = existing;
+            }
+        }
+        return probe;
+    }
+
+    /**
+     * Gets the histogram with the specified name, creating it if it doesn't exist yet
+     * @param name The name the histogram's statistics are published under
+     * @return The histogram
+     * @apiNote Like probes, histograms should be retrieved ahead of time
+     */
+    public static LatencyHistogram getHistogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            final LatencyHistogram existing = histograms.putIfAbsent(name, histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Removes every measurement recorded by every probe and histogram.  Called when an OpMode is initialized, so that the published
+     *  statistics only cover a single OpMode.
+     */
+    public static void resetAll() {
+        for (TimingProbe probe : probes.values()) {
+            probe.reset();
+        }
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Publishes p50/p95/p99/max wall and CPU times of every probe, and the same percentiles of every histogram, that has
+     *  recorded something to FTC Dashboard and the robot log
+     */
+    public static void publishAll() {
+        final TelemetryPacket packet = new TelemetryPacket();
+        for (TimingProbe probe : probes.values()) {
+            if (probe.getWallTimes().getCount() == 0) {
+                continue;
+            }
+            publish(packet, probe.getName() + " (wall)", probe.getWallTimes());
+            publish(packet, probe.getName() + " (cpu)", probe.getCpuTimes());
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            if (entry.getValue().getCount() != 0) {
+                publish(packet, entry.getKey(), entry.getValue());
+            }
+        }
+        final FtcDashboard dashboard = FtcDashboard.getInstance();
+        if (dashboard != null) {
+            dashboard.sendTelemetryPacket(packet);
+        }
+    }
+
+    private static void publish(TelemetryPacket packet, String name, LatencyHistogram histogram) {
+        final double p50 = histogram.getPercentile(50) / 1e6;
+        final double p95 = histogram.getPercentile(95) / 1e6;
+        final double p99 = histogram.getPercentile(99) / 1e6;
+        final double max = histogram.getMax() / 1e6;
+
+        packet.put(name + " p50 (ms)", p50);
+        packet.put(name + " p95 (ms)", p95);
+        packet.put(name + " p99 (ms)", p99);
+        packet.put(name + " max (ms)", max);
+
+        RobotLog.ii(TAG, String.format(Locale.US, "%s: n=%d p50=%.3f p95=%.3f p99=%.3f max=%.3f ms",
+                name, histogram.getCount(), p50, p95, p99, max));
+    }
+}
@@ -0,0 +1,97 @@
+package org.firstinspires.ftc.teamcode.modules.core;
+
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A table of every module annotated with {@link RobotModule}.  Each registered module has an index, which is used to
+ *  look up its factory and registered subclasses in constant time.
+ * @implNote The only subclass is generated at compile time by the module registry annotation processor
+ */
+public abstract class ModuleRegistry {
+    private static ModuleRegistry instance;
+
+    /**
+     * Gets the registry, building it if it hasn't been built yet
+     * @return The registry of every {@link RobotModule}
+     */
+    public static synchronized ModuleRegistry getInstance() {
+        if (instance == null) {
+            instance = new GeneratedModuleRegistry();
+        }
+        return instance;
+    }
+
+    private final Class<?>[] moduleClasses;
+
+    private final ModuleFactory[] factories;
+
+    private final int[][] subclasses;
+
+    private final Map<Class<?>, Integer> indices;
+
+    /**
+     * Initializes the registry.  Every array is indexed by module index.
+     * @param moduleClasses The class of each module
+     * @param factories The constructor of each module
+     * @param subclasses The indices of the registered subclasses of each module
+     */
+    protected ModuleRegistry(Class<?>[] moduleClasses, ModuleFactory[] factories, int[][] subclasses) {
+        this.moduleClasses = moduleClasses;
+        this.factories = factories;
+        this.subclasses = subclasses;
+
+        indices = new IdentityHashMap<>(moduleClasses.length);
+        for (int i = 0; i < moduleClasses.length; i++) {
+            indices.put(moduleClasses[i], i);
+        }
+    }
+
+    /**
+     * Gets the amount of registered modules
+     */
+    public int getModuleCount() {
+        return moduleClasses.length;
+    }
+
+    /**
+     * Gets the index of a registered module
+     * @param moduleClass The class of the module
+     * @return The module's index, or -1 if the class is not a registered module
+     */
+    public int indexOf(Class<?> moduleClass) {
+        final Integer index = indices.get(moduleClass);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Gets the class of a registered module
+     * @param index The index of the module
+     * @return The module's class
+     */
+    public Class<?> getModuleClass(int index) {
+        return moduleClasses[index];
+    }
+
+    /**
+     * Creates an instance of a registered module
+     * @param index The index of the module
+     * @param registrar The OpMode initializing the module
+     * @return The new module
+     */
+    public Module create(int index, OpMode registrar) {
+        return factories[index].create(registrar);
+    }
+
+    /**
+     * Gets the registered subclasses of a registered module
+     * @param index The index of the module
+     * @return The indices of the module's subclasses
+     * @apiNote The returned array is shared, and must not be modified
+     */
+    /* package-private */ int[] getSubclasses(int index) {
+        return subclasses[index];
+    }
+}
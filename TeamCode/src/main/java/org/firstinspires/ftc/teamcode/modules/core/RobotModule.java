@@ -0,0 +1,18 @@
+package org.firstinspires.ftc.teamcode.modules.core;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Registers a module with {@link ModuleManager}.  Registered modules are collected at compile time into a generated
+ *  {@link ModuleRegistry}, so they must be public, concrete, and have a public constructor that takes exactly one
+ *  {@link com.qualcomm.robotcore.eventloop.opmode.OpMode}.
+ * @see Module#Module(com.qualcomm.robotcore.eventloop.opmode.OpMode)
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface RobotModule {}
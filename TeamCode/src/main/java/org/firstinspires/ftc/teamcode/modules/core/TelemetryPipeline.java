@@ -0,0 +1,146 @@
+package org.firstinspires.ftc.teamcode.modules.core;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.modules.concurrent.ModuleScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes the status of every loaded module to telemetry at a fixed rate.  The Driver Station only shows a few updates
+ *  per second, so formatting every module's status on every loop iteration is wasted work.  Instead, a module's
+ *  {@link Module#log()} is only called when the pipeline flushes, when the module's own log rate allows it, and (for
+ *  modules that track their changes) when its values have changed.  Otherwise, the lines it logged last time are
+ *  published again.
+ * @see Module#getLogRateHz()
+ * @see Module#markLogDirty()
+ */
+@Config("Telemetry Pipeline")
+public final class TelemetryPipeline {
+    /**
+     * How often telemetry is sent, in hertz.  The Driver Station refreshes every 250 ms by default.
+     */
+    public static double FLUSH_HZ = 4;
+
+    /**
+     * A module and its publishing state
+     */
+    private static final class Slot {
+        private final Module module;
+
+        /**
+         * Measures the module's {@link Module#log()}
+         */
+        private final TimingProbe logProbe;
+
+        /**
+         * The earliest time the module can log again, in nanoseconds
+         * @see System#nanoTime()
+         */
+        private long nextLogNanos;
+
+        private Slot(Module module, TimingProbe logProbe, long nowNanos) {
+            this.module = module;
+            this.logProbe = logProbe;
+            nextLogNanos = nowNanos;
+        }
+    }
+
+    private final OpMode opMode;
+
+    private final List<Slot> slots = new ArrayList<>();
+
+    /**
+     * The earliest time the pipeline can flush again, in nanoseconds
+     */
+    private long nextFlushNanos = System.nanoTime();
+
+    private volatile long flushCount;
+    private volatile long logCount;
+    private volatile long reusedLogCount;
+
+    /**
+     * Initializes the pipeline
+     * @param opMode The OpMode whose telemetry will be published to
+     */
+    /* package-private */ TelemetryPipeline(OpMode opMode) {
+        this.opMode = opMode;
+    }
+
+    /**
+     * Starts publishing a module's status
+     * @param module The module
+     * @param logProbe Measures the module's {@link Module#log()}
+     */
+    /* package-private */ void addModule(Module module, TimingProbe logProbe) {
+        slots.add(new Slot(module, logProbe, System.nanoTime()));
+    }
+
+    /**
+     * Publishes every module's status and the scheduler's statistics, then updates telemetry, if
+     *  {@link #FLUSH_HZ} allows it
+     * @return True if telemetry was updated, otherwise false
+     */
+    public boolean flush() {
+        final long now = System.nanoTime();
+        if (now - nextFlushNanos < 0) {
+            return false;
+        }
+        nextFlushNanos = now + periodNanos(FLUSH_HZ);
+
+        final Telemetry telemetry = opMode.telemetry;
+        for (int i = 0; i < slots.size(); i++) {
+            final Slot slot = slots.get(i);
+            final Module module = slot.module;
+            if (now - slot.nextLogNanos >= 0 && module.shouldRewriteLog()) {
+                slot.logProbe.begin();
+                module.getLog().clear();
+                module.log();
+                slot.logProbe.end();
+                slot.nextLogNanos = now + periodNanos(module.getLogRateHz());
+                logCount++;
+            }
+            else {
+                reusedLogCount++;
+            }
+            module.getLog().publish(telemetry);
+        }
+        ModuleScheduler.getInstance().logStatistics(telemetry);
+        telemetry.update();
+        flushCount++;
+        return true;
+    }
+
+    /**
+     * Gets the time between two events at a rate
+     * @param hz The rate, in hertz.  Infinite rates have no delay.
+     * @return The period, in nanoseconds
+     */
+    private static long periodNanos(double hz) {
+        return hz == Double.POSITIVE_INFINITY ? 0 : (long) (1e9 / Math.max(hz, 0.1));
+    }
+
+    /**
+     * Gets the amount of times telemetry has been updated
+     */
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Gets the amount of times a module's {@link Module#log()} has been called
+     */
+    public long getLogCount() {
+        return logCount;
+    }
+
+    /**
+     * Gets the amount of times a module's previous lines were published again instead of calling its
+     *  {@link Module#log()}
+     */
+    public long getReusedLogCount() {
+        return reusedLogCount;
+    }
+}
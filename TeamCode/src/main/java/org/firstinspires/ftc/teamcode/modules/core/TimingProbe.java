@@ -0,0 +1,77 @@
+package org.firstinspires.ftc.teamcode.modules.core;
+
+import android.os.Debug;
+
+/**
+ * Measures how long a section of code takes, both in wall-clock time and in CPU time spent by the calling thread.
+ *  Each measurement is recorded in a {@link LatencyHistogram}.
+ * @apiNote A probe only remembers one start time, so each probe should only be timed by one thread at a time (i.e. one
+ *  probe per module callback or per periodic task)
+ * @see ModuleMetrics#getProbe(String)
+ */
+public final class TimingProbe {
+    private final String name;
+
+    private final LatencyHistogram wallTimes = new LatencyHistogram();
+
+    private final LatencyHistogram cpuTimes = new LatencyHistogram();
+
+    private long startWallNanos;
+
+    private long startCpuNanos;
+
+    /**
+     * Initializes the probe
+     * @param name The name the probe's statistics are published under
+     * @implNote Package-private so that every probe is registered with {@link ModuleMetrics}
+     */
+    /* package-private */ TimingProbe(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Starts a measurement
+     */
+    public void begin() {
+        startCpuNanos = Debug.threadCpuTimeNanos();
+        startWallNanos = System.nanoTime();
+    }
+
+    /**
+     * Ends the measurement started by the last call to {@link #begin()} and records it
+     */
+    public void end() {
+        final long wallNanos = System.nanoTime() - startWallNanos;
+        final long cpuNanos = Debug.threadCpuTimeNanos() - startCpuNanos;
+        wallTimes.record(wallNanos);
+        if (startCpuNanos >= 0) { // threadCpuTimeNanos() returns -1 if it isn't supported
+            cpuTimes.record(cpuNanos);
+        }
+    }
+
+    /**
+     * Gets the histogram of wall-clock times, in nanoseconds
+     */
+    public LatencyHistogram getWallTimes() {
+        return wallTimes;
+    }
+
+    /**
+     * Gets the histogram of CPU times, in nanoseconds
+     */
+    public LatencyHistogram getCpuTimes() {
+        return cpuTimes;
+    }
+
+    /**
+     * Removes every recorded measurement
+     */
+    public void reset() {
+        wallTimes.reset();
+        cpuTimes.reset();
+    }
+}
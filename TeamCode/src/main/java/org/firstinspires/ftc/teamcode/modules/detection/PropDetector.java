@@ -5,7 +5,9 @@ import com.qualcomm.robotcore.hardware.ColorRangeSensor;
 
 import org.firstinspires.ftc.teamcode.hardware.ConditionalHardwareDevice;
 import org.firstinspires.ftc.teamcode.modules.core.Module;
+import org.firstinspires.ftc.teamcode.modules.core.RobotModule;
 
+@RobotModule
 public class PropDetector extends Module {
     /**
      * The sensor used to detect the prop
@@ -27,8 +29,8 @@ public class PropDetector extends Module {
         sensor = ConditionalHardwareDevice.tryGetHardwareDevice(parent.hardwareMap, ColorRangeSensor.class, SENSOR_NAME); //parent.hardwareMap.get(ColorRangeSensor.class, SENSOR_NAME);
         // status update
         sensor.runIfAvailable(
-                device -> getTelemetry().addLine("[PropDetector] found ColorRangeSensor of type " + device.getDeviceName()),
-                () -> getTelemetry().addLine("[PropDetector] could not find ColorRangeSensor!")
+                device -> addSetupLine("[PropDetector] found ColorRangeSensor of type " + device.getDeviceName()),
+                () -> addSetupLine("[PropDetector] could not find ColorRangeSensor!")
         );
     }
 
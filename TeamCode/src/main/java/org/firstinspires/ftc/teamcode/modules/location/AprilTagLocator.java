@@ -1,19 +1,134 @@
 package org.firstinspires.ftc.teamcode.modules.location;
 
+import android.util.Size;
 import androidx.annotation.NonNull;
+import com.acmerobotics.dashboard.config.Config;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
-import org.firstinspires.ftc.teamcode.modules.core.Module;
+import org.firstinspires.ftc.teamcode.modules.concurrent.ConcurrentModule;
+import org.firstinspires.ftc.teamcode.modules.concurrent.ModuleTask;
+import org.firstinspires.ftc.teamcode.modules.concurrent.RateGroup;
+import org.firstinspires.ftc.teamcode.modules.core.RobotModule;
 import org.firstinspires.ftc.vision.VisionPortal;
 import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
 import org.firstinspires.ftc.vision.apriltag.AprilTagPoseFtc;
 import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
-public class AprilTagLocator extends Module implements Locator {
+/**
+ * Locates the robot relative to an AprilTag.  Each camera frame's detections are taken from the AprilTag processor
+ *  once, and cached by tag id, so any number of consumers can look up a tag without copying or scanning the
+ *  processor's detection list.
+ * <br />
+ * The camera only runs while something needs it.  Consumers request a {@link VisionMode} with
+ *  {@link #requestVision(Object, VisionMode)} and release it when they are done; the camera streams in the most
+ *  demanding mode that is requested, and stops streaming when nothing is requested.
+ */
+@RobotModule
+public class AprilTagLocator extends ConcurrentModule implements Locator {
+    /**
+     * The detections from one camera frame
+     */
+    public static final class Frame {
+        /**
+         * The frame's position in the sequence of processed frames, starting at 1
+         */
+        public final long number;
+
+        /**
+         * When the camera captured the frame, in nanoseconds
+         * @see System#nanoTime()
+         */
+        public final long acquisitionNanos;
+
+        /**
+         * The frame's detections.  This is unmodifiable.
+         */
+        public final List<AprilTagDetection> detections;
+
+        /**
+         * Creates a frame.  Frames are normally only created by the locator, but recorded frames can be replayed (i.e.
+         *  through {@link FusedLocator#addAprilTagFrame(Frame)}).
+         * @param number The frame's position in the sequence of frames
+         * @param acquisitionNanos When the frame was captured, in nanoseconds
+         * @param detections The frame's detections.  These must be unmodifiable.
+         */
+        public Frame(long number, long acquisitionNanos, List<AprilTagDetection> detections) {
+            this.number = number;
+            this.acquisitionNanos = acquisitionNanos;
+            this.detections = detections;
+        }
+
+        /**
+         * Gets how long ago the frame was captured
+         * @return The age, in nanoseconds
+         */
+        public long getAgeNanos() {
+            return System.nanoTime() - acquisitionNanos;
+        }
+    }
+
+    /**
+     * How the camera is used, from least to most demanding
+     */
+    public enum VisionMode {
+        /**
+         * The camera doesn't stream and no frames are processed
+         */
+        OFF,
+
+        /**
+         * Tags are expected to be close (within about 4 feet), so frames are decimated heavily, which is fast
+         * @see VisionConfig#NEAR_DECIMATION
+         */
+        NEAR,
+
+        /**
+         * Tags may be far away, so frames are decimated less, which is slower but detects smaller tags
+         * @see VisionConfig#FAR_DECIMATION
+         */
+        FAR
+    }
+
+    @Config("AprilTag Locator (Vision)")
+    public static class VisionConfig {
+        /**
+         * The width of the camera's frames, in pixels.  This takes effect the next time the module is created.
+         */
+        public static int CAMERA_WIDTH = 640;
+
+        /**
+         * The height of the camera's frames, in pixels.  This takes effect the next time the module is created.
+         */
+        public static int CAMERA_HEIGHT = 480;
+
+        /**
+         * How much frames are downsampled to find tags in {@link VisionMode#NEAR}.  Higher is faster, but misses
+         *  smaller (further) tags.  Tags' poses are always computed at full resolution.
+         */
+        public static double NEAR_DECIMATION = 3;
+
+        /**
+         * How much frames are downsampled to find tags in {@link VisionMode#FAR}
+         */
+        public static double FAR_DECIMATION = 1;
+    }
+
+    /**
+     * The amount of codes in the tag36h11 family, which the AprilTag processor detects by default.  Tag ids are always
+     *  less than this.
+     */
+    public static final int TAG_ID_COUNT = 587;
+
+    /**
+     * A frame with no detections, used before the camera has processed anything
+     */
+    private static final Frame NO_FRAME = new Frame(0, 0, Collections.emptyList());
 
     /**
      * The variable to store our instance of the AprilTag processor.
@@ -25,19 +140,73 @@ public class AprilTagLocator extends Module implements Locator {
      */
     private VisionPortal visionPortal;
 
-    private int tagId;
+    private volatile int tagId;
+
+    private final LocatorException[] locateExceptions = LocatorException.preallocate(this);
+
+    /**
+     * The mode each consumer requested.  Only accessed while holding this map's monitor.
+     */
+    private final Map<Object, VisionMode> visionRequests = new IdentityHashMap<>();
+
+    /**
+     * The mode the camera should be in, which is the most demanding requested mode
+     */
+    private volatile VisionMode visionMode = VisionMode.OFF;
+
+    /**
+     * The latest frame taken from the processor
+     */
+    private volatile Frame latestFrame = NO_FRAME;
+
+    /**
+     * The latest detection of each tag, indexed by tag id.  Only accessed while holding this object's monitor.
+     */
+    private final AprilTagDetection[] detectionsById = new AprilTagDetection[TAG_ID_COUNT];
+
+    /**
+     * The {@link Frame#number} each tag was last detected in, indexed by tag id.  Only accessed while holding this
+     *  object's monitor.
+     */
+    private final long[] frameNumbersById = new long[TAG_ID_COUNT];
 
     public static final String WEBCAM_DEVICE_NAME = "Webcam 1";
 
+    public static final String VISION_THREAD_GROUP_NAME = "AprilTag Locator Threads";
+
+    /**
+     * Starts or stops the camera's stream for the current {@link VisionMode} once the camera is ready, i.e. stops it
+     *  after it starts streaming on its own when it finishes opening
+     */
+    private static class VisionModeTask extends ModuleTask<AprilTagLocator> {
+        public static final String TASK_NAME = "Vision Mode";
+
+        public VisionModeTask(AprilTagLocator host) {
+            super(host, TASK_NAME, RateGroup.TELEMETRY);
+        }
+
+        @Override
+        protected void iterate() {
+            host.applyStreamingMode();
+        }
+    }
+
+    /**
+     * How often the detections are written to telemetry, in hertz.  Formatting every detection is expensive, and the
+     *  detections only change a few times per second anyway.
+     */
+    public static final double LOG_RATE_HZ = 2;
+
     /**
      * Initializes the module and registers it with the specified OpMode
      *
      * @param registrar The OpMode initializing the module
      */
     public AprilTagLocator(@NonNull OpMode registrar, int tagId) {
-        super(registrar);
+        super(registrar, VISION_THREAD_GROUP_NAME);
         initAprilTag();
         this.tagId = tagId;
+        exitSetup();
     }
 
     public AprilTagLocator(@NonNull OpMode registrar) {
@@ -46,75 +215,265 @@ public class AprilTagLocator extends Module implements Locator {
 
     public void setTagId(int tagId) {
         this.tagId = tagId;
+        LocatorTransformCache.clear(); // our location is relative to a different tag now
     }
 
     public int getTagId() {
         return tagId;
     }
 
+    @Override
+    protected void registerModuleThreads() {
+        registerPeriodicTask(new VisionModeTask(this));
+    }
+
     @Override
     public void cleanupModule() {
+        super.cleanupModule(); // stops the vision mode task before the portal it uses is closed
+        visionPortal.close();
+    }
+
+    /**
+     * Creates the AprilTag processor and the vision portal.  The processor starts disabled, since nothing has requested
+     *  a {@link VisionMode} yet.
+     */
+    private void initAprilTag() {
+        aprilTag = new AprilTagProcessor.Builder()
+                .setDrawAxes(false)
+                .setDrawCubeProjection(false)
+                .build();
 
+        visionPortal = new VisionPortal.Builder()
+                .setCamera(parent.hardwareMap.get(WebcamName.class, WEBCAM_DEVICE_NAME))
+                .setCameraResolution(new Size(VisionConfig.CAMERA_WIDTH, VisionConfig.CAMERA_HEIGHT))
+                .setAutoStopLiveView(true)
+                .addProcessor(aprilTag)
+                .build();
+        visionPortal.setProcessorEnabled(aprilTag, false);
     }
 
+    /**
+     * Requests that the camera runs in at least a certain mode, replacing the consumer's previous request
+     * @param consumer The object that needs the camera
+     * @param mode The mode it needs.  {@link VisionMode#OFF} is the same as {@link #releaseVision(Object)}.
+     */
+    public void requestVision(Object consumer, VisionMode mode) {
+        synchronized (visionRequests) {
+            if (mode == VisionMode.OFF) {
+                visionRequests.remove(consumer);
+            }
+            else {
+                visionRequests.put(consumer, mode);
+            }
+            VisionMode mostDemanding = VisionMode.OFF;
+            for (VisionMode requested : visionRequests.values()) {
+                if (requested.compareTo(mostDemanding) > 0) {
+                    mostDemanding = requested;
+                }
+            }
+            visionMode = mostDemanding;
+        }
+        applyProcessorMode(); // the stream follows in the next iteration of the vision mode task
+    }
 
     /**
-     * Initialize the AprilTag processor.
+     * Withdraws a consumer's request for the camera
+     * @param consumer The object that no longer needs the camera
      */
-    private void initAprilTag() {
+    public void releaseVision(Object consumer) {
+        requestVision(consumer, VisionMode.OFF);
+    }
+
+    /**
+     * Gets the mode the camera is in, or is switching to
+     */
+    public VisionMode getVisionMode() {
+        return visionMode;
+    }
 
-        // Create the AprilTag processor the easy way.
-        aprilTag = AprilTagProcessor.easyCreateWithDefaults();
+    /**
+     * Enables or disables the processor for the current {@link VisionMode}.  Switching to {@link VisionMode#OFF} also
+     *  replaces the latest frame with an empty one, so its detections aren't reported as current while nothing is
+     *  processed.
+     * @implNote This never waits for the camera, so it can share a lock with {@link #ingestDetections()}.  Starting and
+     *  stopping the stream is left to {@link #applyStreamingMode()}.
+     */
+    private synchronized void applyProcessorMode() {
+        final VisionMode mode = visionMode;
+        if (mode == VisionMode.OFF) {
+            visionPortal.setProcessorEnabled(aprilTag, false);
+            aprilTag.getFreshDetections(); // drop any unread frame, so it isn't ingested when the camera restarts
+            final Frame frame = latestFrame;
+            if (!frame.detections.isEmpty()) {
+                latestFrame = new Frame(frame.number + 1, System.nanoTime(), Collections.emptyList());
+            }
+            return;
+        }
+        aprilTag.setDecimation((float) (mode == VisionMode.NEAR ? VisionConfig.NEAR_DECIMATION : VisionConfig.FAR_DECIMATION));
+        visionPortal.setProcessorEnabled(aprilTag, true);
+    }
 
-        // Create the vision portal the easy way.
-            visionPortal = VisionPortal.easyCreateWithDefaults(
-                    parent.hardwareMap.get(WebcamName.class, WEBCAM_DEVICE_NAME), aprilTag);
+    /**
+     * Starts or stops the camera's stream for the current {@link VisionMode}
+     * @implNote Starting and stopping the stream blocks until the camera has changed state, so this is only called by
+     *  {@link VisionModeTask}, and holds no lock that readers of the detections use.  The camera can only change state
+     *  once it has finished opening, so the task keeps calling this until the switch is done.  Until the OpMode
+     *  starts, the camera streams whenever it is open, but nothing is processed in {@link VisionMode#OFF}.
+     */
+    private void applyStreamingMode() {
+        final VisionPortal.CameraState state = visionPortal.getCameraState();
+        if (visionMode == VisionMode.OFF) {
+            if (state == VisionPortal.CameraState.STREAMING) {
+                visionPortal.stopStreaming();
+            }
+        }
+        else if (state == VisionPortal.CameraState.CAMERA_DEVICE_READY) {
+            visionPortal.resumeStreaming();
+        }
     }
 
+    @Override
+    public double getLogRateHz() {
+        return LOG_RATE_HZ;
+    }
 
     /**
      * Add telemetry about AprilTag detections.
      */
     @Override
     public void log() {
-        List<org.firstinspires.ftc.vision.apriltag.AprilTagDetection> currentDetections = aprilTag.getDetections();
-        getTelemetry().addData("# AprilTags Detected", currentDetections.size());
+        getLog().addData("Vision mode", "%s (camera %s, %.1f fps)", visionMode, visionPortal.getCameraState(), visionPortal.getFps());
+        final Frame frame = getLatestFrame();
+        getLog().addData("# AprilTags Detected", frame.detections.size());
+        getLog().addData("Frame age (ms)", "%.0f", frame.number == 0 ? Double.NaN : frame.getAgeNanos() / 1e6);
 
         // Step through the list of detections and display info for each one.
-        for (org.firstinspires.ftc.vision.apriltag.AprilTagDetection detection : currentDetections) {
+        for (AprilTagDetection detection : frame.detections) {
             if (detection.metadata != null) {
-                getTelemetry().addLine(String.format(Locale.US, "\n==== (ID %d) %s", detection.id, detection.metadata.name));
-                getTelemetry().addLine(String.format(Locale.US, "XYZ %6.1f %6.1f %6.1f  (inch)", detection.ftcPose.x, detection.ftcPose.y, detection.ftcPose.z));
-                getTelemetry().addLine(String.format(Locale.US, "PRY %6.1f %6.1f %6.1f  (deg)", detection.ftcPose.pitch, detection.ftcPose.roll, detection.ftcPose.yaw));
-                getTelemetry().addLine(String.format(Locale.US, "RBE %6.1f %6.1f %6.1f  (inch, deg, deg)", detection.ftcPose.range, detection.ftcPose.bearing, detection.ftcPose.elevation));
+                getLog().addLine("\n==== (ID %d) %s", detection.id, detection.metadata.name);
+                getLog().addLine("XYZ %6.1f %6.1f %6.1f  (inch)", detection.ftcPose.x, detection.ftcPose.y, detection.ftcPose.z);
+                getLog().addLine("PRY %6.1f %6.1f %6.1f  (deg)", detection.ftcPose.pitch, detection.ftcPose.roll, detection.ftcPose.yaw);
+                getLog().addLine("RBE %6.1f %6.1f %6.1f  (inch, deg, deg)", detection.ftcPose.range, detection.ftcPose.bearing, detection.ftcPose.elevation);
             } else {
-                getTelemetry().addLine(String.format(Locale.US, "\n==== (ID %d) Unknown", detection.id));
-                getTelemetry().addLine(String.format(Locale.US, "Center %6.0f %6.0f   (pixels)", detection.center.x, detection.center.y));
+                getLog().addLine("\n==== (ID %d) Unknown", detection.id);
+                getLog().addLine("Center %6.0f %6.0f   (pixels)", detection.center.x, detection.center.y);
             }
         }   // end for() loop
 
         // Add "key" information to telemetry
-        getTelemetry().addLine("\nkey:\nXYZ = X (Right), Y (Forward), Z (Up) dist.");
-        getTelemetry().addLine("PRY = Pitch, Roll & Yaw (XYZ Rotation)");
-        getTelemetry().addLine("RBE = Range, Bearing & Elevation");
+        getLog().addLine("\nkey:\nXYZ = X (Right), Y (Forward), Z (Up) dist.");
+        getLog().addLine("PRY = Pitch, Roll & Yaw (XYZ Rotation)");
+        getLog().addLine("RBE = Range, Bearing & Elevation");
 
     }   // end method telemetryAprilTag()
 
+    /**
+     * {@inheritDoc}
+     * @return {@link LocateStatus#NOT_DETECTED} if the target tag isn't in the latest frame, which is usually the case
+     */
+    @Override
+    public LocateStatus locate(Movement result) {
+        final AprilTagDetection detection = getCurrentDetection(tagId);
+        if (detection == null) {
+            return LocateStatus.NOT_DETECTED;
+        }
+        final AprilTagPoseFtc pose = detection.ftcPose;
+        result.set(pose.x, pose.y, pose.yaw);
+        return LocateStatus.OK;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return The {@link Frame#number} of the latest frame
+     */
     @Override
-    public LocalizedMovement getLocation() throws LocatorException {
-        ArrayList<AprilTagDetection> currentDetections = aprilTag.getDetections();
-        for (AprilTagDetection detection : currentDetections) {
-            if (detection.id == tagId) {
-                AprilTagPoseFtc pose = detection.ftcPose;
-                return new LocalizedMovement(
-                        pose.x,
-                        pose.y,
-                        pose.yaw,
-                        this
-                );
+    public long getPoseVersion() {
+        return getLatestFrame().number;
+    }
+
+    @Override
+    public LocatorException getLocateException(LocateStatus status) {
+        return locateExceptions[status.ordinal()];
+    }
+
+    /**
+     * Takes the latest frame's detections from the processor if it has processed a frame since the last call, and
+     *  caches them by tag id
+     * @implNote This is the only place detections are read from the processor.  Reading them with
+     *  {@link AprilTagProcessor#getFreshDetections()} doesn't copy the detection list unless there is a new frame.
+     */
+    private synchronized void ingestDetections() {
+        if (visionMode == VisionMode.OFF) {
+            return;
+        }
+        final ArrayList<AprilTagDetection> fresh = aprilTag.getFreshDetections();
+        if (fresh == null) {
+            return;
+        }
+        final long number = latestFrame.number + 1;
+        long acquisitionNanos = System.nanoTime();
+        for (int i = 0; i < fresh.size(); i++) {
+            final AprilTagDetection detection = fresh.get(i);
+            acquisitionNanos = detection.frameAcquisitionNanoTime;
+            if (detection.id >= 0 && detection.id < TAG_ID_COUNT) {
+                detectionsById[detection.id] = detection;
+                frameNumbersById[detection.id] = number;
             }
         }
-        throw new LocatorException(this, "Target April Tag not detected!");
+        latestFrame = new Frame(number, acquisitionNanos, Collections.unmodifiableList(fresh));
+    }
+
+    /**
+     * Gets the detections from the latest frame the camera has processed
+     * @return The frame.  Its {@link Frame#number} is 0 if no frame has been processed yet, and it has no detections
+     *  while the camera is {@link VisionMode#OFF}.
+     * @apiNote This doesn't wait for the camera, so it can be polled from control loops.  Compare {@link Frame#number}
+     *  with the previous frame's to find out whether the frame is new.
+     */
+    public Frame getLatestFrame() {
+        ingestDetections();
+        return latestFrame;
+    }
+
+    /**
+     * Gets the latest detection of a tag, from whichever frame it was last seen in
+     * @param id The tag's id
+     * @return The detection, or null if the tag hasn't been detected
+     * @see AprilTagDetection#frameAcquisitionNanoTime
+     */
+    public synchronized AprilTagDetection getDetection(int id) {
+        ingestDetections();
+        if (id < 0 || id >= TAG_ID_COUNT) {
+            return null;
+        }
+        return detectionsById[id];
+    }
+
+    /**
+     * Gets a tag's detection in the latest frame
+     * @param id The tag's id
+     * @return The detection, or null if the tag isn't in the latest frame
+     */
+    public synchronized AprilTagDetection getCurrentDetection(int id) {
+        ingestDetections();
+        if (id < 0 || id >= TAG_ID_COUNT || frameNumbersById[id] != latestFrame.number) {
+            return null;
+        }
+        return detectionsById[id];
+    }
+
+    /**
+     * Gets how long ago a tag was last detected
+     * @param id The tag's id
+     * @return The age of the frame the tag was last detected in, in nanoseconds, or {@link Long#MAX_VALUE} if the tag
+     *  hasn't been detected
+     */
+    public long getDetectionAgeNanos(int id) {
+        final AprilTagDetection detection = getDetection(id);
+        if (detection == null) {
+            return Long.MAX_VALUE;
+        }
+        return System.nanoTime() - detection.frameAcquisitionNanoTime;
     }
 
     @Override
@@ -122,20 +481,19 @@ public class AprilTagLocator extends Module implements Locator {
         return LocatorKind.OBJECT_RELATIVE;
     }
 
+    /**
+     * The size of the field in the processor's units (inches and degrees)
+     */
+    private static final Movement FIELD_SIZE = new Movement(144, 144, 360);
+
     @Override
     public Movement getFieldSize() {
-        return new Movement(
-                144,
-                144,
-                360
-        );
+        return FIELD_SIZE;
     }
 
     @Override
     public boolean isActive() {
-        if (tagId < 1) {
-            return false;
-        }
-        return Locator.super.isActive();
+        final int id = tagId;
+        return id >= 1 && getCurrentDetection(id) != null;
     }
 }   // end class
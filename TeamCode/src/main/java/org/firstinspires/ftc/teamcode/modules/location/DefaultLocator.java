@@ -6,9 +6,16 @@ package org.firstinspires.ftc.teamcode.modules.location;
  */
 @Deprecated
 public final class DefaultLocator implements Locator {
+    private final LocatorException[] locateExceptions = LocatorException.preallocate(this);
+
+    @Override
+    public LocateStatus locate(Movement result) {
+        return LocateStatus.NO_ABSOLUTE_POSITION;
+    }
+
     @Override
-    public LocalizedMovement getLocation() throws LocatorException {
-        throw new NoAbsolutePositionException(this);
+    public LocatorException getLocateException(LocateStatus status) {
+        return locateExceptions[status.ordinal()];
     }
 
     @Override
@@ -22,22 +29,19 @@ public final class DefaultLocator implements Locator {
     }
 
     @Override
-    public LocalizedMovement convertFromOtherLocator(Movement distance, Locator other) {
-        if (distance == null) {
-            return LocalizedMovement.construct(Movement.zero(), this);
-        }
-
-        Movement fieldSize = other.getFieldSize();
-        return new LocalizedMovement(
+    public Movement convertFromOtherLocator(Movement distance, Locator other, Movement result) {
+        final Movement fieldSize = other.getFieldSize();
+        return result.set(
                 distance.x / fieldSize.x,
                 distance.y / fieldSize.y,
-                distance.theta,
-                this
+                distance.theta
         );
     }
 
+    private static final Movement FIELD_SIZE = new Movement(1, 1);
+
     @Override
     public Movement getFieldSize() {
-        return new Movement(1, 1);
+        return FIELD_SIZE;
     }
 }
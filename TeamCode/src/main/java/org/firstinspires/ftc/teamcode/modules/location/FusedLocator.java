@@ -0,0 +1,583 @@
+package org.firstinspires.ftc.teamcode.modules.location;
+
+import com.acmerobotics.dashboard.config.Config;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.Quaternion;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+
+import java.util.List;
+
+/**
+ * Fuses {@link Odometry} and {@link AprilTagLocator} into one field pose with an extended Kalman filter.  Odometry
+ *  movement is the filter's prediction, applied at the {@link PoseIntegrator}'s full rate; AprilTag detections are its
+ *  corrections, applied whenever the camera has processed a new frame.  Odometry keeps the pose smooth and responsive,
+ *  and the AprilTags keep it from drifting.
+ * <br />
+ * Detections arrive a few camera frames late, so the filter keeps a short history of its past poses.  A detection is
+ *  compared with the pose the robot had when the frame was captured, and the resulting correction is applied to the
+ *  current pose.
+ * <br />
+ * Coordinates are {@link LocatorKind#FIELD_RELATIVE}, in millimeters from the corner of the field at FTC's (-x, -y).
+ *  Like {@link PoseIntegrator}, a heading of 0 faces the field's +y direction, and headings are counterclockwise.
+ * @implNote Predictions and corrections only allocate the small immutable pose they publish, and reading the pose
+ *  doesn't allocate.  The pose is published through a volatile reference, so readers never wait for the filter.
+ */
+@Config("Fused Locator")
+public final class FusedLocator implements Locator, PoseIntegrator.Listener {
+    /**
+     * How quickly odometry's position error grows as the robot drives, in millimeters per square root of a millimeter.
+     *  The position's variance grows by this squared for every millimeter driven, so the error after driving a distance
+     *  is this times the distance's square root (one standard deviation), no matter how often odometry updates.
+     */
+    public static double ODOMETRY_POSITION_STD_PER_SQRT_MM = 1;
+
+    /**
+     * How quickly odometry's heading error grows as the robot turns, in radians per square root of a radian.  Like
+     *  {@link #ODOMETRY_POSITION_STD_PER_SQRT_MM}, the heading's variance grows linearly with the angle turned.
+     */
+    public static double ODOMETRY_HEADING_STD_PER_SQRT_RAD = 0.01;
+
+    /**
+     * The error of a position measured from an AprilTag 1 meter away, in millimeters (one standard deviation).  Further
+     *  tags are trusted proportionally less.
+     */
+    public static double VISION_POSITION_STD_MM = 40;
+
+    /**
+     * The error of a heading measured from an AprilTag, in degrees (one standard deviation)
+     */
+    public static double VISION_HEADING_STD_DEG = 4;
+
+    /**
+     * Detections whose squared Mahalanobis distance from the filter's pose is larger than this are ignored as outliers.
+     *  The default is the 99.9th percentile of a chi-squared distribution with 3 degrees of freedom.
+     */
+    public static double OUTLIER_THRESHOLD = 16.27;
+
+    /**
+     * How far the camera is to the right of the robot's center, in millimeters
+     */
+    public static double CAMERA_OFFSET_RIGHT_MM = 0;
+
+    /**
+     * How far the camera is in front of the robot's center, in millimeters
+     */
+    public static double CAMERA_OFFSET_FORWARD_MM = 0;
+
+    /**
+     * How often the camera is checked for new detections, in hertz
+     */
+    public static double VISION_POLL_HZ = 30;
+
+    /**
+     * The amount of past poses kept for delayed corrections.  At 200 Hz, this covers 640 ms.
+     */
+    public static final int HISTORY_SIZE = 128;
+
+    /**
+     * The length of one side of the field, in millimeters
+     */
+    public static final double FIELD_SIZE_MM = 3657.6;
+
+    private final AprilTagLocator aprilTags;
+
+    // filter state.  Only accessed while holding this object's monitor
+    private double x, y, heading;
+
+    /**
+     * The state's covariance, in row-major order
+     */
+    private final double[] covariance = new double[9];
+
+    // scratch space for corrections, so they don't allocate
+    private final double[] innovationCovariance = new double[9];
+    private final double[] inverse = new double[9];
+    private final double[] gain = new double[9];
+    private final double[] scratch = new double[9];
+
+    // ring buffer of past poses
+    private final long[] historyNanos = new long[HISTORY_SIZE];
+    private final double[] historyX = new double[HISTORY_SIZE];
+    private final double[] historyY = new double[HISTORY_SIZE];
+    private final double[] historyHeading = new double[HISTORY_SIZE];
+    private int historyEnd;
+    private int historyCount;
+
+    private long lastVisionPollNanos;
+
+    /**
+     * The {@link AprilTagLocator.Frame#number} of the latest frame whose detections were applied
+     */
+    private long lastFrameNumber;
+
+    /**
+     * A pose published for readers.  Instances are immutable, so a reader that reads {@link #published} once always sees
+     *  a consistent pose.
+     */
+    private static final class PublishedPose {
+        final double x, y, heading;
+        final long timestampNanos;
+
+        /**
+         * The amount of times a pose has been published, including this one
+         */
+        final long version;
+
+        PublishedPose(double x, double y, double heading, long timestampNanos, long version) {
+            this.x = x;
+            this.y = y;
+            this.heading = heading;
+            this.timestampNanos = timestampNanos;
+            this.version = version;
+        }
+    }
+
+    /**
+     * The latest pose, replaced (never modified) by the filter
+     */
+    private volatile PublishedPose published;
+
+    private volatile long predictionCount;
+    private volatile long correctionCount;
+    private volatile long rejectedCount;
+
+    /**
+     * Starts fusing odometry and AprilTags
+     * @param odometry The odometry providing predictions
+     * @param aprilTags The AprilTag locator providing corrections, or null to only use odometry
+     * @param startX The robot's starting x position, in millimeters
+     * @param startY The robot's starting y position, in millimeters
+     * @param startHeading The robot's starting heading
+     * @param angleUnit The unit of the starting heading
+     * @throws IllegalArgumentException The odometry doesn't have the hardware devices it needs
+     */
+    public FusedLocator(Odometry odometry, AprilTagLocator aprilTags, double startX, double startY,
+                        double startHeading, AngleUnit angleUnit) {
+        this(aprilTags, startX, startY, startHeading, angleUnit);
+        final PoseIntegrator integrator = odometry.getPoseIntegrator();
+        if (integrator == null) {
+            throw new IllegalArgumentException("Odometry does not have the necessary hardware devices!");
+        }
+        integrator.setListener(this);
+    }
+
+    /**
+     * Creates a filter that has to be given its predictions through {@link #onPoseUpdate(double, double, double, long)}
+     * @param aprilTags The AprilTag locator providing corrections, or null to only use the predictions.  Its camera is
+     *                  requested in {@link AprilTagLocator.VisionMode#FAR} until {@link #releaseVision()} is called.
+     * @param startX The robot's starting x position, in millimeters
+     * @param startY The robot's starting y position, in millimeters
+     * @param startHeading The robot's starting heading
+     * @param angleUnit The unit of the starting heading
+     */
+    public FusedLocator(AprilTagLocator aprilTags, double startX, double startY, double startHeading, AngleUnit angleUnit) {
+        this.aprilTags = aprilTags;
+        if (aprilTags != null) {
+            // tags can be anywhere on the field, so they may be far away
+            aprilTags.requestVision(this, AprilTagLocator.VisionMode.FAR);
+        }
+        resetPose(startX, startY, startHeading, angleUnit, 50, 5);
+    }
+
+    /**
+     * Stops using AprilTags, so the camera can stop if nothing else needs it.  The filter continues with odometry only.
+     */
+    public void releaseVision() {
+        if (aprilTags != null) {
+            aprilTags.releaseVision(this);
+        }
+    }
+
+    /**
+     * Replaces the filter's pose, i.e. when the robot is placed somewhere known
+     * @param newX The x position, in millimeters
+     * @param newY The y position, in millimeters
+     * @param newHeading The heading
+     * @param angleUnit The unit of the heading
+     * @param positionStdMm How uncertain the position is, in millimeters (one standard deviation)
+     * @param headingStdDegrees How uncertain the heading is, in degrees (one standard deviation)
+     */
+    public synchronized void resetPose(double newX, double newY, double newHeading, AngleUnit angleUnit,
+                                       double positionStdMm, double headingStdDegrees) {
+        x = newX;
+        y = newY;
+        heading = angleUnit.toRadians(newHeading);
+        for (int i = 0; i < 9; i++) {
+            covariance[i] = 0;
+        }
+        covariance[0] = positionStdMm * positionStdMm;
+        covariance[4] = positionStdMm * positionStdMm;
+        final double headingStd = Math.toRadians(headingStdDegrees);
+        covariance[8] = headingStd * headingStd;
+        historyCount = 0;
+        publish(System.nanoTime());
+    }
+
+    /**
+     * Predicts the pose from odometry movement, then applies any new AprilTag detections
+     */
+    @Override
+    public synchronized void onPoseUpdate(double right, double forward, double headingChange, long timestampNanos) {
+        final double cos = Math.cos(heading);
+        final double sin = Math.sin(heading);
+        final double dx = right * cos - forward * sin;
+        final double dy = right * sin + forward * cos;
+        x += dx;
+        y += dy;
+        heading = AngleUnit.normalizeRadians(heading + headingChange);
+
+        // P = F P F^T + Q, where F is the identity except for d(x, y)/d(heading) = (-dy, dx)
+        final double[] p = covariance;
+        final double p02 = p[2] - dy * p[8];
+        final double p12 = p[5] + dx * p[8];
+        final double p00 = p[0] - 2 * dy * p[2] + dy * dy * p[8];
+        final double p11 = p[4] + 2 * dx * p[5] + dx * dx * p[8];
+        final double p01 = p[1] + dx * p[2] - dy * p[5] - dx * dy * p[8];
+        // Q grows linearly with the distance moved, so splitting the same path into more updates adds the same noise
+        final double distance = Math.sqrt(dx * dx + dy * dy);
+        final double positionVariance =
+                ODOMETRY_POSITION_STD_PER_SQRT_MM * ODOMETRY_POSITION_STD_PER_SQRT_MM * distance;
+        final double headingVariance =
+                ODOMETRY_HEADING_STD_PER_SQRT_RAD * ODOMETRY_HEADING_STD_PER_SQRT_RAD * Math.abs(headingChange);
+        p[0] = p00 + positionVariance;
+        p[4] = p11 + positionVariance;
+        p[8] += headingVariance;
+        p[1] = p[3] = p01;
+        p[2] = p[6] = p02;
+        p[5] = p[7] = p12;
+
+        historyNanos[historyEnd] = timestampNanos;
+        historyX[historyEnd] = x;
+        historyY[historyEnd] = y;
+        historyHeading[historyEnd] = heading;
+        historyEnd = (historyEnd + 1) % HISTORY_SIZE;
+        historyCount = Math.min(historyCount + 1, HISTORY_SIZE);
+        predictionCount++;
+
+        if (aprilTags != null && timestampNanos - lastVisionPollNanos >= 1e9 / VISION_POLL_HZ) {
+            lastVisionPollNanos = timestampNanos;
+            pollAprilTags();
+        }
+        publish(timestampNanos);
+    }
+
+    /**
+     * Applies the detections from the camera's latest frame, if they haven't been applied yet
+     */
+    private void pollAprilTags() {
+        addAprilTagFrame(aprilTags.getLatestFrame());
+    }
+
+    /**
+     * Corrects the pose with the detections from a camera frame, if they haven't been applied yet.  Detections of tags
+     *  without a known field position are ignored.
+     * @param frame The frame.  Its detections' poses must be in inches and degrees (the AprilTag processor's defaults).
+     * @apiNote This is called automatically for the {@link AprilTagLocator} given to the constructor, so it only needs
+     *  to be called directly for frames from elsewhere (i.e. recorded ones)
+     */
+    public synchronized void addAprilTagFrame(AprilTagLocator.Frame frame) {
+        if (frame.number == lastFrameNumber) {
+            return;
+        }
+        lastFrameNumber = frame.number;
+        final List<AprilTagDetection> detections = frame.detections;
+        for (int i = 0; i < detections.size(); i++) {
+            final AprilTagDetection detection = detections.get(i);
+            if (detection.metadata == null || detection.metadata.fieldPosition == null
+                    || detection.metadata.fieldOrientation == null) {
+                continue; // we don't know where this tag is on the field
+            }
+            addAprilTagDetection(detection);
+        }
+    }
+
+    /**
+     * Corrects the pose with a detection of an AprilTag with a known field position
+     * @param detection The detection.  Its pose must be in inches and degrees (the AprilTag processor's defaults).
+     */
+    private void addAprilTagDetection(AprilTagDetection detection) {
+        final DistanceUnit tagUnit = detection.metadata.distanceUnit;
+        final double tagX = tagUnit.toMm(detection.metadata.fieldPosition.get(0));
+        final double tagY = tagUnit.toMm(detection.metadata.fieldPosition.get(1));
+        final double tagFacing = getFacing(detection.metadata.fieldOrientation);
+
+        // in FTC's field frame (origin in the center, headings counterclockwise from +x), a robot looking straight at the
+        //  tag faces the opposite way the tag does
+        final double robotFacing = tagFacing + Math.PI - Math.toRadians(detection.ftcPose.yaw);
+        final double tagForward = DistanceUnit.INCH.toMm(detection.ftcPose.y) + CAMERA_OFFSET_FORWARD_MM;
+        final double tagLeft = -(DistanceUnit.INCH.toMm(detection.ftcPose.x) + CAMERA_OFFSET_RIGHT_MM);
+        final double cos = Math.cos(robotFacing);
+        final double sin = Math.sin(robotFacing);
+        final double robotX = tagX - (tagForward * cos - tagLeft * sin);
+        final double robotY = tagY - (tagForward * sin + tagLeft * cos);
+
+        final double range = Math.sqrt(tagForward * tagForward + tagLeft * tagLeft);
+        final double positionStd = VISION_POSITION_STD_MM * Math.max(range / 1000, 0.25);
+        addMeasurement(
+                robotX + FIELD_SIZE_MM / 2,
+                robotY + FIELD_SIZE_MM / 2,
+                robotFacing - Math.PI / 2, // a heading of 0 faces +y, not +x
+                detection.frameAcquisitionNanoTime,
+                positionStd,
+                Math.toRadians(VISION_HEADING_STD_DEG)
+        );
+    }
+
+    /**
+     * Gets the direction a tag faces on the field.  In the AprilTag library's tag frame, +z points out of the back of
+     *  the tag, so the tag faces its -z axis, rotated into the field frame by the tag's orientation.
+     * @param orientation The tag's {@link org.firstinspires.ftc.vision.apriltag.AprilTagMetadata#fieldOrientation}
+     * @return The heading of the tag's outward normal, counterclockwise from the field's +x axis, in radians.  Tags
+     *  that are tilted (i.e. on the backdrop) are projected onto the floor.
+     */
+    private static double getFacing(Quaternion orientation) {
+        final double w = orientation.w, qx = orientation.x, qy = orientation.y, qz = orientation.z;
+        // the third column of the rotation matrix is the tag's +z axis in the field frame
+        final double backX = 2 * (qx * qz + w * qy);
+        final double backY = 2 * (qy * qz - w * qx);
+        return Math.atan2(-backY, -backX);
+    }
+
+    /**
+     * Corrects the pose with an absolute measurement of it
+     * @param measuredX The measured x position, in millimeters
+     * @param measuredY The measured y position, in millimeters
+     * @param measuredHeading The measured heading, in radians
+     * @param timestampNanos When the measurement was taken.  The measurement is compared with the filter's pose at that
+     *                       time.
+     * @param positionStdMm The measurement's position error, in millimeters (one standard deviation)
+     * @param headingStdRad The measurement's heading error, in radians (one standard deviation)
+     * @return True if the correction was applied; false if it was too old or an outlier
+     */
+    public synchronized boolean addMeasurement(double measuredX, double measuredY, double measuredHeading,
+                                               long timestampNanos, double positionStdMm, double headingStdRad) {
+        // find the pose the robot had when the measurement was taken
+        double pastX = x, pastY = y, pastHeading = heading;
+        if (historyCount > 0) {
+            final int newest = (historyEnd - 1 + HISTORY_SIZE) % HISTORY_SIZE;
+            if (timestampNanos < historyNanos[newest]) {
+                int index = newest;
+                int searched = 1;
+                while (searched < historyCount && historyNanos[index] > timestampNanos) {
+                    index = (index - 1 + HISTORY_SIZE) % HISTORY_SIZE;
+                    searched++;
+                }
+                if (historyNanos[index] > timestampNanos) {
+                    rejectedCount++;
+                    return false; // older than anything we remember
+                }
+                pastX = historyX[index];
+                pastY = historyY[index];
+                pastHeading = historyHeading[index];
+            }
+        }
+        final double innovationX = measuredX - pastX;
+        final double innovationY = measuredY - pastY;
+        final double innovationHeading = AngleUnit.normalizeRadians(measuredHeading - pastHeading);
+
+        // S = P + R
+        final double[] p = covariance;
+        final double[] s = innovationCovariance;
+        System.arraycopy(p, 0, s, 0, 9);
+        s[0] += positionStdMm * positionStdMm;
+        s[4] += positionStdMm * positionStdMm;
+        s[8] += headingStdRad * headingStdRad;
+        if (!invert(s, inverse)) {
+            rejectedCount++;
+            return false;
+        }
+
+        // reject outliers: innovation^T S^-1 innovation
+        final double[] si = inverse;
+        final double mahalanobis =
+                innovationX * (si[0] * innovationX + si[1] * innovationY + si[2] * innovationHeading)
+                + innovationY * (si[3] * innovationX + si[4] * innovationY + si[5] * innovationHeading)
+                + innovationHeading * (si[6] * innovationX + si[7] * innovationY + si[8] * innovationHeading);
+        if (mahalanobis > OUTLIER_THRESHOLD) {
+            rejectedCount++;
+            return false;
+        }
+
+        // K = P S^-1
+        multiply(p, si, gain);
+        final double[] k = gain;
+        final double correctionX = k[0] * innovationX + k[1] * innovationY + k[2] * innovationHeading;
+        final double correctionY = k[3] * innovationX + k[4] * innovationY + k[5] * innovationHeading;
+        final double correctionHeading = k[6] * innovationX + k[7] * innovationY + k[8] * innovationHeading;
+        x += correctionX;
+        y += correctionY;
+        heading = AngleUnit.normalizeRadians(heading + correctionHeading);
+
+        // move the history with the pose, so the next delayed measurement isn't applied again on top of this one
+        for (int i = 0; i < historyCount; i++) {
+            final int index = (historyEnd - 1 - i + HISTORY_SIZE) % HISTORY_SIZE;
+            historyX[index] += correctionX;
+            historyY[index] += correctionY;
+            historyHeading[index] = AngleUnit.normalizeRadians(historyHeading[index] + correctionHeading);
+        }
+
+        // P = (I - K) P
+        multiply(k, p, scratch);
+        for (int i = 0; i < 9; i++) {
+            p[i] -= scratch[i];
+        }
+        // keep P symmetric despite rounding
+        p[1] = p[3] = (p[1] + p[3]) / 2;
+        p[2] = p[6] = (p[2] + p[6]) / 2;
+        p[5] = p[7] = (p[5] + p[7]) / 2;
+
+        correctionCount++;
+        publish(historyCount > 0 ? historyNanos[(historyEnd - 1 + HISTORY_SIZE) % HISTORY_SIZE] : timestampNanos);
+        return true;
+    }
+
+    /**
+     * Multiplies two 3x3 matrices
+     * @param a The left matrix, in row-major order
+     * @param b The right matrix, in row-major order
+     * @param result Where the product is written.  This must not be a or b.
+     */
+    private static void multiply(double[] a, double[] b, double[] result) {
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 3; column++) {
+                result[row * 3 + column] = a[row * 3] * b[column]
+                        + a[row * 3 + 1] * b[3 + column]
+                        + a[row * 3 + 2] * b[6 + column];
+            }
+        }
+    }
+
+    /**
+     * Inverts a 3x3 matrix
+     * @param m The matrix, in row-major order
+     * @param result Where the inverse is written.  This must not be m.
+     * @return False if the matrix is singular
+     */
+    private static boolean invert(double[] m, double[] result) {
+        final double c00 = m[4] * m[8] - m[5] * m[7];
+        final double c01 = m[5] * m[6] - m[3] * m[8];
+        final double c02 = m[3] * m[7] - m[4] * m[6];
+        final double determinant = m[0] * c00 + m[1] * c01 + m[2] * c02;
+        if (Math.abs(determinant) < 1e-12) {
+            return false;
+        }
+        result[0] = c00 / determinant;
+        result[1] = (m[2] * m[7] - m[1] * m[8]) / determinant;
+        result[2] = (m[1] * m[5] - m[2] * m[4]) / determinant;
+        result[3] = c01 / determinant;
+        result[4] = (m[0] * m[8] - m[2] * m[6]) / determinant;
+        result[5] = (m[2] * m[3] - m[0] * m[5]) / determinant;
+        result[6] = c02 / determinant;
+        result[7] = (m[1] * m[6] - m[0] * m[7]) / determinant;
+        result[8] = (m[0] * m[4] - m[1] * m[3]) / determinant;
+        return true;
+    }
+
+    /**
+     * Publishes the filter's pose for readers
+     * @param timestampNanos The time the pose is from
+     */
+    private void publish(long timestampNanos) {
+        final PublishedPose previous = published;
+        published = new PublishedPose(x, y, heading, timestampNanos, previous == null ? 1 : previous.version + 1);
+    }
+
+    /**
+     * Gets the x position of the latest pose
+     * @return The x position, in millimeters
+     */
+    public double getX() {
+        return published.x;
+    }
+
+    /**
+     * Gets the y position of the latest pose
+     * @return The y position, in millimeters
+     */
+    public double getY() {
+        return published.y;
+    }
+
+    /**
+     * Gets the heading of the latest pose
+     * @param angleUnit The unit of the result
+     * @return The heading
+     */
+    public double getHeading(AngleUnit angleUnit) {
+        return angleUnit.fromRadians(published.heading);
+    }
+
+    /**
+     * Gets the position's uncertainty
+     * @return The standard deviation of the position along its most uncertain axis, in millimeters
+     */
+    public synchronized double getPositionStdMm() {
+        // largest eigenvalue of the position block
+        final double halfTrace = (covariance[0] + covariance[4]) / 2;
+        final double halfDifference = (covariance[0] - covariance[4]) / 2;
+        return Math.sqrt(halfTrace + Math.sqrt(halfDifference * halfDifference + covariance[1] * covariance[1]));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return Always {@link LocateStatus#OK}, since the filter always has an estimate
+     */
+    @Override
+    public LocateStatus locate(Movement result) {
+        final PublishedPose pose = published;
+        result.set(pose.x, pose.y, Odometry.ANGLE_UNIT.fromRadians(pose.heading));
+        return LocateStatus.OK;
+    }
+
+    /**
+     * Gets the time the latest pose is from
+     * @return The time of the bulk read the latest prediction was made from, in nanoseconds
+     * @see System#nanoTime()
+     */
+    public long getTimestampNanos() {
+        return published.timestampNanos;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return The amount of times the pose has been published
+     */
+    @Override
+    public long getPoseVersion() {
+        return published.version;
+    }
+
+    public long getPredictionCount() {
+        return predictionCount;
+    }
+
+    public long getCorrectionCount() {
+        return correctionCount;
+    }
+
+    /**
+     * Gets the amount of measurements that were ignored because they were too old or outliers
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    @Override
+    public boolean isActive() {
+        return true;
+    }
+
+    @Override
+    public LocatorKind getKind() {
+        return LocatorKind.FIELD_RELATIVE;
+    }
+
+    private static final Movement FIELD_SIZE =
+            new Movement(FIELD_SIZE_MM, FIELD_SIZE_MM, Odometry.ANGLE_UNIT.getUnnormalized().fromDegrees(360));
+
+    @Override
+    public Movement getFieldSize() {
+        return FIELD_SIZE;
+    }
+}
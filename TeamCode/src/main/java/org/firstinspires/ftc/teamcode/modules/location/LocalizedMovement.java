@@ -33,21 +33,31 @@ public final class LocalizedMovement extends Movement {
     }
 
     public LocalizedMovement add(LocalizedMovement other) {
-        return construct(super.add(other.convertToOtherLocator(getLocator())), getLocator());
+        if (other.getLocator().equals(locator)) {
+            return new LocalizedMovement(x + other.x, y + other.y, theta + other.theta, locator);
+        }
+        final LocalizedMovement sum = new LocalizedMovement(0, 0, 0, locator);
+        locator.convertFromOtherLocator(other, other.getLocator(), sum);
+        return (LocalizedMovement) super.add(sum, sum);
     }
 
     @Override
     public LocalizedMovement add(Movement other) {
-        return construct(super.add(other), getLocator());
+        return new LocalizedMovement(x + other.x, y + other.y, theta + other.theta, locator);
     }
 
     public LocalizedMovement subtract(LocalizedMovement subtrahend) {
-        return construct(super.subtract(subtrahend.convertToOtherLocator(getLocator())), getLocator());
+        if (subtrahend.getLocator().equals(locator)) {
+            return new LocalizedMovement(x - subtrahend.x, y - subtrahend.y, theta - subtrahend.theta, locator);
+        }
+        final LocalizedMovement difference = new LocalizedMovement(0, 0, 0, locator);
+        locator.convertFromOtherLocator(subtrahend, subtrahend.getLocator(), difference);
+        return (LocalizedMovement) super.subtract(difference, difference);
     }
 
     @Override
-    public Movement subtract(Movement subtrahend) {
-        return construct(super.subtract(subtrahend), getLocator());
+    public LocalizedMovement subtract(Movement subtrahend) {
+        return new LocalizedMovement(x - subtrahend.x, y - subtrahend.y, theta - subtrahend.theta, locator);
     }
 
     public LocalizedMovement negate() {
@@ -55,7 +65,7 @@ public final class LocalizedMovement extends Movement {
     }
 
     public LocalizedMovement multiply(double factor) {
-        return construct(super.multiply(factor), getLocator());
+        return new LocalizedMovement(x * factor, y * factor, theta * factor, locator);
     }
 
     @NonNull
@@ -0,0 +1,37 @@
+package org.firstinspires.ftc.teamcode.modules.location;
+
+/**
+ * The outcome of {@link Locator#locate(Movement)}
+ */
+public enum LocateStatus {
+    /**
+     * The location was written to the buffer
+     */
+    OK("Located"),
+    /**
+     * The object the locator measures from (i.e. an AprilTag) isn't currently visible
+     */
+    NOT_DETECTED("Target April Tag not detected!"),
+    /**
+     * The hardware devices the locator needs are missing or unconfigured
+     */
+    DEVICES_UNAVAILABLE("Module does not have the necessary hardware devices!"),
+    /**
+     * The locator has no coordinate plane of its own
+     * @see LocatorKind#NO_ABSOLUTE_POSITION
+     */
+    NO_ABSOLUTE_POSITION("This locator is configured as NO_ABSOLUTE_POSITION");
+
+    private final String message;
+
+    LocateStatus(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Gets a description of the status, used as the message of the {@link LocatorException} thrown for it
+     */
+    public String getMessage() {
+        return message;
+    }
+}
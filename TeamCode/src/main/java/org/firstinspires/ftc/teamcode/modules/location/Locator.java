@@ -1,6 +1,17 @@
 package org.firstinspires.ftc.teamcode.modules.location;
 
 public interface Locator {
+    /**
+     * Gets the current position of the robot without throwing, writing it into a provided point
+     * @param result Where the robot's position is written, in whatever units are used by this locator.  This is left
+     *               unchanged unless the result is {@link LocateStatus#OK}.
+     * @return {@link LocateStatus#OK} if the position was written, otherwise the reason it couldn't be found
+     * @apiNote This is the version of {@link #getLocation()} to use in control loops: failing costs the same as
+     *  succeeding, and neither allocates
+     * @see #getKind()
+     */
+    LocateStatus locate(Movement result);
+
     /**
      * Gets the current position of the robot
      * @return The robot's current position, in whatever units are used by this locator
@@ -9,22 +20,33 @@ public interface Locator {
      * @throws NoAbsolutePositionException The locator has no absolute position
      * @see #isActive()
      * @see #getKind()
+     * @see #locate(Movement)
      */
+    default LocalizedMovement getLocation() throws LocatorException {
+        final LocalizedMovement location = new LocalizedMovement(0, 0, 0, this);
+        final LocateStatus status = locate(location);
+        if (status != LocateStatus.OK) {
+            throw getLocateException(status);
+        }
+        return location;
+    }
 
-    LocalizedMovement getLocation() throws LocatorException;
+    /**
+     * Gets the exception {@link #getLocation()} throws when {@link #locate(Movement)} fails
+     * @param status Why locating failed
+     * @return The exception.  Locators that fail often should return exceptions from
+     *  {@link LocatorException#preallocate(Locator)}, so that failing doesn't allocate.
+     */
+    default LocatorException getLocateException(LocateStatus status) {
+        return LocatorException.forStatus(this, status);
+    }
 
     /**
      * {@link #getLocation()} will always throw an exception if this is false
      * @return True if the locator currently functional, otherwise false
      */
     default boolean isActive() {
-        try {
-            getLocation();
-            return true;
-        }
-        catch (LocatorException e) {
-            return false;
-        }
+        return locate(new Movement(0, 0)) == LocateStatus.OK;
     }
 
     /**
@@ -43,22 +65,36 @@ public interface Locator {
      * @return the point in this locator's coordinate system
      */
     default LocalizedMovement convertFromOtherLocator(Movement distance, Locator other) {
-        if (distance == null) {
-            return LocalizedMovement.construct(Movement.zero(), this);
+        final LocalizedMovement result = new LocalizedMovement(0, 0, 0, this);
+        if (distance != null) {
+            convertFromOtherLocator(distance, other, result);
         }
-        Movement otherFieldSize = other.getFieldSize();
-        Movement thisFieldSize = getFieldSize();
-        LocalizedMovement otherLocation = other.getLocation();
-        LocalizedMovement thisLocation = getLocation();
+        return result;
+    }
 
-        distance = distance.subtract(otherLocation);
+    /**
+     * Converts a {@link Movement} object from another coordinate system to the one used by this locator, writing the
+     *  result into a provided point
+     * @param distance the {@link Movement} object to convert
+     * @param other the {@link Locator} object that contains the coordinate system currently used by {@code distance}
+     * @param result where the point in this locator's coordinate system is written (may be {@code distance})
+     * @return {@code result}
+     * @throws LocatorException Either locator couldn't locate the robot
+     * @implNote Both locators are only located once per bulk-read snapshot (or when their {@link #getPoseVersion()}
+     *  changes); other conversions from the same snapshot reuse the cached transform
+     */
+    default Movement convertFromOtherLocator(Movement distance, Locator other, Movement result) {
+        return LocatorTransformCache.convert(distance, other, this, result);
+    }
 
-        return new LocalizedMovement(
-                distance.x / otherFieldSize.x * thisFieldSize.x,
-                distance.y / otherFieldSize.y * thisFieldSize.y,
-                distance.theta / otherFieldSize.theta * thisFieldSize.theta,
-                this
-        ).add(thisLocation);
+    /**
+     * Gets a number that changes whenever the locator's location may have changed between bulk reads, so that cached
+     *  conversions (which are otherwise reused for a whole scheduler tick) are recomputed
+     * @return The version of the current location, or 0 if the location only changes with bulk reads
+     * @see org.firstinspires.ftc.teamcode.hardware.BulkReadCoordinator
+     */
+    default long getPoseVersion() {
+        return 0;
     }
 
     /**
@@ -80,7 +116,7 @@ public interface Locator {
     /**
      * Gets the size of the field, in whatever units are used by this locator.
      *  The {@link Movement#theta} field represents a full rotation in whatever unit the locator uses.
-     * @return The size of the field
+     * @return The size of the field.  This is usually a shared constant, so it must not be modified.
      */
     Movement getFieldSize();
 }
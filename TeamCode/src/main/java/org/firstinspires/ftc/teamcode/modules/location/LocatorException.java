@@ -28,4 +28,46 @@ public class LocatorException extends RuntimeException {
         super(ERROR_MESSAGE + ": " + message, cause);
         this.locator = locator;
     }
+
+    /**
+     * Creates an exception without a stack trace, which is cheap to create and can be thrown repeatedly
+     * @param locator The locator that failed
+     * @param message What went wrong
+     * @param stackless Ignored; distinguishes this constructor from {@link #LocatorException(Locator, String)}
+     */
+    protected LocatorException(Locator locator, String message, boolean stackless) {
+        super(ERROR_MESSAGE + ": " + message, null, false, false);
+        this.locator = locator;
+    }
+
+    /**
+     * Creates a stackless exception describing why {@link Locator#locate(Movement)} failed
+     * @param locator The locator that failed
+     * @param status Why it failed.  This must not be {@link LocateStatus#OK}.
+     * @return The exception, which is a {@link NoAbsolutePositionException} for
+     *  {@link LocateStatus#NO_ABSOLUTE_POSITION}
+     */
+    public static LocatorException forStatus(Locator locator, LocateStatus status) {
+        if (status == LocateStatus.NO_ABSOLUTE_POSITION) {
+            return new NoAbsolutePositionException(locator, true);
+        }
+        return new LocatorException(locator, status.getMessage(), true);
+    }
+
+    /**
+     * Creates one stackless exception for every failed {@link LocateStatus}, so that a locator can throw them without
+     *  allocating
+     * @param locator The locator the exceptions are for
+     * @return The exceptions, indexed by {@link LocateStatus#ordinal()}.  The entry for {@link LocateStatus#OK} is null.
+     */
+    public static LocatorException[] preallocate(Locator locator) {
+        final LocateStatus[] statuses = LocateStatus.values();
+        final LocatorException[] exceptions = new LocatorException[statuses.length];
+        for (LocateStatus status : statuses) {
+            if (status != LocateStatus.OK) {
+                exceptions[status.ordinal()] = forStatus(locator, status);
+            }
+        }
+        return exceptions;
+    }
 }
@@ -0,0 +1,134 @@
+package org.firstinspires.ftc.teamcode.modules.location;
+
+import org.firstinspires.ftc.teamcode.hardware.BulkReadCoordinator;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Caches the transform between pairs of locators' coordinate systems.  Converting from one locator to another scales
+ *  by the ratio of their field sizes and offsets by both locators' current locations, so without a cache every
+ *  conversion has to locate the robot twice.  With it, each pair is located once per bulk-read snapshot, or sooner if
+ *  either locator's {@link Locator#getPoseVersion()} changes, and every other conversion is just a multiply and an add.
+ *  Conversions only read the current snapshot's time and never start a new snapshot themselves, since that would clear
+ *  the hub caches in the middle of whichever module's tick is converting.
+ * @implNote Entries hold their locators weakly, so locators from previous OpModes can still be garbage collected.
+ *  Entries are reused in round-robin order, so a cache miss only allocates when a new pair of locators is seen.
+ */
+/* package-private */ final class LocatorTransformCache {
+    /**
+     * The amount of locator pairs that are cached.  Robots rarely have more than a few locators.
+     */
+    private static final int CAPACITY = 8;
+
+    private static final class Entry {
+        private WeakReference<Locator> from;
+        private WeakReference<Locator> to;
+        private long snapshotNanos;
+        private long fromVersion;
+        private long toVersion;
+
+        // to = from * scale + offset, for each coordinate
+        private double scaleX, scaleY, scaleTheta;
+        private double offsetX, offsetY, offsetTheta;
+
+        private boolean matches(Locator from, Locator to) {
+            return this.from != null && this.from.get() == from && this.to.get() == to;
+        }
+    }
+
+    private static final Entry[] entries = new Entry[CAPACITY];
+
+    /**
+     * The entry the next new pair replaces
+     */
+    private static int nextReplaced;
+
+    // scratch space for locating, so misses don't allocate.  Only accessed while holding the class's monitor
+    private static final Movement fromLocation = new Movement(0, 0, 0);
+    private static final Movement toLocation = new Movement(0, 0, 0);
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            entries[i] = new Entry();
+        }
+    }
+
+    private LocatorTransformCache() {}
+
+    /**
+     * Converts a point from one locator's coordinate system to another's
+     * @param distance The point, in {@code from}'s coordinates
+     * @param from The locator whose coordinate system the point is in
+     * @param to The locator whose coordinate system the point is converted to
+     * @param result Where the converted point is written (may be {@code distance})
+     * @return {@code result}
+     * @throws LocatorException Either locator couldn't locate the robot
+     */
+    static synchronized Movement convert(Movement distance, Locator from, Locator to, Movement result) {
+        final Entry entry = getTransform(from, to);
+        return result.set(
+                distance.x * entry.scaleX + entry.offsetX,
+                distance.y * entry.scaleY + entry.offsetY,
+                distance.theta * entry.scaleTheta + entry.offsetTheta
+        );
+    }
+
+    /**
+     * Forgets every cached transform, i.e. after a locator's pose was reset without changing its pose version
+     */
+    static synchronized void clear() {
+        for (Entry entry : entries) {
+            entry.from = null;
+            entry.to = null;
+        }
+    }
+
+    /**
+     * Gets an up-to-date transform between two locators, computing it if necessary
+     */
+    private static Entry getTransform(Locator from, Locator to) {
+        final long snapshotNanos = BulkReadCoordinator.getInstance().getSnapshotNanos();
+        final long fromVersion = from.getPoseVersion();
+        final long toVersion = to.getPoseVersion();
+
+        Entry entry = null;
+        for (Entry candidate : entries) {
+            if (candidate.matches(from, to)) {
+                entry = candidate;
+                break;
+            }
+        }
+        if (entry != null && entry.snapshotNanos == snapshotNanos
+                && entry.fromVersion == fromVersion && entry.toVersion == toVersion) {
+            return entry;
+        }
+        if (entry == null) {
+            entry = entries[nextReplaced];
+            nextReplaced = (nextReplaced + 1) % CAPACITY;
+            entry.from = new WeakReference<>(from);
+            entry.to = new WeakReference<>(to);
+            entry.snapshotNanos = snapshotNanos - 1; // not valid until it is computed below
+        }
+
+        LocateStatus status = from.locate(fromLocation);
+        if (status != LocateStatus.OK) {
+            throw from.getLocateException(status);
+        }
+        status = to.locate(toLocation);
+        if (status != LocateStatus.OK) {
+            throw to.getLocateException(status);
+        }
+        final Movement fromFieldSize = from.getFieldSize();
+        final Movement toFieldSize = to.getFieldSize();
+        entry.scaleX = toFieldSize.x / fromFieldSize.x;
+        entry.scaleY = toFieldSize.y / fromFieldSize.y;
+        entry.scaleTheta = toFieldSize.theta / fromFieldSize.theta;
+        entry.offsetX = toLocation.x - fromLocation.x * entry.scaleX;
+        entry.offsetY = toLocation.y - fromLocation.y * entry.scaleY;
+        entry.offsetTheta = toLocation.theta - fromLocation.theta * entry.scaleTheta;
+        entry.snapshotNanos = snapshotNanos;
+        entry.fromVersion = fromVersion;
+        entry.toVersion = toVersion;
+        return entry;
+    }
+}
@@ -7,6 +7,10 @@ import com.acmerobotics.roadrunner.geometry.Pose2d;
 /**
  * A point.  The coordinate system we are using is horizontal and vertical translation in a rotated
  *  XY coordinate plane, and our unit of distance is nanoseconds.
+ * <br />
+ * Each operation has two forms: one that returns a new point, and one that writes into a point the caller provides
+ *  (which may be one of the operands).  Code that runs every loop iteration should use the second form with points it
+ *  keeps around, so that it doesn't allocate.
  */
 public class Movement {
     public static final double EPSILON = 0.001;
@@ -38,7 +42,10 @@ public class Movement {
         if (!(obj instanceof Movement)) {
             return false;
         }
-        return negate().add((Movement) obj).isZero();
+        final Movement other = (Movement) obj;
+        return Math.abs(other.x - x) < EPSILON &&
+                Math.abs(other.y - y) < EPSILON &&
+                Math.abs(other.theta - theta) < EPSILON;
     }
 
     /**
@@ -72,6 +79,26 @@ public class Movement {
         return new Movement(0,0,0);
     }
 
+    /**
+     * Sets all coordinates of the point
+     * @return this point
+     */
+    public Movement set(double x, double y, double theta) {
+        this.x = x;
+        this.y = y;
+        this.theta = theta;
+        return this;
+    }
+
+    /**
+     * Copies another point's coordinates into this one
+     * @param other the point to copy
+     * @return this point
+     */
+    public Movement set(Movement other) {
+        return set(other.x, other.y, other.theta);
+    }
+
     /**
      * Adds two points together (doesn't modify existing points)
      * @param addend the other addend
@@ -81,6 +108,16 @@ public class Movement {
         return new Movement(x + addend.x, y + addend.y, theta + addend.theta);
     }
 
+    /**
+     * Adds two points together, writing the sum into a provided point
+     * @param addend the other addend
+     * @param result where the sum is written (may be this point or the addend)
+     * @return {@code result}
+     */
+    public Movement add(Movement addend, Movement result) {
+        return result.set(x + addend.x, y + addend.y, theta + addend.theta);
+    }
+
     /**
      * Negates all coordinates in the point (doesn't modify the existing point)
      * @return the negated Point
@@ -89,13 +126,32 @@ public class Movement {
         return multiply(-1);
     }
 
+    /**
+     * Negates all coordinates in the point, writing the result into a provided point
+     * @param result where the negated point is written (may be this point)
+     * @return {@code result}
+     */
+    public Movement negate(Movement result) {
+        return multiply(-1, result);
+    }
+
     /**
      * Subtracts the given term from this {@link Movement} object (doesn't modify existing points)
      * @param subtrahend the value to subtract from this {@link Movement} object
-     * @return the sum of the two points
+     * @return the difference of the two points
      */
     public Movement subtract(Movement subtrahend) {
-        return add(subtrahend.negate());
+        return new Movement(x - subtrahend.x, y - subtrahend.y, theta - subtrahend.theta);
+    }
+
+    /**
+     * Subtracts the given term from this point, writing the difference into a provided point
+     * @param subtrahend the value to subtract from this point
+     * @param result where the difference is written (may be this point or the subtrahend)
+     * @return {@code result}
+     */
+    public Movement subtract(Movement subtrahend, Movement result) {
+        return result.set(x - subtrahend.x, y - subtrahend.y, theta - subtrahend.theta);
     }
 
     /**
@@ -107,6 +163,16 @@ public class Movement {
         return new Movement(x * factor, y * factor, theta * factor);
     }
 
+    /**
+     * Multiplies this point's x, y, & theta by a given factor, writing the product into a provided point
+     * @param factor the other factor
+     * @param result where the product is written (may be this point)
+     * @return {@code result}
+     */
+    public Movement multiply(double factor, Movement result) {
+        return result.set(x * factor, y * factor, theta * factor);
+    }
+
     @NonNull
     @Override
     public String toString() {
@@ -2,6 +2,14 @@ package org.firstinspires.ftc.teamcode.modules.location;
 
 public final class NoAbsolutePositionException extends LocatorException {
     public NoAbsolutePositionException(Locator locator) {
-        super(locator, "This locator is configured as NO_ABSOLUTE_POSITION");
+        super(locator, LocateStatus.NO_ABSOLUTE_POSITION.getMessage());
+    }
+
+    /**
+     * Creates an exception without a stack trace
+     * @see LocatorException#forStatus(Locator, LocateStatus)
+     */
+    NoAbsolutePositionException(Locator locator, boolean stackless) {
+        super(locator, LocateStatus.NO_ABSOLUTE_POSITION.getMessage(), stackless);
     }
 }
@@ -5,7 +5,9 @@ import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 import org.firstinspires.ftc.teamcode.modules.FieldCentricDriveTrain;
+import org.firstinspires.ftc.teamcode.modules.core.RobotModule;
 
+@RobotModule
 public class Odometry extends FieldCentricDriveTrain implements Locator {
     /**
      * Whether rotation provided by {@see #getLocation()} are in degrees or radians
@@ -30,9 +32,17 @@ public class Odometry extends FieldCentricDriveTrain implements Locator {
     public static final double ENCODER_RESOLUTION = ((((1+(46.0/17))) * (1+(46.0/11))) * 28);
 
     /**
-     * Used convert from motor position (in ticks) to distance (in millimeters)
+     * Used convert from motor position (in ticks) to distance (in millimeters).  One revolution of the wheel moves the
+     *  robot by the wheel's circumference.
      */
-    public static final double TICKS_TO_MM = ENCODER_RESOLUTION / (WHEEL_RADIUS_MM * 360);
+    public static final double TICKS_TO_MM = Math.PI * WHEEL_DIAMETER_MM / ENCODER_RESOLUTION;
+
+    /**
+     * Integrates the drive train's movement in the background, or null if the hardware devices are unavailable
+     */
+    private final PoseIntegrator poseIntegrator;
+
+    private final LocatorException[] locateExceptions = LocatorException.preallocate(this);
 
     public Odometry(@NonNull OpMode registrar) {
         super(registrar);
@@ -47,32 +57,89 @@ public class Odometry extends FieldCentricDriveTrain implements Locator {
             getBackRightMecanumDriver().setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
             getBackLeftMecanumDriver().setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
         });
+        poseIntegrator = hardwareDevices.areAllDevicesAvailable() ? new PoseIntegrator(
+                getFrontLeftMecanumDriver(),
+                getFrontRightMecanumDriver(),
+                getBackLeftMecanumDriver(),
+                getBackRightMecanumDriver(),
+                getImuSampler(),
+                TICKS_TO_MM
+        ) : null;
+    }
+
+    @Override
+    public void resetRotation() {
+        if (poseIntegrator == null) {
+            super.resetRotation();
+            return;
+        }
+        // the heading jumps to 0 when the IMU is reset, which shouldn't be integrated as the robot turning
+        poseIntegrator.resetHeading(super::resetRotation);
+    }
+
+    @Override
+    public void cleanupModule() {
+        super.cleanupModule();
+        if (poseIntegrator != null) {
+            poseIntegrator.stop();
+        }
     }
 
     @Override
     public void log() {
         super.log();
-        hardwareDevices.executeIfAllAreAvailable(() ->
-            getTelemetry().addData("[Odometry] Current Position", getLocation())
-        );
+        if (poseIntegrator != null) {
+            final PoseIntegrator.Pose pose = poseIntegrator.getLatest();
+            getLog().addData("[Odometry] Current Position", "<%.1f, %.1f, %.1f> (%.1f ms old, %d updates)",
+                    pose.x, pose.y, pose.getHeading(ANGLE_UNIT), pose.getAgeNanos() / 1e6, poseIntegrator.getUpdateCount());
+        }
+    }
+
+    /**
+     * Gets the integrator tracking the robot's pose
+     * @return The integrator, or null if the hardware devices are unavailable
+     */
+    public PoseIntegrator getPoseIntegrator() {
+        return poseIntegrator;
     }
 
+    /**
+     * Gets the robot's latest field pose
+     * @return The pose, or null if the hardware devices are unavailable
+     */
+    public PoseIntegrator.Pose getPose() {
+        return poseIntegrator == null ? null : poseIntegrator.getLatest();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param result Where the robot's position relative to its starting position is written.  x is to the starting
+     *               right and y is to the starting forward, in millimeters; theta is the heading in
+     *               {@link #ANGLE_UNIT}s.
+     * @implNote This reads the pose published by the {@link PoseIntegrator}, so it doesn't touch any hardware
+     */
     @Override
-    public synchronized LocalizedMovement getLocation() throws LocatorException {
-        if (!hardwareDevices.areAllDevicesAvailable()) {
-            throw new LocatorException(this, "Module does not have the necessary hardware devices!");
+    public LocateStatus locate(Movement result) {
+        if (poseIntegrator == null) {
+            return LocateStatus.DEVICES_UNAVAILABLE;
         }
+        final PoseIntegrator.Pose pose = poseIntegrator.getLatest();
+        result.set(pose.x, pose.y, pose.getHeading(ANGLE_UNIT));
+        return LocateStatus.OK;
+    }
 
-        final double frontLeftPos = getFrontLeftMecanumDriver().getCurrentPosition();
-        final double frontRightPos = getFrontRightMecanumDriver().getCurrentPosition();
-        final double backLeftPos = getBackLeftMecanumDriver().getCurrentPosition();
-        final double backRightPos = getBackLeftMecanumDriver().getCurrentPosition();
-
-        final double forwardDistance = ((frontLeftPos + frontRightPos + backLeftPos + backRightPos) / 4) * TICKS_TO_MM;
-        final double strafeDistance = ((frontLeftPos + frontRightPos - backLeftPos - backRightPos) / 4) * TICKS_TO_MM;
-        final double rotation = getIMU().getRobotYawPitchRollAngles().getYaw(ANGLE_UNIT);
+    /**
+     * {@inheritDoc}
+     * @return The amount of times the {@link PoseIntegrator} has updated or reset the pose
+     */
+    @Override
+    public long getPoseVersion() {
+        return poseIntegrator == null ? 0 : poseIntegrator.getUpdateCount();
+    }
 
-        return new LocalizedMovement(forwardDistance, strafeDistance, rotation, this);
+    @Override
+    public LocatorException getLocateException(LocateStatus status) {
+        return locateExceptions[status.ordinal()];
     }
 
     @Override
@@ -85,8 +152,14 @@ public class Odometry extends FieldCentricDriveTrain implements Locator {
         return LocatorKind.ROBOT_START_RELATIVE;
     }
 
+    /**
+     * The size of the field, in millimeters and {@link #ANGLE_UNIT}s
+     */
+    private static final Movement FIELD_SIZE =
+            new Movement(3657.6, 3657.6, ANGLE_UNIT.getUnnormalized().fromDegrees(360));
+
     @Override
     public Movement getFieldSize() {
-        return new Movement(3657.6, 3657.6, ANGLE_UNIT.getUnnormalized().fromDegrees(360));
+        return FIELD_SIZE;
     }
 }
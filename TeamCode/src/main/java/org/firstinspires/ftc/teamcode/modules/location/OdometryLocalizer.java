@@ -4,6 +4,7 @@ import com.acmerobotics.roadrunner.geometry.Pose2d;
 import com.acmerobotics.roadrunner.localization.Localizer;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.teamcode.hardware.BulkReadCoordinator;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -26,37 +27,41 @@ public final class OdometryLocalizer extends Odometry implements Localizer {
      */
     public static final double ONE_REVOLUTION_OUR_ANGLE_UNIT = ANGLE_UNIT.getUnnormalized().fromDegrees(360);
 
+    private static final Movement FIELD_SIZE = new Movement(144, 144, ONE_REVOLUTION_OUR_ANGLE_UNIT);
+
     /**
      * Gets the field size in the units we're using
      * @return The field size (distance is in inches, rotation is in {@link #ANGLE_UNIT})
      */
     @Override
     public Movement getFieldSize() {
-        return new Movement(144, 144, ONE_REVOLUTION_OUR_ANGLE_UNIT);
+        return FIELD_SIZE;
     }
 
     /**
      * Gets the current location
-     * @return The current location in the units used by this locator
-     * @throws LocatorException The locator was unable to retrieve the location.  This is most likely due to the drive
-     *  train or IMU not being plugged in or configured correctly
+     * @param result Where the current location is written, in the units used by this locator
+     * @return {@link LocateStatus#DEVICES_UNAVAILABLE} if the drive train or IMU isn't plugged in or configured correctly
      * @see #getFieldSize()
      */
     @Override
-    public synchronized LocalizedMovement getLocation() throws LocatorException {
+    public LocateStatus locate(Movement result) {
         // Normally, we would just use the convertToOtherLocator method.  However, that method calls getLocation() to
         //  calculate the offset for conversion, so calling it here would result in an infinite loop.  Luckily, both this
         //  class and its parent have the same starting position, so we can leave out the offsets
 
-        final LocalizedMovement superLocation = super.getLocation();
+        final LocateStatus status = super.locate(result);
+        if (status != LocateStatus.OK) {
+            return status;
+        }
         final Movement superFieldSize = super.getFieldSize();
         final Movement thisFieldSize = this.getFieldSize();
-        return new LocalizedMovement(
-            superLocation.x * thisFieldSize.x / superFieldSize.x,
-            superLocation.y * thisFieldSize.y / superFieldSize.y,
-            superLocation.theta * thisFieldSize.theta / superFieldSize.theta,
-            this
+        result.set(
+            result.x * thisFieldSize.x / superFieldSize.x,
+            result.y * thisFieldSize.y / superFieldSize.y,
+            result.theta * thisFieldSize.theta / superFieldSize.theta
         );
+        return LocateStatus.OK;
     }
 
     /**
@@ -118,16 +123,24 @@ public final class OdometryLocalizer extends Odometry implements Localizer {
         AtomicReference<Pose2d> ret = new AtomicReference<>(); // it's atomic because idea gets mad if it isn't
 
         hardwareDevices.executeIfAllAreAvailable(() -> {
-            // Unit Conversion: [ getVelocity() ]--> rad/sec --[ * radius (mm) ]--> mm/sed
-            double frontLeftVelocity = getFrontLeftMecanumDriver().getVelocity(AngleUnit.RADIANS) * WHEEL_RADIUS_MM;
-            double frontRightVelocity = getFrontRightMecanumDriver().getVelocity(AngleUnit.RADIANS) * WHEEL_RADIUS_MM;
-            double backLeftVelocity = getBackLeftMecanumDriver().getVelocity(AngleUnit.RADIANS) * WHEEL_RADIUS_MM;
-            double backRightVelocity = getBackRightMecanumDriver().getVelocity(AngleUnit.RADIANS) * WHEEL_RADIUS_MM;
+            final BulkReadCoordinator coordinator = BulkReadCoordinator.getInstance();
+            final double frontLeftVelocity, frontRightVelocity, backLeftVelocity, backRightVelocity;
+            coordinator.beginRead();
+            try {
+                // Unit Conversion: [ getVelocity() ]--> rad/sec --[ * radius (mm) ]--> mm/sed
+                frontLeftVelocity = getFrontLeftMecanumDriver().getVelocity(AngleUnit.RADIANS) * WHEEL_RADIUS_MM;
+                frontRightVelocity = getFrontRightMecanumDriver().getVelocity(AngleUnit.RADIANS) * WHEEL_RADIUS_MM;
+                backLeftVelocity = getBackLeftMecanumDriver().getVelocity(AngleUnit.RADIANS) * WHEEL_RADIUS_MM;
+                backRightVelocity = getBackRightMecanumDriver().getVelocity(AngleUnit.RADIANS) * WHEEL_RADIUS_MM;
+            }
+            finally {
+                coordinator.endRead();
+            }
 
             final double forwardVelocity = ((frontLeftVelocity + frontRightVelocity + backLeftVelocity + backRightVelocity) / 4);
             final double strafeVelocity = ((frontLeftVelocity + frontRightVelocity - backLeftVelocity - backRightVelocity) / 4);
             // The IMU treats positive Z rotation as clockwise btw
-            final double rotationalVelocity = getIMU().getRobotAngularVelocity(ANGLE_UNIT).zRotationRate;
+            final double rotationalVelocity = getImuSample().getZRotationRate(ANGLE_UNIT);
 
             ret.set(new Pose2d(strafeVelocity, forwardVelocity, rotationalVelocity));
         });
@@ -0,0 +1,289 @@
+package org.firstinspires.ftc.teamcode.modules.location;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.util.RobotLog;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.teamcode.hardware.BulkReadCoordinator;
+import org.firstinspires.ftc.teamcode.hardware.ImuSampler;
+import org.firstinspires.ftc.teamcode.modules.core.ModuleMetrics;
+import org.firstinspires.ftc.teamcode.modules.core.TimingProbe;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the robot's field pose on its own thread by integrating the mecanum wheels' movement at a fixed rate, and
+ *  publishes the latest pose as an immutable {@link Pose}.  Each update reads the encoders from the current bulk-read
+ *  snapshot and the heading from the {@link ImuSampler}, so reading the pose never touches hardware.
+ * <br />
+ * Wheel movement since the last update is integrated with a pose exponential: the robot is assumed to have moved along
+ *  a circular arc, which keeps the pose accurate while the robot strafes and turns at the same time.
+ * <br />
+ * Field coordinates start at the robot's starting pose.  Positive x is to the robot's starting right, positive y is
+ *  the robot's starting forward, and headings are counterclockwise.
+ */
+@Config("Odometry Integrator")
+public final class PoseIntegrator {
+    /**
+     * How often the pose is updated, in hertz.  Changes take effect the next time an integrator is started.
+     */
+    public static double UPDATE_HZ = 200;
+
+    /**
+     * What sideways wheel movement is multiplied by, to account for mecanum wheels slipping while strafing
+     */
+    public static double LATERAL_MULTIPLIER = 1;
+
+    /**
+     * The name given to each integrator's thread
+     */
+    public static final String THREAD_NAME = "Odometry Integrator";
+
+    /**
+     * A field pose.  Distances are in millimeters and the heading is in radians.
+     */
+    public static final class Pose {
+        public final double x;
+        public final double y;
+        public final double heading;
+
+        /**
+         * The time of the bulk read the pose was computed from, in nanoseconds
+         * @see System#nanoTime()
+         */
+        public final long timestampNanos;
+
+        private Pose(double x, double y, double heading, long timestampNanos) {
+            this.x = x;
+            this.y = y;
+            this.heading = heading;
+            this.timestampNanos = timestampNanos;
+        }
+
+        public double getHeading(AngleUnit unit) {
+            return unit.fromRadians(heading);
+        }
+
+        /**
+         * Gets how long ago the pose was computed
+         * @return The age, in nanoseconds
+         */
+        public long getAgeNanos() {
+            return System.nanoTime() - timestampNanos;
+        }
+    }
+
+    /**
+     * Notified on the integrator's thread every time the pose is updated
+     * @see #setListener(Listener)
+     */
+    public interface Listener {
+        /**
+         * Called after each update with the movement that was integrated
+         * @param right How far the robot moved to its right, in millimeters, relative to its heading before the update
+         * @param forward How far the robot moved forward, in millimeters, relative to its heading before the update
+         * @param headingChange How far the robot turned counterclockwise, in radians
+         * @param timestampNanos The time of the bulk read the movement was computed from
+         * @apiNote This runs at the integrator's full rate, so it shouldn't allocate or block
+         */
+        void onPoseUpdate(double right, double forward, double headingChange, long timestampNanos);
+    }
+
+    private final DcMotor frontLeft, frontRight, backLeft, backRight;
+
+    private volatile Listener listener;
+
+    private final ImuSampler imuSampler;
+
+    /**
+     * Converts encoder ticks to millimeters of wheel travel
+     */
+    private final double mmPerTick;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Measures how long each update takes
+     */
+    private final TimingProbe updateProbe = ModuleMetrics.getProbe(THREAD_NAME + "/update");
+
+    // the readings used by the previous update.  Only accessed while holding this object's monitor
+    private int prevFrontLeft, prevFrontRight, prevBackLeft, prevBackRight;
+    private double prevHeading;
+
+    private volatile Pose latest;
+
+    private volatile long updateCount;
+
+    /**
+     * Creates and starts an integrator.  The current pose is the field's origin.
+     * @param frontLeft The front left drive motor
+     * @param frontRight The front right drive motor
+     * @param backLeft The back left drive motor
+     * @param backRight The back right drive motor
+     * @param imuSampler The sampler of the IMU used for the heading
+     * @param mmPerTick The distance a wheel travels per encoder tick, in millimeters
+     */
+    public PoseIntegrator(DcMotor frontLeft, DcMotor frontRight, DcMotor backLeft, DcMotor backRight,
+                          ImuSampler imuSampler, double mmPerTick) {
+        this.frontLeft = frontLeft;
+        this.frontRight = frontRight;
+        this.backLeft = backLeft;
+        this.backRight = backRight;
+        this.imuSampler = imuSampler;
+        this.mmPerTick = mmPerTick;
+        executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true); // the robot controller app shouldn't have to wait for us to exit
+            return thread;
+        });
+
+        synchronized (this) {
+            final long snapshotNanos = readPrevious();
+            latest = new Pose(0, 0, prevHeading, snapshotNanos);
+        }
+        final long periodNanos = (long) (1e9 / Math.max(UPDATE_HZ, 1));
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                update();
+            }
+            catch (RuntimeException e) {
+                // an exception would cancel every future update, so log it and try again next period
+                RobotLog.ee(THREAD_NAME, e, "Failed to update the robot's pose");
+            }
+        }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stores the current encoder positions and heading as the starting point for the next update
+     * @return The time of the bulk read the positions are from, in nanoseconds
+     */
+    private long readPrevious() {
+        final BulkReadCoordinator coordinator = BulkReadCoordinator.getInstance();
+        final long snapshotNanos = coordinator.beginRead();
+        try {
+            prevFrontLeft = frontLeft.getCurrentPosition();
+            prevFrontRight = frontRight.getCurrentPosition();
+            prevBackLeft = backLeft.getCurrentPosition();
+            prevBackRight = backRight.getCurrentPosition();
+        }
+        finally {
+            coordinator.endRead();
+        }
+        prevHeading = imuSampler.getLatest().yaw;
+        return snapshotNanos;
+    }
+
+    /**
+     * Integrates the wheel movement since the last update and publishes the new pose
+     */
+    private synchronized void update() {
+        updateProbe.begin();
+        // every wheel has to come from the same bulk read, or the wheels would disagree about how far the robot moved
+        final BulkReadCoordinator coordinator = BulkReadCoordinator.getInstance();
+        final long snapshotNanos = coordinator.beginRead();
+        final int frontLeftPos, frontRightPos, backLeftPos, backRightPos;
+        try {
+            frontLeftPos = frontLeft.getCurrentPosition();
+            frontRightPos = frontRight.getCurrentPosition();
+            backLeftPos = backLeft.getCurrentPosition();
+            backRightPos = backRight.getCurrentPosition();
+        }
+        finally {
+            coordinator.endRead();
+        }
+        final double heading = imuSampler.getLatest().yaw;
+
+        final double frontLeftDelta = frontLeftPos - prevFrontLeft;
+        final double frontRightDelta = frontRightPos - prevFrontRight;
+        final double backLeftDelta = backLeftPos - prevBackLeft;
+        final double backRightDelta = backRightPos - prevBackRight;
+
+        // inverse of the wheel powers in FieldCentricDriveTrain#setVelocity
+        final double forward = (frontLeftDelta + frontRightDelta + backLeftDelta + backRightDelta) / 4 * mmPerTick;
+        final double right = (frontLeftDelta - frontRightDelta - backLeftDelta + backRightDelta) / 4 * mmPerTick
+                * LATERAL_MULTIPLIER;
+        final double headingChange = AngleUnit.normalizeRadians(heading - prevHeading);
+
+        // pose exponential: the robot moved along an arc, so its chord is shorter and rotated by half the turn
+        final double sinTerm, cosTerm;
+        if (Math.abs(headingChange) < 1e-6) {
+            sinTerm = 1 - headingChange * headingChange / 6;
+            cosTerm = headingChange / 2;
+        }
+        else {
+            sinTerm = Math.sin(headingChange) / headingChange;
+            cosTerm = (1 - Math.cos(headingChange)) / headingChange;
+        }
+        final double robotRight = sinTerm * right - cosTerm * forward;
+        final double robotForward = cosTerm * right + sinTerm * forward;
+
+        // rotate from the robot's frame (at the start of the movement) to the field's frame
+        final Pose previous = latest;
+        final double cos = Math.cos(prevHeading);
+        final double sin = Math.sin(prevHeading);
+        latest = new Pose(
+                previous.x + robotRight * cos - robotForward * sin,
+                previous.y + robotRight * sin + robotForward * cos,
+                heading,
+                snapshotNanos
+        );
+
+        prevFrontLeft = frontLeftPos;
+        prevFrontRight = frontRightPos;
+        prevBackLeft = backLeftPos;
+        prevBackRight = backRightPos;
+        prevHeading = heading;
+        updateCount++;
+        updateProbe.end();
+
+        final Listener currentListener = listener;
+        if (currentListener != null) {
+            currentListener.onPoseUpdate(robotRight, robotForward, headingChange, snapshotNanos);
+        }
+    }
+
+    /**
+     * Sets the object notified after every update, replacing the previous one
+     * @param listener The listener, or null to stop notifying
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Runs something that resets the heading (i.e. {@link ImuSampler#resetYaw()}) without it being integrated as a
+     *  turn.  The position is kept, and the pose's heading becomes the new heading.
+     * @param reset The code that resets the heading
+     */
+    public synchronized void resetHeading(Runnable reset) {
+        reset.run();
+        readPrevious();
+        final Pose previous = latest;
+        latest = new Pose(previous.x, previous.y, prevHeading, previous.timestampNanos);
+        updateCount++;
+    }
+
+    /**
+     * Gets the latest pose
+     * @return The pose as of the latest update, which is at most one update period old
+     */
+    public Pose getLatest() {
+        return latest;
+    }
+
+    /**
+     * Gets the amount of updates (including heading resets) since the integrator was started
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * Stops updating the pose.  The latest pose can still be read afterward.
+     */
+    public void stop() {
+        executor.shutdownNow();
+    }
+}
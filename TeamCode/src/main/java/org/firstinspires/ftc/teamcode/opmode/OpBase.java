@@ -2,12 +2,13 @@ package org.firstinspires.ftc.teamcode.opmode;
 
 import com.acmerobotics.dashboard.FtcDashboard;
 import com.acmerobotics.dashboard.telemetry.MultipleTelemetry;
-import com.qualcomm.hardware.lynx.LynxModule;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.util.ElapsedTime;
 import com.qualcomm.robotcore.util.RobotLog;
+import org.firstinspires.ftc.teamcode.hardware.BulkReadCoordinator;
+import org.firstinspires.ftc.teamcode.hardware.ImuSampler;
 import org.firstinspires.ftc.teamcode.modules.core.ModuleManager;
-
-import java.util.List;
+import org.firstinspires.ftc.teamcode.modules.core.ModuleMetrics;
 
 public abstract class OpBase extends OpMode {
 
@@ -35,8 +36,7 @@ public abstract class OpBase extends OpMode {
      */
     public void initHardware() throws ExceptionInInitializerError {
         // Hubs
-        List<LynxModule> allHubs = hardwareMap.getAll(LynxModule.class);
-        allHubs.forEach((hub) -> hub.setBulkCachingMode(LynxModule.BulkCachingMode.AUTO));
+        BulkReadCoordinator.getInstance().attach(hardwareMap);
         telemetry.addLine("Lynx modules configured");
 
         // Motors
@@ -45,27 +45,34 @@ public abstract class OpBase extends OpMode {
         
         // Init Module classes
         moduleManager = new ModuleManager(this);
+        final ElapsedTime moduleInitTimer = new ElapsedTime();
         try {
             initModules();
         }
         catch (Throwable inner) {
             throw new ExceptionInInitializerError(inner);
         }
-        telemetry.addLine("Module classes created");
+        telemetry.addData("Module classes created in", "%.1f ms", moduleInitTimer.milliseconds());
+        moduleManager.logInitTimes();
 
         telemetry.addLine("Successfully initialized hardware!");
         telemetry.update();
     }
 
     /**
-     * When overridden by the child class, initializes all modules used by the OpMOde
+     * When overridden by the child class, initializes all modules used by the OpMOde.  Modules can be created
+     *  concurrently by passing all of them to {@link ModuleManager#loadModules(Class[])} before retrieving them.
      */
     protected abstract void initModules();
 
     @Override
     public void init() {
         resetRuntime(); // for thread stuff
-        telemetry = new MultipleTelemetry(telemetry, FtcDashboard.getInstance().getTelemetry());
+        ModuleMetrics.resetAll(); // only publish timings from this OpMode
+        final FtcDashboard dashboard = FtcDashboard.getInstance();
+        if (dashboard != null) { // the dashboard doesn't exist off the robot (i.e. in simulations)
+            telemetry = new MultipleTelemetry(telemetry, dashboard.getTelemetry());
+        }
         try {
             initHardware();
         }
@@ -88,6 +95,8 @@ public abstract class OpBase extends OpMode {
     public void stop() {
         super.stop();
         moduleManager.unloadAll();
+        ImuSampler.stopAll();
+        ModuleMetrics.publishAll();
         telemetry.addLine("Cleanup done!");
         telemetry.update();
     }
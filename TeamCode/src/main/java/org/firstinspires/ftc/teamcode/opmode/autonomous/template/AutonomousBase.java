@@ -35,6 +35,7 @@ public abstract class AutonomousBase extends OpBaseLinear {
 
     @Override
     protected void initModules() {
+        getModuleManager().loadModules(AprilTagLocator.class, PropDetector.class, Arm.class);
         aprilTagLocator = getModuleManager().getModule(AprilTagLocator.class);
         propDetector = getModuleManager().getModule(PropDetector.class);
         arm = getModuleManager().getModule(Arm.class);
@@ -72,12 +73,6 @@ public abstract class AutonomousBase extends OpBaseLinear {
         park();
     }
 
-    @Override
-    public void stop() {
-        super.stop();
-        aprilTagLocator.cleanupModule();
-    }
-
     /**
      * Called after methods that move the arm, before methods that move the robot.  Moves the arm and wrist so that the
      *  robot will be able to drive under the trusses without getting stuck
@@ -28,6 +28,13 @@ public final class TeleOpMain extends OpBase {
 
     @Override
     protected void initModules() {
+        getModuleManager().loadModules(
+                FieldCentricDriveTrain.class,
+                Arm.class,
+                ActiveIntake.class,
+                PlaneLauncher.class,
+                HangModule.class
+        );
         driveTrain = getModuleManager().getModule(FieldCentricDriveTrain.class);
         arm = getModuleManager().getModule(Arm.class);
         activeIntake = getModuleManager().getModule(ActiveIntake.class);
@@ -0,0 +1,142 @@
+package org.firstinspires.ftc.teamcode.opmode.test;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.util.ElapsedTime;
+import org.firstinspires.ftc.teamcode.hardware.BulkReadCoordinator;
+import org.firstinspires.ftc.teamcode.modules.Arm;
+import org.firstinspires.ftc.teamcode.modules.ArmGravityFeedforward;
+import org.firstinspires.ftc.teamcode.modules.core.ModuleManager;
+
+import java.io.IOException;
+
+/**
+ * Measures the power needed to hold the arm still at several rotations, and saves the measurements to
+ *  {@link ArmGravityFeedforward#SAMPLE_FILE} so that the arm uses them as its gravity feedforward.  For each rotation,
+ *  the arm is moved there, allowed to settle, and then the power its controller applies is averaged.
+ * <br />
+ * The gravity feedforward is turned off while measuring, so the controller's integral term has to do all the holding.
+ *  Raise the integral limit on the dashboard if the arm sags at any rotation.
+ */
+@TeleOp(group = "Tests")
+public class ArmGravityTuner extends LinearOpMode {
+    @Config("Arm Gravity Tuner")
+    public static class ArmGravityTunerConfig {
+        /**
+         * The rotations to measure at, in {@link Arm#ANGLE_UNIT}s, in increasing order.  These must be rotations that
+         *  {@link Arm#rotateArmTo(double)} accepts.
+         */
+        public static double[] ROTATIONS = { 10, 40, 70, 100, 130, 160, 190, 220 };
+
+        /**
+         * How far from its target the arm can be while it is considered settled, in encoder ticks
+         */
+        public static int SETTLED_TOLERANCE_TICKS = 10;
+
+        /**
+         * How long the arm needs to stay settled before measuring, in seconds
+         */
+        public static double SETTLE_SECONDS = 1.0;
+
+        /**
+         * How long the holding power is averaged over, in seconds
+         */
+        public static double MEASURE_SECONDS = 1.0;
+
+        /**
+         * How long to wait for the arm to settle before giving up on a rotation, in seconds
+         */
+        public static double TIMEOUT_SECONDS = 8.0;
+    }
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+        BulkReadCoordinator.getInstance().attach(hardwareMap);
+        final ModuleManager manager = new ModuleManager(this);
+        final Arm arm = manager.getModule(Arm.class);
+
+        telemetry.addLine("Press start to measure holding power at " + ArmGravityTunerConfig.ROTATIONS.length + " rotations");
+        telemetry.addLine("The arm will move on its own!  Press B to abort");
+        telemetry.update();
+        waitForStart();
+
+        final double previousGain = ArmGravityFeedforward.GAIN;
+        ArmGravityFeedforward.GAIN = 0;
+        arm.startThreads();
+
+        final double[] rotations = ArmGravityTunerConfig.ROTATIONS.clone();
+        final double[] powers = new double[rotations.length];
+        int measured = 0;
+        try {
+            for (; measured < rotations.length; measured++) {
+                final Double power = measureHoldingPower(arm, rotations[measured]);
+                if (power == null) {
+                    break;
+                }
+                powers[measured] = power;
+                telemetry.addData("Holding power at " + rotations[measured], "%.4f", power);
+                telemetry.update();
+            }
+        }
+        finally {
+            ArmGravityFeedforward.GAIN = previousGain;
+            arm.rotateArmTo(Arm.ArmPresets.IDLE);
+        }
+
+        if (measured == rotations.length) {
+            try {
+                ArmGravityFeedforward.saveSamples(ArmGravityFeedforward.SAMPLE_FILE, rotations, powers);
+                telemetry.addLine("Saved to " + ArmGravityFeedforward.SAMPLE_FILE + "; the arm will use them next init");
+            }
+            catch (IOException e) {
+                telemetry.addData("Could not save measurements", e.getMessage());
+            }
+        }
+        else {
+            telemetry.addLine("Measurement aborted; nothing was saved");
+        }
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            idle();
+        }
+        arm.cleanupModule();
+    }
+
+    /**
+     * Moves the arm to a rotation and measures the power needed to hold it there
+     * @param arm The arm
+     * @param rotation The rotation, in {@link Arm#ANGLE_UNIT}s
+     * @return The average holding power, or null if the measurement was aborted or the arm never settled
+     */
+    private Double measureHoldingPower(Arm arm, double rotation) {
+        arm.rotateArmTo(rotation);
+        final ElapsedTime timer = new ElapsedTime();
+        final ElapsedTime settledTimer = new ElapsedTime();
+        while (settledTimer.seconds() < ArmGravityTunerConfig.SETTLE_SECONDS) {
+            if (!opModeIsActive() || gamepad1.b || timer.seconds() > ArmGravityTunerConfig.TIMEOUT_SECONDS) {
+                return null;
+            }
+            if (Math.abs(arm.getArmMotorPosition() - arm.getArmMotorTarget()) > ArmGravityTunerConfig.SETTLED_TOLERANCE_TICKS) {
+                settledTimer.reset();
+            }
+            telemetry.addData("Settling at", rotation);
+            telemetry.addData("Error (ticks)", arm.getArmMotorPosition() - arm.getArmMotorTarget());
+            telemetry.update();
+        }
+
+        double totalPower = 0;
+        int samples = 0;
+        timer.reset();
+        while (timer.seconds() < ArmGravityTunerConfig.MEASURE_SECONDS) {
+            if (!opModeIsActive() || gamepad1.b) {
+                return null;
+            }
+            totalPower += arm.getArmPower();
+            samples++;
+            sleep(5);
+        }
+        return totalPower / samples;
+    }
+}
@@ -11,11 +11,12 @@ import com.acmerobotics.roadrunner.geometry.Pose2d;
 import com.acmerobotics.roadrunner.trajectory.Trajectory;
 import com.acmerobotics.roadrunner.trajectory.TrajectoryBuilder;
 import com.acmerobotics.roadrunner.trajectory.constraints.*;
-import com.qualcomm.hardware.lynx.LynxModule;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.*;
 import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.teamcode.hardware.BulkReadCoordinator;
+import org.firstinspires.ftc.teamcode.hardware.ImuSampler;
 import org.firstinspires.ftc.teamcode.modules.DriveTrain;
 import org.firstinspires.ftc.teamcode.modules.FieldCentricDriveTrain;
 import org.firstinspires.ftc.teamcode.roadrunner.trajectorysequence.TrajectorySequence;
@@ -56,7 +57,7 @@ public class SampleMecanumDrive extends MecanumDrive {
     private final DcMotorEx rightFront;
     private final List<DcMotorEx> motors;
 
-    private final IMU imu;
+    private final ImuSampler imuSampler;
     private final VoltageSensor batteryVoltageSensor;
 
     private final List<Integer> lastEncPositions = new ArrayList<>();
@@ -82,12 +83,11 @@ public class SampleMecanumDrive extends MecanumDrive {
 
         batteryVoltageSensor = hardwareMap.voltageSensor.iterator().next();
 
-        for (LynxModule module : hardwareMap.getAll(LynxModule.class)) {
-            module.setBulkCachingMode(LynxModule.BulkCachingMode.AUTO);
-        }
+        BulkReadCoordinator.getInstance().attach(hardwareMap);
 
-        imu = hardwareMap.get(IMU.class, FieldCentricDriveTrain.IMU_NAME);
+        final IMU imu = hardwareMap.get(IMU.class, FieldCentricDriveTrain.IMU_NAME);
         imu.initialize(FieldCentricDriveTrain.getImuParameters());
+        imuSampler = ImuSampler.getInstance(imu);
 
         leftFront = hardwareMap.get(DcMotorEx.class, DriveTrain.FRONT_LEFT_MECANUM_DRIVER_DEFAULT_NAME);
         leftRear = hardwareMap.get(DcMotorEx.class, DriveTrain.BACK_LEFT_MECANUM_DRIVER_DEFAULT_NAME);
@@ -186,6 +186,7 @@ public class SampleMecanumDrive extends MecanumDrive {
     }
 
     public void update() {
+        BulkReadCoordinator.getInstance().sync();
         updatePoseEstimate();
         DriveSignal signal = trajectorySequenceRunner.update(getPoseEstimate(), getPoseVelocity());
         if (signal != null) setDriveSignal(signal);
@@ -246,26 +247,41 @@ public class SampleMecanumDrive extends MecanumDrive {
     @NonNull
     @Override
     public List<Double> getWheelPositions() {
+        // the hubs are in manual bulk caching mode, so callers outside update() (i.e. the tuners) would read stale values
+        final BulkReadCoordinator coordinator = BulkReadCoordinator.getInstance();
         lastEncPositions.clear();
 
         List<Double> wheelPositions = new ArrayList<>();
-        for (DcMotorEx motor : motors) {
-            int position = motor.getCurrentPosition();
-            lastEncPositions.add(position);
-            wheelPositions.add(encoderTicksToInches(position));
+        coordinator.beginRead();
+        try {
+            for (DcMotorEx motor : motors) {
+                int position = motor.getCurrentPosition();
+                lastEncPositions.add(position);
+                wheelPositions.add(encoderTicksToInches(position));
+            }
+        }
+        finally {
+            coordinator.endRead();
         }
         return wheelPositions;
     }
 
     @Override
     public List<Double> getWheelVelocities() {
+        final BulkReadCoordinator coordinator = BulkReadCoordinator.getInstance();
         lastEncVels.clear();
 
         List<Double> wheelVelocities = new ArrayList<>();
-        for (DcMotorEx motor : motors) {
-            int vel = (int) motor.getVelocity();
-            lastEncVels.add(vel);
-            wheelVelocities.add(encoderTicksToInches(vel));
+        coordinator.beginRead();
+        try {
+            for (DcMotorEx motor : motors) {
+                int vel = (int) motor.getVelocity();
+                lastEncVels.add(vel);
+                wheelVelocities.add(encoderTicksToInches(vel));
+            }
+        }
+        finally {
+            coordinator.endRead();
         }
         return wheelVelocities;
     }
@@ -280,12 +296,12 @@ public class SampleMecanumDrive extends MecanumDrive {
 
     @Override
     public double getRawExternalHeading() {
-        return imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
+        return imuSampler.getLatest().getYaw(AngleUnit.RADIANS);
     }
 
     @Override
     public Double getExternalHeadingVelocity() {
-        return (double) imu.getRobotAngularVelocity(AngleUnit.RADIANS).zRotationRate;
+        return imuSampler.getLatest().getZRotationRate(AngleUnit.RADIANS);
     }
 
     public static TrajectoryVelocityConstraint getVelocityConstraint(double maxVel, double maxAngularVel, double trackWidth) {
@@ -7,6 +7,7 @@ import com.acmerobotics.roadrunner.geometry.Pose2d;
 import com.acmerobotics.roadrunner.localization.ThreeTrackingWheelLocalizer;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.HardwareMap;
+import org.firstinspires.ftc.teamcode.hardware.BulkReadCoordinator;
 import org.firstinspires.ftc.teamcode.roadrunner.util.Encoder;
 
 import java.util.Arrays;
@@ -65,9 +66,17 @@ public class StandardTrackingWheelLocalizer extends ThreeTrackingWheelLocalizer
     @NonNull
     @Override
     public List<Double> getWheelPositions() {
-        int leftPos = leftEncoder.getCurrentPosition();
-        int rightPos = rightEncoder.getCurrentPosition();
-        int frontPos = frontEncoder.getCurrentPosition();
+        final BulkReadCoordinator coordinator = BulkReadCoordinator.getInstance();
+        final int leftPos, rightPos, frontPos;
+        coordinator.beginRead();
+        try {
+            leftPos = leftEncoder.getCurrentPosition();
+            rightPos = rightEncoder.getCurrentPosition();
+            frontPos = frontEncoder.getCurrentPosition();
+        }
+        finally {
+            coordinator.endRead();
+        }
 
         lastEncPositions.clear();
         lastEncPositions.add(leftPos);
@@ -84,9 +93,17 @@ public class StandardTrackingWheelLocalizer extends ThreeTrackingWheelLocalizer
     @NonNull
     @Override
     public List<Double> getWheelVelocities() {
-        int leftVel = (int) leftEncoder.getCorrectedVelocity();
-        int rightVel = (int) rightEncoder.getCorrectedVelocity();
-        int frontVel = (int) frontEncoder.getCorrectedVelocity();
+        final BulkReadCoordinator coordinator = BulkReadCoordinator.getInstance();
+        final int leftVel, rightVel, frontVel;
+        coordinator.beginRead();
+        try {
+            leftVel = (int) leftEncoder.getCorrectedVelocity();
+            rightVel = (int) rightEncoder.getCorrectedVelocity();
+            frontVel = (int) frontEncoder.getCorrectedVelocity();
+        }
+        finally {
+            coordinator.endRead();
+        }
 
         lastEncVels.clear();
         lastEncVels.add(leftVel);
@@ -3,6 +3,8 @@ package org.firstinspires.ftc.teamcode.roadrunner.trajectorysequence;
 import com.acmerobotics.roadrunner.geometry.Pose2d;
 
 import org.firstinspires.ftc.teamcode.roadrunner.trajectorysequence.sequencesegment.SequenceSegment;
+import org.firstinspires.ftc.teamcode.roadrunner.trajectorysequence.sequencesegment.TrajectorySegment;
+import org.firstinspires.ftc.teamcode.roadrunner.util.DashboardUtil;
 
 import java.util.Collections;
 import java.util.List;
@@ -10,6 +12,12 @@ import java.util.List;
 public class TrajectorySequence {
     private final List<SequenceSegment> sequenceList;
 
+    /**
+     * Each segment's path sampled for drawing, or null until {@link #samplePaths()} is called.  Entries for segments
+     *  that aren't {@link TrajectorySegment}s are null.
+     */
+    private volatile double[][][] sampledPaths;
+
     public TrajectorySequence(List<SequenceSegment> sequenceList) {
         if (sequenceList.size() == 0) throw new EmptySequenceException();
 
@@ -41,4 +49,34 @@ public class TrajectorySequence {
     public int size() {
         return sequenceList.size();
     }
+
+    /**
+     * Samples every trajectory segment's path for drawing, if it hasn't been done yet.  Sampling evaluates the path
+     *  hundreds of times, so it is done once rather than every time the sequence is drawn.
+     */
+    public void samplePaths() {
+        if (sampledPaths != null) {
+            return;
+        }
+        final double[][][] paths = new double[sequenceList.size()][][];
+        for (int i = 0; i < paths.length; i++) {
+            final SequenceSegment segment = sequenceList.get(i);
+            if (segment instanceof TrajectorySegment) {
+                paths[i] = DashboardUtil.samplePath(((TrajectorySegment) segment).getTrajectory().getPath());
+            }
+        }
+        sampledPaths = paths;
+    }
+
+    /**
+     * Gets a trajectory segment's sampled path
+     * @param i The index of the segment
+     * @return The x coordinates at index 0 and the y coordinates at index 1.  These are shared, so they must not be
+     *  modified.
+     * @see DashboardUtil#samplePath(com.acmerobotics.roadrunner.path.Path)
+     */
+    public double[][] getSampledPath(int i) {
+        samplePaths();
+        return sampledPaths[i];
+    }
 }
@@ -1,5 +1,7 @@
 package org.firstinspires.ftc.teamcode.roadrunner.trajectorysequence;
 
+import android.content.Context;
+
 import androidx.annotation.Nullable;
 
 import com.acmerobotics.dashboard.FtcDashboard;
@@ -15,8 +17,15 @@ import com.acmerobotics.roadrunner.profile.MotionState;
 import com.acmerobotics.roadrunner.trajectory.Trajectory;
 import com.acmerobotics.roadrunner.trajectory.TrajectoryMarker;
 import com.acmerobotics.roadrunner.util.NanoClock;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerImpl;
+import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerNotifier;
 import com.qualcomm.robotcore.hardware.VoltageSensor;
+import com.qualcomm.robotcore.util.WebHandlerManager;
 
+import org.firstinspires.ftc.ftccommon.external.WebHandlerRegistrar;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.teamcode.modules.core.DashboardPublisher;
 import org.firstinspires.ftc.teamcode.roadrunner.drive.DriveConstants;
 import org.firstinspires.ftc.teamcode.roadrunner.trajectorysequence.sequencesegment.SequenceSegment;
 import org.firstinspires.ftc.teamcode.roadrunner.trajectorysequence.sequencesegment.TrajectorySegment;
@@ -42,6 +51,69 @@ public class TrajectorySequenceRunner {
 
     public static int POSE_HISTORY_LIMIT = 100;
 
+    /**
+     * What {@link #update(Pose2d, Pose2d)} shows on the dashboard.  The control loop fills one in every update, and the
+     *  {@link DashboardPublisher} draws the latest one on its own thread.
+     */
+    private static final class DashboardSnapshot {
+        private Pose2d poseEstimate;
+        private Pose2d targetPose;
+        private Pose2d poseError;
+        private TrajectorySequence sequence;
+        private SequenceSegment currentSegment;
+        private int currentSegmentIndex;
+        private Pose2d[] poseHistory = new Pose2d[0];
+        private int poseHistoryCount;
+    }
+
+    /**
+     * Shared by every runner, since only one follows trajectories at a time.  Created with the first runner of each
+     *  OpMode, and stopped by {@link #stopPublisherOnOpModeStop} when the OpMode stops.
+     */
+    private static DashboardPublisher<DashboardSnapshot> dashboardPublisher;
+
+    private static final OpModeManagerNotifier.Notifications stopPublisherOnOpModeStop =
+            new OpModeManagerNotifier.Notifications() {
+        @Override
+        public void onOpModePreInit(OpMode opMode) {}
+
+        @Override
+        public void onOpModePreStart(OpMode opMode) {}
+
+        @Override
+        public void onOpModePostStop(OpMode opMode) {
+            stopDashboardPublisher();
+        }
+    };
+
+    /**
+     * Registers {@link #stopPublisherOnOpModeStop} when the robot controller app starts
+     * @implNote The OpMode manager only keeps a weak reference to its listeners, so the listener is kept in a static
+     *  field.  This is registered the same way as {@link LogFiles}.
+     */
+    @WebHandlerRegistrar
+    public static void registerStopListener(Context context, WebHandlerManager manager) {
+        OpModeManagerImpl.getOpModeManagerOfActivity(
+                AppUtil.getInstance().getActivity()
+        ).registerListener(stopPublisherOnOpModeStop);
+    }
+
+    /**
+     * Stops the dashboard publisher's thread, if it is running.  The next runner creates a new one.
+     */
+    public static synchronized void stopDashboardPublisher() {
+        if (dashboardPublisher != null) {
+            dashboardPublisher.stop();
+            dashboardPublisher = null;
+        }
+    }
+
+    /**
+     * The shared publisher when this runner was created.  Kept so that {@link #update(Pose2d, Pose2d)} never sees
+     *  {@link #dashboardPublisher} change or become null; publishing to a stopped publisher is harmless.
+     */
+    private final DashboardPublisher<DashboardSnapshot> publisher;
+
     private final TrajectoryFollower follower;
 
     private final PIDFController turnController;
@@ -57,7 +129,6 @@ public class TrajectorySequenceRunner {
 
     List<TrajectoryMarker> remainingMarkers = new ArrayList<>();
 
-    private final FtcDashboard dashboard;
     private final LinkedList<Pose2d> poseHistory = new LinkedList<>();
 
     private final VoltageSensor voltageSensor;
@@ -85,11 +156,19 @@ public class TrajectorySequenceRunner {
 
         clock = NanoClock.system();
 
-        dashboard = FtcDashboard.getInstance();
-        dashboard.setTelemetryTransmissionInterval(25);
+        FtcDashboard.getInstance().setTelemetryTransmissionInterval(25);
+        synchronized (TrajectorySequenceRunner.class) {
+            if (dashboardPublisher == null) {
+                dashboardPublisher = new DashboardPublisher<>("Trajectory Sequence Dashboard", DashboardSnapshot::new,
+                        TrajectorySequenceRunner::render);
+            }
+            publisher = dashboardPublisher;
+        }
     }
 
     public void followTrajectorySequenceAsync(TrajectorySequence trajectorySequence) {
+        // sample the paths now, so update() only has to reference them when drawing
+        trajectorySequence.samplePaths();
         currentTrajectorySequence = trajectorySequence;
         currentSegmentStartTime = clock.seconds();
         currentSegmentIndex = 0;
@@ -101,10 +180,8 @@ public class TrajectorySequenceRunner {
         Pose2d targetPose = null;
         DriveSignal driveSignal = null;
 
-        TelemetryPacket packet = new TelemetryPacket();
-        Canvas fieldOverlay = packet.fieldOverlay();
-
         SequenceSegment currentSegment = null;
+        int drawnSegmentIndex = -1;
 
         if (currentTrajectorySequence != null) {
             if (currentSegmentIndex >= currentTrajectorySequence.size()) {
@@ -124,6 +201,7 @@ public class TrajectorySequenceRunner {
             boolean isNewTransition = currentSegmentIndex != lastSegmentIndex;
 
             currentSegment = currentTrajectorySequence.get(currentSegmentIndex);
+            drawnSegmentIndex = currentSegmentIndex;
 
             if (isNewTransition) {
                 currentSegmentStartTime = now;
@@ -220,25 +298,45 @@ public class TrajectorySequenceRunner {
             );
         }
 
+        // only references are copied here; building and sending the packet happens on the publisher's thread
+        DashboardSnapshot snapshot = publisher.getSnapshot();
+        snapshot.poseEstimate = poseEstimate;
+        snapshot.targetPose = targetPose;
+        snapshot.poseError = getLastPoseError();
+        snapshot.sequence = currentTrajectorySequence;
+        snapshot.currentSegment = currentSegment;
+        snapshot.currentSegmentIndex = drawnSegmentIndex;
+        if (snapshot.poseHistory.length < poseHistory.size()) {
+            snapshot.poseHistory = new Pose2d[poseHistory.size()];
+        }
+        int historyCount = 0;
+        for (Pose2d pose : poseHistory) {
+            snapshot.poseHistory[historyCount++] = pose;
+        }
+        snapshot.poseHistoryCount = historyCount;
+        publisher.publish();
+
+        return driveSignal;
+    }
+
+    private static void render(DashboardSnapshot snapshot, TelemetryPacket packet) {
+        Pose2d poseEstimate = snapshot.poseEstimate;
         packet.put("x", poseEstimate.getX());
         packet.put("y", poseEstimate.getY());
         packet.put("heading (deg)", Math.toDegrees(poseEstimate.getHeading()));
 
-        packet.put("xError", getLastPoseError().getX());
-        packet.put("yError", getLastPoseError().getY());
-        packet.put("headingError (deg)", Math.toDegrees(getLastPoseError().getHeading()));
-
-        draw(fieldOverlay, currentTrajectorySequence, currentSegment, targetPose, poseEstimate);
-
-        dashboard.sendTelemetryPacket(packet);
+        packet.put("xError", snapshot.poseError.getX());
+        packet.put("yError", snapshot.poseError.getY());
+        packet.put("headingError (deg)", Math.toDegrees(snapshot.poseError.getHeading()));
 
-        return driveSignal;
+        draw(packet.fieldOverlay(), snapshot.sequence, snapshot.currentSegment, snapshot.currentSegmentIndex,
+                snapshot.targetPose, snapshot.poseEstimate, snapshot.poseHistory, snapshot.poseHistoryCount);
     }
 
-    private void draw(
+    private static void draw(
             Canvas fieldOverlay,
-            TrajectorySequence sequence, SequenceSegment currentSegment,
-            Pose2d targetPose, Pose2d poseEstimate
+            TrajectorySequence sequence, SequenceSegment currentSegment, int currentSegmentIndex,
+            Pose2d targetPose, Pose2d poseEstimate, Pose2d[] poseHistory, int poseHistoryCount
     ) {
         if (sequence != null) {
             for (int i = 0; i < sequence.size(); i++) {
@@ -248,7 +346,8 @@ public class TrajectorySequenceRunner {
                     fieldOverlay.setStrokeWidth(1);
                     fieldOverlay.setStroke(COLOR_INACTIVE_TRAJECTORY);
 
-                    DashboardUtil.drawSampledPath(fieldOverlay, ((TrajectorySegment) segment).getTrajectory().getPath());
+                    double[][] path = sequence.getSampledPath(i);
+                    fieldOverlay.strokePolyline(path[0], path[1]);
                 } else if (segment instanceof TurnSegment) {
                     Pose2d pose = segment.getStartPose();
 
@@ -266,12 +365,11 @@ public class TrajectorySequenceRunner {
 
         if (currentSegment != null) {
             if (currentSegment instanceof TrajectorySegment) {
-                Trajectory currentTrajectory = ((TrajectorySegment) currentSegment).getTrajectory();
-
                 fieldOverlay.setStrokeWidth(1);
                 fieldOverlay.setStroke(COLOR_ACTIVE_TRAJECTORY);
 
-                DashboardUtil.drawSampledPath(fieldOverlay, currentTrajectory.getPath());
+                double[][] path = sequence.getSampledPath(currentSegmentIndex);
+                fieldOverlay.strokePolyline(path[0], path[1]);
             } else if (currentSegment instanceof TurnSegment) {
                 Pose2d pose = currentSegment.getStartPose();
 
@@ -293,7 +391,7 @@ public class TrajectorySequenceRunner {
         }
 
         fieldOverlay.setStroke("#3F51B5");
-        DashboardUtil.drawPoseHistory(fieldOverlay, poseHistory);
+        DashboardUtil.drawPoseHistory(fieldOverlay, poseHistory, poseHistoryCount);
 
         fieldOverlay.setStroke("#3F51B5");
         DashboardUtil.drawRobot(fieldOverlay, poseEstimate);
@@ -26,7 +26,23 @@ public class DashboardUtil {
         canvas.strokePolyline(xPoints, yPoints);
     }
 
-    public static void drawSampledPath(Canvas canvas, Path path, double resolution) {
+    public static void drawPoseHistory(Canvas canvas, Pose2d[] poseHistory, int count) {
+        double[] xPoints = new double[count];
+        double[] yPoints = new double[count];
+        for (int i = 0; i < count; i++) {
+            xPoints[i] = poseHistory[i].getX();
+            yPoints[i] = poseHistory[i].getY();
+        }
+        canvas.strokePolyline(xPoints, yPoints);
+    }
+
+    /**
+     * Samples points along a path, evenly spaced by displacement
+     * @param path The path to sample
+     * @param resolution The distance between samples
+     * @return The x coordinates at index 0 and the y coordinates at index 1, ready for {@link Canvas#strokePolyline}
+     */
+    public static double[][] samplePath(Path path, double resolution) {
         int samples = (int) Math.ceil(path.length() / resolution);
         double[] xPoints = new double[samples];
         double[] yPoints = new double[samples];
@@ -37,7 +53,16 @@ public class DashboardUtil {
             xPoints[i] = pose.getX();
             yPoints[i] = pose.getY();
         }
-        canvas.strokePolyline(xPoints, yPoints);
+        return new double[][] { xPoints, yPoints };
+    }
+
+    public static double[][] samplePath(Path path) {
+        return samplePath(path, DEFAULT_RESOLUTION);
+    }
+
+    public static void drawSampledPath(Canvas canvas, Path path, double resolution) {
+        double[][] points = samplePath(path, resolution);
+        canvas.strokePolyline(points[0], points[1]);
     }
 
     public static void drawSampledPath(Canvas canvas, Path path) {
@@ -26,7 +26,6 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -38,6 +37,19 @@ public final class LogFiles {
     private static final File ROOT =
             new File(AppUtil.ROOT_FOLDER + "/RoadRunner/logs/");
 
+    /**
+     * How long samples are recorded for after the op mode starts
+     */
+    private static final long MAX_RECORDING_NS = 3 * 60 * 1_000_000_000L;
+
+    /**
+     * The fastest follower loop the columns are sized for.  Samples recorded faster than this on average are dropped
+     *  once the columns fill up, before the three minutes are over.
+     */
+    private static final int MAX_SAMPLE_HZ = 200;
+
+    private static final int MAX_SAMPLES = (int) (MAX_RECORDING_NS / 1_000_000_000L) * MAX_SAMPLE_HZ;
+
     public static LogFile log = new LogFile("uninitialized");
 
     public static class LogFile {
@@ -93,74 +105,164 @@ public final class LogFiles {
         public RevHubOrientationOnRobot.LogoFacingDirection LOGO_FACING_DIR = DriveConstants.LOGO_FACING_DIR;
         public RevHubOrientationOnRobot.UsbFacingDirection USB_FACING_DIR = DriveConstants.USB_FACING_DIR;
 
-        public List<Long> nsTimes = new ArrayList<>();
+        // samples are stored in preallocated primitive columns, so recording doesn't box or allocate in the follower
+        //  loop.  The getters below trim them when the log is exported, giving the same JSON as lists would.
+        private int sampleCount;
+
+        private long[] nsTimes;
 
-        public List<Double> targetXs = new ArrayList<>();
-        public List<Double> targetYs = new ArrayList<>();
-        public List<Double> targetHeadings = new ArrayList<>();
+        private double[] targetXs;
+        private double[] targetYs;
+        private double[] targetHeadings;
 
-        public List<Double> xs = new ArrayList<>();
-        public List<Double> ys = new ArrayList<>();
-        public List<Double> headings = new ArrayList<>();
+        private double[] xs;
+        private double[] ys;
+        private double[] headings;
 
-        public List<Double> voltages = new ArrayList<>();
+        private double[] voltages;
 
-        public List<List<Integer>> driveEncPositions = new ArrayList<>();
-        public List<List<Integer>> driveEncVels = new ArrayList<>();
-        public List<List<Integer>> trackingEncPositions = new ArrayList<>();
-        public List<List<Integer>> trackingEncVels = new ArrayList<>();
+        private int[][] driveEncPositions = new int[0][];
+        private int[][] driveEncVels = new int[0][];
+        private int[][] trackingEncPositions = new int[0][];
+        private int[][] trackingEncVels = new int[0][];
 
         public LogFile(String opModeName) {
             this.opModeName = opModeName;
         }
-    }
 
-    public static void record(
-            Pose2d targetPose, Pose2d pose, double voltage,
-            List<Integer> lastDriveEncPositions, List<Integer> lastDriveEncVels, List<Integer> lastTrackingEncPositions, List<Integer> lastTrackingEncVels
-    ) {
-        long nsTime = System.nanoTime();
-        if (nsTime - log.nsStart > 3 * 60 * 1_000_000_000L) {
-            return;
+        /**
+         * Allocates the columns for a full recording.  This is done on the first sample instead of in the constructor,
+         *  since a log file is created for every op mode, even ones that never record anything.
+         */
+        private void allocate() {
+            nsTimes = new long[MAX_SAMPLES];
+            targetXs = new double[MAX_SAMPLES];
+            targetYs = new double[MAX_SAMPLES];
+            targetHeadings = new double[MAX_SAMPLES];
+            xs = new double[MAX_SAMPLES];
+            ys = new double[MAX_SAMPLES];
+            headings = new double[MAX_SAMPLES];
+            voltages = new double[MAX_SAMPLES];
+        }
+
+        /**
+         * Makes sure a group of encoder columns has at least the given amount of channels.  Channels added after
+         *  recording started read as 0 for the earlier samples.
+         */
+        private static int[][] ensureChannels(int[][] columns, int channels) {
+            if (columns.length >= channels) {
+                return columns;
+            }
+            final int[][] grown = Arrays.copyOf(columns, channels);
+            for (int i = columns.length; i < channels; i++) {
+                grown[i] = new int[MAX_SAMPLES];
+            }
+            return grown;
+        }
+
+        private static void recordChannels(int[][] columns, List<Integer> values, int sample) {
+            for (int i = 0; i < values.size(); i++) {
+                columns[i][sample] = values.get(i);
+            }
+        }
+
+        private static int[][] trim(int[][] columns, int samples) {
+            final int[][] trimmed = new int[columns.length][];
+            for (int i = 0; i < columns.length; i++) {
+                trimmed[i] = Arrays.copyOf(columns[i], samples);
+            }
+            return trimmed;
+        }
+
+        private double[] trim(double[] column) {
+            return column == null ? new double[0] : Arrays.copyOf(column, sampleCount);
+        }
+
+        public long[] getNsTimes() {
+            return nsTimes == null ? new long[0] : Arrays.copyOf(nsTimes, sampleCount);
         }
 
-        log.nsTimes.add(nsTime);
+        public double[] getTargetXs() {
+            return trim(targetXs);
+        }
 
-        log.targetXs.add(targetPose.getX());
-        log.targetYs.add(targetPose.getY());
-        log.targetHeadings.add(targetPose.getHeading());
+        public double[] getTargetYs() {
+            return trim(targetYs);
+        }
 
-        log.xs.add(pose.getX());
-        log.ys.add(pose.getY());
-        log.headings.add(pose.getHeading());
+        public double[] getTargetHeadings() {
+            return trim(targetHeadings);
+        }
 
-        log.voltages.add(voltage);
+        public double[] getXs() {
+            return trim(xs);
+        }
 
-        while (log.driveEncPositions.size() < lastDriveEncPositions.size()) {
-            log.driveEncPositions.add(new ArrayList<>());
+        public double[] getYs() {
+            return trim(ys);
         }
-        while (log.driveEncVels.size() < lastDriveEncVels.size()) {
-            log.driveEncVels.add(new ArrayList<>());
+
+        public double[] getHeadings() {
+            return trim(headings);
         }
-        while (log.trackingEncPositions.size() < lastTrackingEncPositions.size()) {
-            log.trackingEncPositions.add(new ArrayList<>());
+
+        public double[] getVoltages() {
+            return trim(voltages);
         }
-        while (log.trackingEncVels.size() < lastTrackingEncVels.size()) {
-            log.trackingEncVels.add(new ArrayList<>());
+
+        public int[][] getDriveEncPositions() {
+            return trim(driveEncPositions, sampleCount);
         }
 
-        for (int i = 0; i < lastDriveEncPositions.size(); i++) {
-            log.driveEncPositions.get(i).add(lastDriveEncPositions.get(i));
+        public int[][] getDriveEncVels() {
+            return trim(driveEncVels, sampleCount);
         }
-        for (int i = 0; i < lastDriveEncVels.size(); i++) {
-            log.driveEncVels.get(i).add(lastDriveEncVels.get(i));
+
+        public int[][] getTrackingEncPositions() {
+            return trim(trackingEncPositions, sampleCount);
         }
-        for (int i = 0; i < lastTrackingEncPositions.size(); i++) {
-            log.trackingEncPositions.get(i).add(lastTrackingEncPositions.get(i));
+
+        public int[][] getTrackingEncVels() {
+            return trim(trackingEncVels, sampleCount);
         }
-        for (int i = 0; i < lastTrackingEncVels.size(); i++) {
-            log.trackingEncVels.get(i).add(lastTrackingEncVels.get(i));
+    }
+
+    public static void record(
+            Pose2d targetPose, Pose2d pose, double voltage,
+            List<Integer> lastDriveEncPositions, List<Integer> lastDriveEncVels, List<Integer> lastTrackingEncPositions, List<Integer> lastTrackingEncVels
+    ) {
+        long nsTime = System.nanoTime();
+        if (nsTime - log.nsStart > MAX_RECORDING_NS || log.sampleCount >= MAX_SAMPLES) {
+            return;
+        }
+
+        if (log.nsTimes == null) {
+            log.allocate();
         }
+        log.driveEncPositions = LogFile.ensureChannels(log.driveEncPositions, lastDriveEncPositions.size());
+        log.driveEncVels = LogFile.ensureChannels(log.driveEncVels, lastDriveEncVels.size());
+        log.trackingEncPositions = LogFile.ensureChannels(log.trackingEncPositions, lastTrackingEncPositions.size());
+        log.trackingEncVels = LogFile.ensureChannels(log.trackingEncVels, lastTrackingEncVels.size());
+
+        final int sample = log.sampleCount;
+        log.nsTimes[sample] = nsTime;
+
+        log.targetXs[sample] = targetPose.getX();
+        log.targetYs[sample] = targetPose.getY();
+        log.targetHeadings[sample] = targetPose.getHeading();
+
+        log.xs[sample] = pose.getX();
+        log.ys[sample] = pose.getY();
+        log.headings[sample] = pose.getHeading();
+
+        log.voltages[sample] = voltage;
+
+        LogFile.recordChannels(log.driveEncPositions, lastDriveEncPositions, sample);
+        LogFile.recordChannels(log.driveEncVels, lastDriveEncVels, sample);
+        LogFile.recordChannels(log.trackingEncPositions, lastTrackingEncPositions, sample);
+        LogFile.recordChannels(log.trackingEncVels, lastTrackingEncVels, sample);
+
+        log.sampleCount = sample + 1;
     }
 
     private static final OpModeManagerNotifier.Notifications notifHandler = new OpModeManagerNotifier.Notifications() {
@@ -0,0 +1,188 @@
+package org.firstinspires.ftc.teamcode.util;
+
+/**
+ * A time-parameterized move from one position to another that accelerates at a constant rate up to a maximum velocity,
+ *  cruises, then decelerates at the same rate to a stop.  Short moves never reach the maximum velocity, so their
+ *  velocity graph is a triangle instead of a trapezoid.
+ * <br />
+ * Profiles are mutable so that one instance can be re-planned every time the target changes; neither planning nor
+ *  sampling a profile allocates anything.
+ */
+public final class TrapezoidalProfile {
+    private double start;
+    private double end;
+
+    /**
+     * 1 if the profile moves in the positive direction, otherwise -1
+     */
+    private double direction;
+
+    private double maxVelocity;
+    private double maxAcceleration;
+
+    /**
+     * The highest velocity reached during the profile, which is less than the maximum velocity for short moves
+     */
+    private double peakVelocity;
+
+    /**
+     * The time spent accelerating (and decelerating), in seconds
+     */
+    private double accelerationTime;
+
+    /**
+     * The time spent at the peak velocity, in seconds
+     */
+    private double cruiseTime;
+
+    /**
+     * Creates a profile that stays at 0
+     */
+    public TrapezoidalProfile() {
+        hold(0);
+    }
+
+    /**
+     * Plans a move between two positions
+     * @param start The position at the start of the profile
+     * @param end The position at the end of the profile
+     * @param maxVelocity The maximum speed, in position units per second
+     * @param maxAcceleration The maximum acceleration, in position units per second squared
+     * @return This profile, for chaining
+     * @throws IllegalArgumentException The velocity or acceleration is not positive
+     */
+    public TrapezoidalProfile plan(double start, double end, double maxVelocity, double maxAcceleration) {
+        if (!(maxVelocity > 0) || !(maxAcceleration > 0)) {
+            throw new IllegalArgumentException("Motion profile constraints must be positive (got velocity "
+                    + maxVelocity + ", acceleration " + maxAcceleration + ")");
+        }
+        this.start = start;
+        this.end = end;
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        direction = end >= start ? 1 : -1;
+
+        final double distance = Math.abs(end - start);
+        if (distance * maxAcceleration >= maxVelocity * maxVelocity) {
+            // long enough to reach full speed (accelerating to it and back down covers v^2 / a)
+            peakVelocity = maxVelocity;
+            accelerationTime = maxVelocity / maxAcceleration;
+            cruiseTime = (distance - maxVelocity * accelerationTime) / maxVelocity;
+        }
+        else {
+            peakVelocity = Math.sqrt(distance * maxAcceleration);
+            accelerationTime = peakVelocity / maxAcceleration;
+            cruiseTime = 0;
+        }
+        return this;
+    }
+
+    /**
+     * Makes this a profile that stays at one position
+     * @param position The position to stay at
+     * @return This profile, for chaining
+     */
+    public TrapezoidalProfile hold(double position) {
+        start = position;
+        end = position;
+        direction = 1;
+        maxVelocity = 0;
+        maxAcceleration = 0;
+        peakVelocity = 0;
+        accelerationTime = 0;
+        cruiseTime = 0;
+        return this;
+    }
+
+    /**
+     * Makes this profile a copy of another
+     * @param other The profile to copy
+     * @return This profile, for chaining
+     */
+    public TrapezoidalProfile set(TrapezoidalProfile other) {
+        start = other.start;
+        end = other.end;
+        direction = other.direction;
+        maxVelocity = other.maxVelocity;
+        maxAcceleration = other.maxAcceleration;
+        peakVelocity = other.peakVelocity;
+        accelerationTime = other.accelerationTime;
+        cruiseTime = other.cruiseTime;
+        return this;
+    }
+
+    /**
+     * Gets the position the profile is at after the given amount of time
+     * @param t The time since the start of the profile, in seconds
+     * @return The position.  Before the profile starts, this is the start position; after it ends, this is the end
+     *  position.
+     */
+    public double getPosition(double t) {
+        if (t <= 0) {
+            return start;
+        }
+        if (t >= getDuration()) {
+            return end;
+        }
+        final double acceleration = direction * maxAcceleration;
+        if (t < accelerationTime) {
+            return start + 0.5 * acceleration * t * t;
+        }
+        final double accelerationDistance = 0.5 * peakVelocity * accelerationTime;
+        if (t < accelerationTime + cruiseTime) {
+            return start + direction * (accelerationDistance + peakVelocity * (t - accelerationTime));
+        }
+        final double timeLeft = getDuration() - t;
+        return end - 0.5 * acceleration * timeLeft * timeLeft;
+    }
+
+    /**
+     * Gets the velocity the profile has after the given amount of time
+     * @param t The time since the start of the profile, in seconds
+     * @return The velocity, in position units per second
+     */
+    public double getVelocity(double t) {
+        if (t <= 0 || t >= getDuration()) {
+            return 0;
+        }
+        if (t < accelerationTime) {
+            return direction * maxAcceleration * t;
+        }
+        if (t < accelerationTime + cruiseTime) {
+            return direction * peakVelocity;
+        }
+        return direction * maxAcceleration * (getDuration() - t);
+    }
+
+    /**
+     * Gets how long the profile takes to reach its end position
+     * @return The duration, in seconds
+     */
+    public double getDuration() {
+        return 2 * accelerationTime + cruiseTime;
+    }
+
+    /**
+     * Has the profile reached its end position after the given amount of time?
+     * @param t The time since the start of the profile, in seconds
+     */
+    public boolean isFinished(double t) {
+        return t >= getDuration();
+    }
+
+    public double getStart() {
+        return start;
+    }
+
+    public double getEnd() {
+        return end;
+    }
+
+    public double getMaxVelocity() {
+        return maxVelocity;
+    }
+
+    public double getMaxAcceleration() {
+        return maxAcceleration;
+    }
+}
@@ -0,0 +1,71 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stands in for the hub bus shared by every device on a {@link SimHardwareMap}.  Every simulated call that would be a
+ *  Lynx command on a real robot goes through {@link #transact()}, which counts it and waits for the simulated latency.
+ *  The bus is also the simulation's clock.
+ */
+public final class SimBus {
+    /**
+     * The time the bus was created, in nanoseconds
+     * @see System#nanoTime()
+     */
+    private final long startNanos = System.nanoTime();
+
+    private volatile long latencyNanos;
+
+    private final AtomicLong transactionCount = new AtomicLong();
+
+    /**
+     * Sets how long every transaction takes.  A real Control Hub takes around 2-3 ms per command.
+     * @param latencyNanos The latency, in nanoseconds
+     */
+    public void setLatencyNanos(long latencyNanos) {
+        if (latencyNanos < 0) {
+            throw new IllegalArgumentException("Latency cannot be negative");
+        }
+        this.latencyNanos = latencyNanos;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * Simulates a single command round trip
+     */
+    public void transact() {
+        transactionCount.incrementAndGet();
+        final long latency = latencyNanos;
+        if (latency == 0) {
+            return;
+        }
+        // busy-wait, since sleeping isn't precise enough for latencies this small.  This also keeps the calling thread
+        //  busy like a real (blocking) bus call would
+        final long end = System.nanoTime() + latency;
+        while (System.nanoTime() < end) {
+            // wait
+        }
+    }
+
+    /**
+     * Gets the amount of transactions since the bus was created, or since {@link #resetTransactionCount()} was called
+     */
+    public long getTransactionCount() {
+        return transactionCount.get();
+    }
+
+    public void resetTransactionCount() {
+        transactionCount.set(0);
+    }
+
+    /**
+     * Gets the current simulation time
+     * @return The time since the bus was created, in seconds
+     */
+    public double getElapsedSeconds() {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+}
@@ -0,0 +1,144 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.ColorRangeSensor;
+import com.qualcomm.robotcore.hardware.I2cAddr;
+import com.qualcomm.robotcore.hardware.NormalizedRGBA;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+/**
+ * A simulated color/distance sensor.  Each color channel reads from 0 to 255.
+ */
+public final class SimColorRangeSensor extends SimDevice implements ColorRangeSensor {
+    private static final double MAX_CHANNEL_VALUE = 255;
+
+    private volatile SimSignal red = SimSignal.constant(0);
+    private volatile SimSignal green = SimSignal.constant(0);
+    private volatile SimSignal blue = SimSignal.constant(0);
+    private volatile SimSignal alpha = SimSignal.constant(0);
+
+    /**
+     * The distance to the nearest object, in millimeters
+     */
+    private volatile SimSignal distanceMm = SimSignal.constant(DistanceUnit.infinity);
+
+    private volatile float gain = 1;
+    private volatile I2cAddr address = I2cAddr.create7bit(0x52);
+
+    SimColorRangeSensor(SimBus bus, String name) {
+        super(bus, name);
+    }
+
+    /**
+     * Sets what the sensor sees
+     * @param red The red channel
+     * @param green The green channel
+     * @param blue The blue channel
+     * @param alpha The overall brightness
+     */
+    public void setColorSignals(SimSignal red, SimSignal green, SimSignal blue, SimSignal alpha) {
+        this.red = red;
+        this.green = green;
+        this.blue = blue;
+        this.alpha = alpha;
+    }
+
+    /**
+     * Sets the distance the sensor reads
+     * @param distanceMm The distance to the nearest object, in millimeters
+     */
+    public void setDistanceSignal(SimSignal distanceMm) {
+        this.distanceMm = distanceMm;
+    }
+
+    private int readChannel(SimSignal channel) {
+        bus.transact();
+        final double value = channel.valueAt(bus.getElapsedSeconds());
+        return (int) Math.round(Math.max(0, Math.min(MAX_CHANNEL_VALUE, value)));
+    }
+
+    @Override
+    public int red() {
+        return readChannel(red);
+    }
+
+    @Override
+    public int green() {
+        return readChannel(green);
+    }
+
+    @Override
+    public int blue() {
+        return readChannel(blue);
+    }
+
+    @Override
+    public int alpha() {
+        return readChannel(alpha);
+    }
+
+    @Override
+    public int argb() {
+        return (alpha() << 24) | (red() << 16) | (green() << 8) | blue();
+    }
+
+    @Override
+    public NormalizedRGBA getNormalizedColors() {
+        final NormalizedRGBA colors = new NormalizedRGBA();
+        colors.red = (float) Math.min(1, red() * gain / MAX_CHANNEL_VALUE);
+        colors.green = (float) Math.min(1, green() * gain / MAX_CHANNEL_VALUE);
+        colors.blue = (float) Math.min(1, blue() * gain / MAX_CHANNEL_VALUE);
+        colors.alpha = (float) Math.min(1, alpha() * gain / MAX_CHANNEL_VALUE);
+        return colors;
+    }
+
+    @Override
+    public float getGain() {
+        return gain;
+    }
+
+    @Override
+    public void setGain(float newGain) {
+        gain = newGain;
+    }
+
+    @Override
+    public double getDistance(DistanceUnit unit) {
+        bus.transact();
+        return unit.fromUnit(DistanceUnit.MM, distanceMm.valueAt(bus.getElapsedSeconds()));
+    }
+
+    @Override
+    public double getLightDetected() {
+        return alpha() / MAX_CHANNEL_VALUE;
+    }
+
+    @Override
+    public double getRawLightDetected() {
+        return alpha();
+    }
+
+    @Override
+    public double getRawLightDetectedMax() {
+        return MAX_CHANNEL_VALUE;
+    }
+
+    @Override
+    public void enableLed(boolean enable) {
+        bus.transact();
+    }
+
+    @Override
+    public String status() {
+        return getDeviceName();
+    }
+
+    @Override
+    public void setI2cAddress(I2cAddr newAddress) {
+        address = newAddress;
+    }
+
+    @Override
+    public I2cAddr getI2cAddress() {
+        return address;
+    }
+}
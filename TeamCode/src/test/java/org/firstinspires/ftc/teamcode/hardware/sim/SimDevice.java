@@ -0,0 +1,50 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+
+/**
+ * The parts shared by every simulated hardware device
+ */
+abstract class SimDevice implements HardwareDevice {
+    /**
+     * The bus the device is "connected" to
+     */
+    protected final SimBus bus;
+
+    private final String name;
+
+    SimDevice(SimBus bus, String name) {
+        this.bus = bus;
+        this.name = name;
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Simulated " + name;
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return "simulated";
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {
+        // nothing to reset
+    }
+
+    @Override
+    public void close() {
+        // nothing to close
+    }
+}
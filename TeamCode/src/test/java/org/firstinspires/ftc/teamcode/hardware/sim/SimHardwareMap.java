@@ -0,0 +1,233 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+import org.firstinspires.ftc.teamcode.modules.ActiveIntake;
+import org.firstinspires.ftc.teamcode.modules.Arm;
+import org.firstinspires.ftc.teamcode.modules.DriveTrain;
+import org.firstinspires.ftc.teamcode.modules.FieldCentricDriveTrain;
+import org.firstinspires.ftc.teamcode.modules.HangModule;
+import org.firstinspires.ftc.teamcode.modules.PlaneLauncher;
+import org.firstinspires.ftc.teamcode.modules.detection.PropDetector;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * A {@link HardwareMap} of simulated devices, so that OpModes and modules can run headless (i.e. in unit tests and
+ *  benchmarks) without a Control Hub.  Every device shares the map's {@link SimBus}, which counts and delays the calls
+ *  that would be Lynx commands on a real robot.
+ * @implNote The SDK's lookups check whether they are running on a Control Hub, which needs the robot controller's native
+ *  libraries.  The lookups are overridden to use a device table owned by this map instead.
+ * @see SimOpModeRunner
+ */
+public final class SimHardwareMap extends HardwareMap {
+    private final SimBus bus = new SimBus();
+
+    /**
+     * Every device, by name, in the order they were added.  Like on a real robot, several devices can share a name (i.e.
+     *  a hub and its voltage sensor) as long as they have different types.
+     */
+    private final Map<String, List<HardwareDevice>> devices = new LinkedHashMap<>();
+
+    private int nextMotorPort;
+    private int nextServoPort;
+
+    /**
+     * Constructs an empty hardware map
+     */
+    public SimHardwareMap() {
+        super(null, null);
+    }
+
+    /**
+     * Constructs a hardware map containing every device the robot is configured with, using the names the modules
+     *  expect
+     * @return The hardware map
+     */
+    public static SimHardwareMap createRobot() {
+        final SimHardwareMap hardwareMap = new SimHardwareMap();
+        hardwareMap.addLynxModule("Control Hub");
+        hardwareMap.addVoltageSensor("Control Hub");
+
+        hardwareMap.addMotor(DriveTrain.FRONT_RIGHT_MECANUM_DRIVER_DEFAULT_NAME);
+        hardwareMap.addMotor(DriveTrain.FRONT_LEFT_MECANUM_DRIVER_DEFAULT_NAME);
+        hardwareMap.addMotor(DriveTrain.BACK_RIGHT_MECANUM_DRIVER_DEFAULT_NAME);
+        hardwareMap.addMotor(DriveTrain.BACK_LEFT_MECANUM_DRIVER_DEFAULT_NAME);
+        hardwareMap.addIMU(FieldCentricDriveTrain.IMU_NAME);
+
+        hardwareMap.addMotor(Arm.ARM_MOTOR_NAME);
+        hardwareMap.addServo(Arm.WRIST_SERVO_NAME);
+        hardwareMap.addServo(Arm.FLAP_SERVO_NAME);
+        hardwareMap.addMotor(ActiveIntake.INTAKE_MOTOR_NAME);
+        hardwareMap.addMotor(HangModule.HANG_MOTOR_NAME);
+        hardwareMap.addServo(PlaneLauncher.LAUNCHER_SERVO_NAME);
+        hardwareMap.addColorRangeSensor(PropDetector.SENSOR_NAME);
+        return hardwareMap;
+    }
+
+    public SimBus getBus() {
+        return bus;
+    }
+
+    public SimMotor addMotor(String name) {
+        final SimMotor motor = new SimMotor(bus, name, nextMotorPort++);
+        put(name, motor);
+        return motor;
+    }
+
+    public SimServo addServo(String name) {
+        final SimServo servo = new SimServo(bus, name, nextServoPort++);
+        put(name, servo);
+        return servo;
+    }
+
+    public SimIMU addIMU(String name) {
+        final SimIMU imu = new SimIMU(bus, name);
+        put(name, imu);
+        return imu;
+    }
+
+    public SimColorRangeSensor addColorRangeSensor(String name) {
+        final SimColorRangeSensor sensor = new SimColorRangeSensor(bus, name);
+        put(name, sensor);
+        return sensor;
+    }
+
+    public SimVoltageSensor addVoltageSensor(String name) {
+        final SimVoltageSensor sensor = new SimVoltageSensor(bus, name);
+        put(name, sensor);
+        return sensor;
+    }
+
+    public SimLynxModule addLynxModule(String name) {
+        final SimLynxModule hub = new SimLynxModule(bus, getAll(SimLynxModule.class).size() + 1);
+        put(name, hub);
+        return hub;
+    }
+
+    @Override
+    public <T> T get(Class<? extends T> classOrInterface, String deviceName) {
+        final T result = tryGet(classOrInterface, deviceName);
+        if (result == null) {
+            throw new IllegalArgumentException(String.format("Unable to find a hardware device with name \"%s\" and type %s",
+                    deviceName, classOrInterface.getSimpleName()));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized <T> T tryGet(Class<? extends T> classOrInterface, String deviceName) {
+        final List<HardwareDevice> named = devices.get(deviceName.trim());
+        if (named != null) {
+            for (HardwareDevice device : named) {
+                if (classOrInterface.isInstance(device)) {
+                    return classOrInterface.cast(device);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized HardwareDevice get(String deviceName) {
+        final List<HardwareDevice> named = devices.get(deviceName.trim());
+        if (named == null) {
+            throw new IllegalArgumentException(String.format("Unable to find a hardware device with name \"%s\"", deviceName));
+        }
+        return named.get(0);
+    }
+
+    @Override
+    public synchronized <T> List<T> getAll(Class<? extends T> classOrInterface) {
+        final List<T> result = new ArrayList<>();
+        for (List<HardwareDevice> named : devices.values()) {
+            for (HardwareDevice device : named) {
+                if (classOrInterface.isInstance(device)) {
+                    result.add(classOrInterface.cast(device));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized SortedSet<String> getAllNames(Class<? extends HardwareDevice> classOrInterface) {
+        final SortedSet<String> result = new TreeSet<>();
+        for (Map.Entry<String, List<HardwareDevice>> entry : devices.entrySet()) {
+            for (HardwareDevice device : entry.getValue()) {
+                if (classOrInterface.isInstance(device)) {
+                    result.add(entry.getKey());
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Set<String> getNamesOf(HardwareDevice device) {
+        final Set<String> result = new HashSet<>();
+        for (Map.Entry<String, List<HardwareDevice>> entry : devices.entrySet()) {
+            if (entry.getValue().contains(device)) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds a device to the map
+     * @param deviceName The name of the device
+     * @param device The device
+     */
+    @Override
+    public synchronized void put(String deviceName, HardwareDevice device) {
+        deviceName = deviceName.trim();
+        devices.computeIfAbsent(deviceName, name -> new ArrayList<>()).add(device);
+        if (device instanceof VoltageSensor) {
+            voltageSensor.putLocal(deviceName, (VoltageSensor) device); // used by Road Runner's drive classes
+        }
+    }
+
+    @Override
+    public synchronized boolean remove(String deviceName, HardwareDevice device) {
+        deviceName = deviceName.trim();
+        final List<HardwareDevice> named = devices.get(deviceName);
+        if (named == null || !named.remove(device)) {
+            return false;
+        }
+        if (named.isEmpty()) {
+            devices.remove(deviceName);
+        }
+        if (device instanceof VoltageSensor) {
+            voltageSensor.remove(deviceName);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized int size() {
+        int size = 0;
+        for (List<HardwareDevice> named : devices.values()) {
+            size += named.size();
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized Iterator<HardwareDevice> iterator() {
+        final List<HardwareDevice> all = new ArrayList<>();
+        for (List<HardwareDevice> named : devices.values()) {
+            all.addAll(named);
+        }
+        return all.iterator();
+    }
+}
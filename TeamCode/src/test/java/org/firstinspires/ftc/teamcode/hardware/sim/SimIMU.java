@@ -0,0 +1,85 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.IMU;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.AngularVelocity;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesOrder;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesReference;
+import org.firstinspires.ftc.robotcore.external.navigation.Orientation;
+import org.firstinspires.ftc.robotcore.external.navigation.Quaternion;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
+
+/**
+ * A simulated IMU that only measures yaw.  The robot is assumed to stay flat on the field.
+ */
+public final class SimIMU extends SimDevice implements IMU {
+    /**
+     * How far apart the samples used to find the yaw rate are, in seconds
+     */
+    private static final double RATE_SAMPLE_SECONDS = 0.01;
+
+    /**
+     * The yaw, in degrees (counterclockwise is positive)
+     */
+    private volatile SimSignal yawSignal = SimSignal.constant(0);
+
+    /**
+     * The yaw when {@link #resetYaw()} was last called, in degrees
+     */
+    private volatile double yawOffset;
+
+    SimIMU(SimBus bus, String name) {
+        super(bus, name);
+    }
+
+    /**
+     * Makes the IMU read a scripted or recorded yaw
+     * @param yawSignal The yaw, in degrees (counterclockwise is positive)
+     */
+    public void setYawSignal(SimSignal yawSignal) {
+        this.yawSignal = yawSignal;
+    }
+
+    private double getYawDegrees(double seconds) {
+        return AngleUnit.normalizeDegrees(yawSignal.valueAt(seconds) - yawOffset);
+    }
+
+    @Override
+    public boolean initialize(Parameters parameters) {
+        bus.transact();
+        return true;
+    }
+
+    @Override
+    public void resetYaw() {
+        bus.transact();
+        yawOffset = yawSignal.valueAt(bus.getElapsedSeconds());
+    }
+
+    @Override
+    public YawPitchRollAngles getRobotYawPitchRollAngles() {
+        bus.transact();
+        return new YawPitchRollAngles(AngleUnit.DEGREES, getYawDegrees(bus.getElapsedSeconds()), 0, 0, System.nanoTime());
+    }
+
+    @Override
+    public Orientation getRobotOrientation(AxesReference reference, AxesOrder order, AngleUnit angleUnit) {
+        return getRobotOrientationAsQuaternion().toOrientation(reference, order, angleUnit);
+    }
+
+    @Override
+    public Quaternion getRobotOrientationAsQuaternion() {
+        bus.transact();
+        final double halfYaw = Math.toRadians(getYawDegrees(bus.getElapsedSeconds())) / 2;
+        return new Quaternion((float) Math.cos(halfYaw), 0, 0, (float) Math.sin(halfYaw), System.nanoTime());
+    }
+
+    @Override
+    public AngularVelocity getRobotAngularVelocity(AngleUnit angleUnit) {
+        bus.transact();
+        final double now = bus.getElapsedSeconds();
+        final double rate = AngleUnit.normalizeDegrees(yawSignal.valueAt(now) - yawSignal.valueAt(now - RATE_SAMPLE_SECONDS))
+                / RATE_SAMPLE_SECONDS;
+        return new AngularVelocity(AngleUnit.DEGREES, 0, 0, (float) rate, System.nanoTime()).toAngleUnit(angleUnit);
+    }
+}
@@ -0,0 +1,84 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.hardware.lynx.LynxUsbDevice;
+import com.qualcomm.robotcore.util.SerialNumber;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A simulated Control Hub.  Only bulk caching is simulated: each {@link #getBulkData()} is counted as a bulk read.
+ * @implNote A real {@link LynxModule} has to be extended so that {@code hardwareMap.getAll(LynxModule.class)} finds it.
+ *  The only thing the constructor needs from the USB device is its serial number, so the USB device is a proxy that
+ *  returns an embedded serial number and default values for everything else.
+ */
+public final class SimLynxModule extends LynxModule {
+    private final SimBus bus;
+
+    private final AtomicLong bulkReadCount = new AtomicLong();
+
+    SimLynxModule(SimBus bus, int moduleAddress) {
+        super(createUsbDevice(), moduleAddress, true, true);
+        this.bus = bus;
+        bulkCachingMode = BulkCachingMode.OFF;
+    }
+
+    private static LynxUsbDevice createUsbDevice() {
+        return (LynxUsbDevice) Proxy.newProxyInstance(LynxUsbDevice.class.getClassLoader(),
+                new Class<?>[] { LynxUsbDevice.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("getSerialNumber")) {
+                        return SerialNumber.createEmbedded();
+                    }
+                    final Class<?> returnType = method.getReturnType();
+                    if (returnType == boolean.class) {
+                        return false;
+                    }
+                    if (returnType == int.class) {
+                        return 0;
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    public void setBulkCachingMode(BulkCachingMode mode) {
+        bulkCachingMode = mode;
+    }
+
+    @Override
+    public BulkCachingMode getBulkCachingMode() {
+        return bulkCachingMode;
+    }
+
+    @Override
+    public void clearBulkCache() {}
+
+    /**
+     * Simulates a bulk read's bus transaction
+     * @return Always null, since simulated devices aren't read through bulk data
+     */
+    @Override
+    public BulkData getBulkData() {
+        bus.transact();
+        bulkReadCount.incrementAndGet();
+        return null;
+    }
+
+    @Override
+    public String getNullableFirmwareVersionString() {
+        return "HW: 20, Maj: 1, Min: 8, Eng: 2";
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Simulated Control Hub";
+    }
+
+    /**
+     * Gets the amount of bulk reads that have been done
+     */
+    public long getBulkReadCount() {
+        return bulkReadCount.get();
+    }
+}
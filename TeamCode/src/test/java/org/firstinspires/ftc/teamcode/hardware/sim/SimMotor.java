@@ -0,0 +1,340 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorController;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.PIDCoefficients;
+import com.qualcomm.robotcore.hardware.PIDFCoefficients;
+import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.CurrentUnit;
+
+/**
+ * A simulated motor.  By default, the encoder position is found by integrating the motor's power, as if the motor had no
+ *  load.  The position can instead be scripted or replayed from a recording with {@link #setPositionSignal(SimSignal)}.
+ */
+public final class SimMotor extends SimDevice implements DcMotorEx {
+    /**
+     * The amount of encoder ticks in one revolution of the output shaft
+     */
+    private volatile double ticksPerRevolution = 537.7;
+
+    /**
+     * How fast the motor turns at full power, in ticks per second
+     */
+    private volatile double maxTicksPerSecond = 537.7 * 312 / 60;
+
+    private volatile SimSignal positionSignal;
+
+    private final int port;
+
+    private volatile double power;
+    private volatile Direction direction = Direction.FORWARD;
+    private volatile RunMode mode = RunMode.RUN_WITHOUT_ENCODER;
+    private volatile ZeroPowerBehavior zeroPowerBehavior = ZeroPowerBehavior.FLOAT;
+    private volatile MotorConfigurationType motorType;
+    private volatile boolean enabled = true;
+    private volatile int targetPosition;
+    private volatile int targetPositionTolerance = 5;
+    private volatile double currentAlertAmps = 5;
+    private volatile PIDFCoefficients velocityCoefficients = new PIDFCoefficients(10, 3, 0, 0);
+    private volatile PIDFCoefficients positionCoefficients = new PIDFCoefficients(5, 0, 0, 0);
+
+    // Position integration state, guarded by this
+    private double rawPosition;
+    private double rawVelocity;
+    private double lastUpdateSeconds;
+    private double encoderOffset;
+
+    SimMotor(SimBus bus, String name, int port) {
+        super(bus, name);
+        this.port = port;
+        lastUpdateSeconds = bus.getElapsedSeconds();
+    }
+
+    /**
+     * Sets the encoder resolution and free speed used when integrating power
+     * @param ticksPerRevolution The amount of encoder ticks in one revolution of the output shaft
+     * @param maxRpm How fast the output shaft turns at full power, in revolutions per minute
+     */
+    public void setMotorModel(double ticksPerRevolution, double maxRpm) {
+        synchronized (this) {
+            update();
+            this.ticksPerRevolution = ticksPerRevolution;
+            this.maxTicksPerSecond = ticksPerRevolution * maxRpm / 60;
+        }
+    }
+
+    /**
+     * Makes the encoder read a scripted or recorded position instead of integrating power
+     * @param positionSignal The encoder position, in ticks, or null to go back to integrating power
+     */
+    public void setPositionSignal(SimSignal positionSignal) {
+        synchronized (this) {
+            update();
+            this.positionSignal = positionSignal;
+        }
+    }
+
+    /**
+     * Brings the simulated position up to the current time
+     */
+    private synchronized void update() {
+        final double now = bus.getElapsedSeconds();
+        final double dt = now - lastUpdateSeconds;
+        lastUpdateSeconds = now;
+
+        final SimSignal signal = positionSignal;
+        if (signal != null) {
+            final double newPosition = signal.valueAt(now);
+            rawVelocity = dt > 0 ? (newPosition - rawPosition) / dt : rawVelocity;
+            rawPosition = newPosition;
+            return;
+        }
+
+        rawVelocity = enabled ? appliedPower() * maxTicksPerSecond : 0;
+        rawPosition += rawVelocity * dt;
+    }
+
+    /**
+     * Gets the power applied to the motor's terminals, after its direction is taken into account
+     */
+    private double appliedPower() {
+        return direction == Direction.FORWARD ? power : -power;
+    }
+
+    private int directionSign() {
+        return direction == Direction.FORWARD ? 1 : -1;
+    }
+
+    @Override
+    public void setPower(double power) {
+        bus.transact();
+        synchronized (this) {
+            update();
+            this.power = Math.max(-1, Math.min(1, power));
+        }
+    }
+
+    @Override
+    public double getPower() {
+        return power;
+    }
+
+    @Override
+    public void setDirection(Direction direction) {
+        synchronized (this) {
+            update();
+            this.direction = direction;
+        }
+    }
+
+    @Override
+    public Direction getDirection() {
+        return direction;
+    }
+
+    @Override
+    public int getCurrentPosition() {
+        bus.transact();
+        synchronized (this) {
+            update();
+            return (int) Math.round(directionSign() * (rawPosition - encoderOffset));
+        }
+    }
+
+    @Override
+    public double getVelocity() {
+        bus.transact();
+        synchronized (this) {
+            update();
+            return directionSign() * rawVelocity;
+        }
+    }
+
+    @Override
+    public double getVelocity(AngleUnit unit) {
+        return unit.getUnnormalized().fromDegrees(getVelocity() / ticksPerRevolution * 360);
+    }
+
+    @Override
+    public void setVelocity(double angularRate) {
+        setPower(angularRate / maxTicksPerSecond);
+    }
+
+    @Override
+    public void setVelocity(double angularRate, AngleUnit unit) {
+        setVelocity(unit.getUnnormalized().toDegrees(angularRate) / 360 * ticksPerRevolution);
+    }
+
+    @Override
+    public void setMode(RunMode mode) {
+        bus.transact();
+        synchronized (this) {
+            update();
+            if (mode == RunMode.STOP_AND_RESET_ENCODER) {
+                encoderOffset = rawPosition;
+                power = 0;
+            }
+            this.mode = mode;
+        }
+    }
+
+    @Override
+    public RunMode getMode() {
+        return mode;
+    }
+
+    @Override
+    public void setZeroPowerBehavior(ZeroPowerBehavior zeroPowerBehavior) {
+        bus.transact();
+        this.zeroPowerBehavior = zeroPowerBehavior;
+    }
+
+    @Override
+    public ZeroPowerBehavior getZeroPowerBehavior() {
+        return zeroPowerBehavior;
+    }
+
+    @Override
+    @Deprecated
+    public void setPowerFloat() {
+        setZeroPowerBehavior(ZeroPowerBehavior.FLOAT);
+        setPower(0);
+    }
+
+    @Override
+    public boolean getPowerFloat() {
+        return zeroPowerBehavior == ZeroPowerBehavior.FLOAT && power == 0;
+    }
+
+    @Override
+    public void setTargetPosition(int position) {
+        bus.transact();
+        targetPosition = position;
+    }
+
+    @Override
+    public int getTargetPosition() {
+        return targetPosition;
+    }
+
+    @Override
+    public boolean isBusy() {
+        return mode == RunMode.RUN_TO_POSITION
+                && Math.abs(getCurrentPosition() - targetPosition) > targetPositionTolerance;
+    }
+
+    @Override
+    public void setTargetPositionTolerance(int tolerance) {
+        targetPositionTolerance = tolerance;
+    }
+
+    @Override
+    public int getTargetPositionTolerance() {
+        return targetPositionTolerance;
+    }
+
+    @Override
+    public MotorConfigurationType getMotorType() {
+        if (motorType == null) {
+            motorType = MotorConfigurationType.getUnspecifiedMotorType();
+        }
+        return motorType;
+    }
+
+    @Override
+    public void setMotorType(MotorConfigurationType motorType) {
+        this.motorType = motorType;
+    }
+
+    @Override
+    public DcMotorController getController() {
+        return null; // there is no simulated controller
+    }
+
+    @Override
+    public int getPortNumber() {
+        return port;
+    }
+
+    @Override
+    public void setMotorEnable() {
+        synchronized (this) {
+            update();
+            enabled = true;
+        }
+    }
+
+    @Override
+    public void setMotorDisable() {
+        synchronized (this) {
+            update();
+            enabled = false;
+        }
+    }
+
+    @Override
+    public boolean isMotorEnabled() {
+        return enabled;
+    }
+
+    @Override
+    @Deprecated
+    public void setPIDCoefficients(RunMode mode, PIDCoefficients pidCoefficients) {
+        setPIDFCoefficients(mode, new PIDFCoefficients(pidCoefficients.p, pidCoefficients.i, pidCoefficients.d, 0));
+    }
+
+    @Override
+    public void setPIDFCoefficients(RunMode mode, PIDFCoefficients pidfCoefficients) {
+        if (mode == RunMode.RUN_TO_POSITION) {
+            positionCoefficients = pidfCoefficients;
+        }
+        else {
+            velocityCoefficients = pidfCoefficients;
+        }
+    }
+
+    @Override
+    public void setVelocityPIDFCoefficients(double p, double i, double d, double f) {
+        setPIDFCoefficients(RunMode.RUN_USING_ENCODER, new PIDFCoefficients(p, i, d, f));
+    }
+
+    @Override
+    public void setPositionPIDFCoefficients(double p) {
+        setPIDFCoefficients(RunMode.RUN_TO_POSITION, new PIDFCoefficients(p, 0, 0, 0));
+    }
+
+    @Override
+    @Deprecated
+    public PIDCoefficients getPIDCoefficients(RunMode mode) {
+        final PIDFCoefficients coefficients = getPIDFCoefficients(mode);
+        return new PIDCoefficients(coefficients.p, coefficients.i, coefficients.d);
+    }
+
+    @Override
+    public PIDFCoefficients getPIDFCoefficients(RunMode mode) {
+        return mode == RunMode.RUN_TO_POSITION ? positionCoefficients : velocityCoefficients;
+    }
+
+    @Override
+    public double getCurrent(CurrentUnit unit) {
+        bus.transact();
+        return 0; // current isn't simulated
+    }
+
+    @Override
+    public double getCurrentAlert(CurrentUnit unit) {
+        return unit.convert(currentAlertAmps, CurrentUnit.AMPS);
+    }
+
+    @Override
+    public void setCurrentAlert(double current, CurrentUnit unit) {
+        currentAlertAmps = CurrentUnit.AMPS.convert(current, unit);
+    }
+
+    @Override
+    public boolean isOverCurrent() {
+        return false;
+    }
+}
@@ -0,0 +1,142 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerImpl;
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+/**
+ * Runs an {@link OpMode} against a {@link SimHardwareMap}, calling its lifecycle methods in the same order the robot
+ *  controller would.  The OpMode is stopped as soon as it terminates itself (i.e. through
+ *  {@link OpMode#terminateOpModeNow()}).
+ * @implNote {@link org.firstinspires.ftc.teamcode.opmode.OpBaseLinear} runs the whole OpMode inside of
+ *  {@link OpMode#start()}, so it finishes before {@link #start()} returns.
+ */
+public final class SimOpModeRunner {
+    private final OpMode opMode;
+    private final SimHardwareMap hardwareMap;
+    private final SimTelemetry telemetry;
+
+    /**
+     * Has the OpMode been stopped?
+     */
+    private boolean stopped;
+
+    /**
+     * Prepares an OpMode to be run
+     * @param opMode The OpMode
+     * @param hardwareMap The hardware the OpMode will use
+     */
+    public SimOpModeRunner(OpMode opMode, SimHardwareMap hardwareMap) {
+        this.opMode = opMode;
+        this.hardwareMap = hardwareMap;
+        opMode.hardwareMap = hardwareMap;
+        opMode.gamepad1 = new Gamepad();
+        opMode.gamepad2 = new Gamepad();
+        telemetry = new SimTelemetry(opMode);
+        opMode.telemetry = telemetry;
+    }
+
+    public OpMode getOpMode() {
+        return opMode;
+    }
+
+    public SimHardwareMap getHardwareMap() {
+        return hardwareMap;
+    }
+
+    /**
+     * Gets the telemetry given to the OpMode.  The OpMode may wrap it (i.e. in a
+     *  {@link com.acmerobotics.dashboard.telemetry.MultipleTelemetry}), but every update still reaches it.
+     */
+    public SimTelemetry getTelemetry() {
+        return telemetry;
+    }
+
+    /**
+     * Gets the first gamepad.  Its fields can be changed to simulate driver input.
+     */
+    public Gamepad getGamepad1() {
+        return opMode.gamepad1;
+    }
+
+    /**
+     * Gets the second gamepad.  Its fields can be changed to simulate driver input.
+     */
+    public Gamepad getGamepad2() {
+        return opMode.gamepad2;
+    }
+
+    /**
+     * Has the OpMode stopped, either because it terminated itself or because {@link #stop()} was called?
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Initializes the OpMode
+     */
+    public void init() {
+        runPhase(opMode::init);
+    }
+
+    /**
+     * Runs the init loop
+     * @param iterations The amount of times to call {@link OpMode#init_loop()}
+     */
+    public void initLoop(int iterations) {
+        for (int i = 0; i < iterations && !stopped; i++) {
+            runPhase(opMode::init_loop);
+        }
+    }
+
+    /**
+     * Starts the OpMode
+     */
+    public void start() {
+        runPhase(opMode::start);
+    }
+
+    /**
+     * Runs the main loop
+     * @param iterations The amount of times to call {@link OpMode#loop()}
+     */
+    public void loop(int iterations) {
+        for (int i = 0; i < iterations && !stopped; i++) {
+            runPhase(opMode::loop);
+        }
+    }
+
+    /**
+     * Stops the OpMode, if it hasn't been stopped already
+     */
+    public void stop() {
+        if (!stopped) {
+            stopped = true;
+            opMode.stop();
+        }
+    }
+
+    /**
+     * Initializes the OpMode, starts it, runs the main loop, then stops it
+     * @param iterations The amount of times to call {@link OpMode#loop()}
+     */
+    public void run(int iterations) {
+        init();
+        start();
+        loop(iterations);
+        stop();
+    }
+
+    private void runPhase(Runnable phase) {
+        if (stopped) {
+            return;
+        }
+        try {
+            phase.run();
+        }
+        catch (OpModeManagerImpl.ForceStopException e) {
+            stop(); // the OpMode terminated itself
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+
+/**
+ * Creates OpModes for tests that construct modules directly, without running an OpMode through
+ *  {@link SimOpModeRunner}
+ */
+public final class SimRobot {
+    private SimRobot() {}
+
+    /**
+     * Creates an OpMode that does nothing, with the robot's simulated hardware and telemetry
+     * @return The OpMode, which can be passed to module constructors or a
+     *  {@link org.firstinspires.ftc.teamcode.modules.core.ModuleManager}
+     * @see SimHardwareMap#createRobot()
+     */
+    public static OpMode createOpMode() {
+        final OpMode opMode = new OpMode() {
+            @Override
+            public void init() {}
+
+            @Override
+            public void loop() {}
+        };
+        opMode.hardwareMap = SimHardwareMap.createRobot();
+        opMode.telemetry = new SimTelemetry(opMode);
+        return opMode;
+    }
+}
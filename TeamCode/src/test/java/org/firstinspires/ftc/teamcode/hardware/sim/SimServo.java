@@ -0,0 +1,70 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.ServoController;
+
+/**
+ * A simulated servo.  The servo reaches its commanded position instantly.
+ */
+public final class SimServo extends SimDevice implements Servo {
+    private final int port;
+
+    private volatile double position;
+    private volatile Direction direction = Direction.FORWARD;
+    private volatile double minPosition = MIN_POSITION;
+    private volatile double maxPosition = MAX_POSITION;
+
+    SimServo(SimBus bus, String name, int port) {
+        super(bus, name);
+        this.port = port;
+    }
+
+    @Override
+    public void setPosition(double position) {
+        bus.transact();
+        this.position = Math.max(MIN_POSITION, Math.min(MAX_POSITION, position));
+    }
+
+    @Override
+    public double getPosition() {
+        return position; // the SDK caches the last commanded position, so this isn't a bus call
+    }
+
+    /**
+     * Gets the position actually sent to the servo, after its direction and range are taken into account
+     * @return The position, from 0 to 1
+     */
+    public double getPhysicalPosition() {
+        final double scaled = direction == Direction.FORWARD ? position : MAX_POSITION - position;
+        return minPosition + scaled * (maxPosition - minPosition);
+    }
+
+    @Override
+    public void setDirection(Direction direction) {
+        this.direction = direction;
+    }
+
+    @Override
+    public Direction getDirection() {
+        return direction;
+    }
+
+    @Override
+    public void scaleRange(double min, double max) {
+        if (min < MIN_POSITION || max > MAX_POSITION || min >= max) {
+            throw new IllegalArgumentException("Invalid servo range [" + min + ", " + max + "]");
+        }
+        minPosition = min;
+        maxPosition = max;
+    }
+
+    @Override
+    public ServoController getController() {
+        return null; // there is no simulated controller
+    }
+
+    @Override
+    public int getPortNumber() {
+        return port;
+    }
+}
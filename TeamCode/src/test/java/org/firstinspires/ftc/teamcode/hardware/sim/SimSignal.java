@@ -0,0 +1,92 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A value read by a simulated sensor, as a function of simulation time
+ * @see SimBus#getElapsedSeconds()
+ */
+@FunctionalInterface
+public interface SimSignal {
+    /**
+     * Gets the value of the signal
+     * @param seconds The simulation time
+     * @return The value at the specified time
+     */
+    double valueAt(double seconds);
+
+    /**
+     * Creates a signal that never changes
+     * @param value The value of the signal
+     * @return The signal
+     */
+    static SimSignal constant(double value) {
+        return seconds -> value;
+    }
+
+    /**
+     * Creates a signal from a script of values.  Each value is held from its time until the time of the next value.
+     * @param times The time each value starts at, in seconds, in ascending order
+     * @param values The values
+     * @return The signal.  Before the first time, the signal has the first value.
+     * @throws IllegalArgumentException The arrays have different lengths, are empty, or the times are out of order
+     */
+    static SimSignal scripted(double[] times, double[] values) {
+        if (times.length != values.length || times.length == 0) {
+            throw new IllegalArgumentException("There must be one time for each value, and at least one value");
+        }
+        for (int i = 1; i < times.length; i++) {
+            if (times[i] < times[i - 1]) {
+                throw new IllegalArgumentException("Times must be in ascending order");
+            }
+        }
+        final double[] scriptTimes = times.clone();
+        final double[] scriptValues = values.clone();
+        return seconds -> {
+            int index = Arrays.binarySearch(scriptTimes, seconds);
+            if (index < 0) {
+                index = -index - 2; // the last time before the one we searched for
+            }
+            return scriptValues[Math.max(0, index)];
+        };
+    }
+
+    /**
+     * Creates a signal from recorded values.  Each line of the recording is a time in seconds and a value, separated by
+     *  a comma.  Blank lines and lines starting with {@code #} are ignored.
+     * @param recording The recording
+     * @return The signal
+     * @throws IOException The recording couldn't be read
+     * @throws IllegalArgumentException The recording is malformed
+     * @see #scripted(double[], double[])
+     */
+    static SimSignal recorded(Reader recording) throws IOException {
+        final List<double[]> samples = new ArrayList<>();
+        final BufferedReader reader = new BufferedReader(recording);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            final String[] parts = line.split(",");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected \"time,value\" but got \"" + line + "\"");
+            }
+            samples.add(new double[] { Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim()) });
+        }
+
+        final double[] times = new double[samples.size()];
+        final double[] values = new double[samples.size()];
+        for (int i = 0; i < samples.size(); i++) {
+            times[i] = samples.get(i)[0];
+            values[i] = samples.get(i)[1];
+        }
+        return scripted(times, values);
+    }
+}
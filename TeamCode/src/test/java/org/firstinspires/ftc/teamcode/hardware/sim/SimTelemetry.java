@@ -0,0 +1,37 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.robocol.TelemetryMessage;
+import org.firstinspires.ftc.robotcore.internal.opmode.TelemetryImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Telemetry that is composed like it would be on the robot, but kept instead of being sent to a driver station
+ */
+public final class SimTelemetry extends TelemetryImpl {
+    private volatile List<String> lastLines = new ArrayList<>();
+
+    public SimTelemetry(OpMode opMode) {
+        super(opMode);
+    }
+
+    /**
+     * Composes the telemetry into a message that is never sent.  The transmitted message is left empty, so the SDK
+     *  doesn't try to send it to the (nonexistent) driver station.
+     */
+    @Override
+    protected void saveToTransmitter(boolean recompose, TelemetryMessage transmitter) {
+        super.saveToTransmitter(recompose, new TelemetryMessage());
+        lastLines = new ArrayList<>(composedLines);
+    }
+
+    /**
+     * Gets the lines shown by the latest update
+     * @return The composed lines, in display order
+     */
+    public List<String> getLastLines() {
+        return lastLines;
+    }
+}
@@ -0,0 +1,28 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+/**
+ * A simulated battery voltage sensor
+ */
+public final class SimVoltageSensor extends SimDevice implements VoltageSensor {
+    private volatile SimSignal voltage = SimSignal.constant(12.5);
+
+    SimVoltageSensor(SimBus bus, String name) {
+        super(bus, name);
+    }
+
+    /**
+     * Makes the sensor read a scripted or recorded voltage
+     * @param voltage The battery voltage, in volts
+     */
+    public void setVoltageSignal(SimSignal voltage) {
+        this.voltage = voltage;
+    }
+
+    @Override
+    public double getVoltage() {
+        bus.transact();
+        return voltage.valueAt(bus.getElapsedSeconds());
+    }
+}
@@ -0,0 +1,49 @@
+package org.firstinspires.ftc.teamcode.test;
+
+import org.junit.Assert;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntConsumer;
+
+/**
+ * Asserts that code doesn't allocate, using the JVM's per-thread allocation counter
+ */
+public final class AllocationAssert {
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int MEASURED_CALLS = 10_000;
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private AllocationAssert() {}
+
+    /**
+     * Asserts that a call allocates nothing once it has been compiled
+     * @param call The call, which is given the index of each time it is called
+     */
+    public static void assertNoAllocation(IntConsumer call) {
+        assertAllocatesAtMost(0, call);
+    }
+
+    /**
+     * Asserts that a call allocates no more than a known amount once it has been compiled
+     * @param maxBytesPerCall The most the call may allocate, in bytes per call on average
+     * @param call The call, which is given the index of each time it is called
+     */
+    public static void assertAllocatesAtMost(long maxBytesPerCall, IntConsumer call) {
+        // let the JIT compile everything first, since the interpreter allocates while profiling
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call.accept(i);
+        }
+        final long threadId = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            call.accept(WARMUP_CALLS + i);
+        }
+        final long after = threads.getThreadAllocatedBytes(threadId);
+        // reading the counter can allocate a little by itself, which is far less than a byte per call
+        final long bytesPerCall = (after - before) / MEASURED_CALLS;
+        Assert.assertTrue("Allocated " + bytesPerCall + " bytes per call, expected at most " + maxBytesPerCall,
+                bytesPerCall <= maxBytesPerCall);
+    }
+}
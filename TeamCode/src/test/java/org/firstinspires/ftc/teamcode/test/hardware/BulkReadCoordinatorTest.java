@@ -0,0 +1,73 @@
+package org.firstinspires.ftc.teamcode.test.hardware;
+
+import org.firstinspires.ftc.teamcode.hardware.BulkReadCoordinator;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimHardwareMap;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimLynxModule;
+import org.firstinspires.ftc.teamcode.modules.concurrent.RateGroup;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that snapshots are read from the hubs once per tick, and never replaced while a thread is reading them
+ */
+public class BulkReadCoordinatorTest {
+    private final BulkReadCoordinator coordinator = BulkReadCoordinator.getInstance();
+
+    private SimLynxModule hub;
+
+    @Before
+    public void setUp() {
+        final SimHardwareMap hardwareMap = SimHardwareMap.createRobot();
+        hub = hardwareMap.getAll(SimLynxModule.class).get(0);
+        coordinator.attach(hardwareMap);
+    }
+
+    /**
+     * Waits until the coordinator's next tick has started
+     */
+    private static void waitForNextTick() throws InterruptedException {
+        Thread.sleep(2 * RateGroup.CONTROL_FAST.getPeriodNanos() / 1_000_000 + 1);
+    }
+
+    /**
+     * Syncs from another thread, like a module task would
+     */
+    private void syncFromOtherThread() throws InterruptedException {
+        final Thread thread = new Thread(coordinator::sync);
+        thread.start();
+        thread.join();
+    }
+
+    @Test
+    public void snapshotIsStampedWhenTheHubsAreRead() {
+        final long before = System.nanoTime();
+        final long snapshotNanos = coordinator.sync();
+        final long after = System.nanoTime();
+        Assert.assertEquals(1, hub.getBulkReadCount());
+        Assert.assertTrue(snapshotNanos >= before && snapshotNanos <= after);
+
+        // the rest of the tick shares the same snapshot
+        Assert.assertEquals(snapshotNanos, coordinator.sync());
+        Assert.assertEquals(1, hub.getBulkReadCount());
+    }
+
+    @Test
+    public void snapshotIsNotReplacedWhileBeingRead() throws InterruptedException {
+        final long snapshotNanos = coordinator.beginRead();
+        try {
+            waitForNextTick();
+            syncFromOtherThread();
+            Assert.assertEquals(1, coordinator.getClearCount());
+            Assert.assertEquals(snapshotNanos, coordinator.getSnapshotNanos());
+        }
+        finally {
+            coordinator.endRead();
+        }
+
+        // the refresh that was put off happens at the next sync
+        syncFromOtherThread();
+        Assert.assertEquals(2, coordinator.getClearCount());
+        Assert.assertEquals(2, hub.getBulkReadCount());
+    }
+}
@@ -0,0 +1,75 @@
+package org.firstinspires.ftc.teamcode.test.hardware;
+
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.Servo;
+import org.firstinspires.ftc.teamcode.hardware.ConditionalHardwareDeviceGroup;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Checks that device handles are resolved once when a device is loaded, and report missing devices
+ */
+public class DeviceHandleTest {
+    private static final String MOTOR_NAME = "Front Left Mecanum Driver";
+    private static final String MISSING_NAME = "Back Left Mecanum Driver";
+
+    private final DcMotorEx motor = (DcMotorEx) Proxy.newProxyInstance(DcMotorEx.class.getClassLoader(),
+            new Class<?>[] { DcMotorEx.class },
+            (proxy, method, args) -> method.getName().equals("hashCode") ? System.identityHashCode(proxy) : null);
+
+    private int lookupCount;
+
+    // HardwareMap#get checks what kind of device the robot controller is running on, which needs Android
+    private final HardwareMap hardwareMap = new HardwareMap(null, null) {
+        @Override
+        public <T> T get(Class<? extends T> classOrInterface, String deviceName) {
+            lookupCount++;
+            if (!deviceName.equals(MOTOR_NAME)) {
+                throw new IllegalArgumentException("No device named " + deviceName);
+            }
+            return classOrInterface.cast(motor);
+        }
+    };
+
+    private final ConditionalHardwareDeviceGroup group = new ConditionalHardwareDeviceGroup(hardwareMap);
+
+    @Test
+    public void loadingTwiceReusesTheHandle() {
+        final ConditionalHardwareDeviceGroup.DeviceHandle<DcMotorEx> first = group.tryLoadDevice(DcMotorEx.class, MOTOR_NAME);
+        final ConditionalHardwareDeviceGroup.DeviceHandle<DcMotorEx> second = group.tryLoadDevice(DcMotorEx.class, MOTOR_NAME);
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, lookupCount);
+        Assert.assertEquals(0, first.getIndex());
+
+        Assert.assertTrue(first.isAvailable());
+        Assert.assertSame(motor, first.get());
+        Assert.assertSame(motor, group.getLoadedDevice(DcMotorEx.class, MOTOR_NAME));
+        Assert.assertEquals(1, lookupCount); // neither getter goes back to the hardware map
+        Assert.assertTrue(group.areAllDevicesAvailable());
+    }
+
+    @Test
+    public void missingDeviceMakesGroupUnavailable() {
+        final ConditionalHardwareDeviceGroup.DeviceHandle<DcMotorEx> present = group.tryLoadDevice(DcMotorEx.class, MOTOR_NAME);
+        final ConditionalHardwareDeviceGroup.DeviceHandle<DcMotorEx> missing = group.tryLoadDevice(DcMotorEx.class, MISSING_NAME);
+        Assert.assertEquals(1, missing.getIndex());
+        Assert.assertTrue(present.isAvailable());
+        Assert.assertFalse(missing.isAvailable());
+        Assert.assertFalse(group.areAllDevicesAvailable());
+        Assert.assertThrows(NullPointerException.class, missing::get);
+
+        final boolean[] ran = new boolean[2];
+        group.executeIfAllAreAvailable(() -> ran[0] = true, () -> ran[1] = true);
+        Assert.assertFalse(ran[0]);
+        Assert.assertTrue(ran[1]);
+    }
+
+    @Test
+    public void reloadingWithIncompatibleTypeThrows() {
+        group.tryLoadDevice(DcMotorEx.class, MOTOR_NAME);
+        Assert.assertThrows(ClassCastException.class, () -> group.tryLoadDevice(Servo.class, MOTOR_NAME));
+    }
+}
@@ -0,0 +1,47 @@
+package org.firstinspires.ftc.teamcode.test.hardware;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.teamcode.hardware.ImuSampler;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimHardwareMap;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimIMU;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimSignal;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ImuSamplerTest {
+    private static final double DEFAULT_STALE_AFTER_MS = ImuSampler.STALE_AFTER_MS;
+
+    @After
+    public void tearDown() {
+        ImuSampler.stopAll();
+        ImuSampler.STALE_AFTER_MS = DEFAULT_STALE_AFTER_MS;
+    }
+
+    @Test
+    public void consumersShareOneSampler() {
+        final SimIMU imu = new SimHardwareMap().addIMU("imu");
+        imu.setYawSignal(SimSignal.constant(90));
+
+        final ImuSampler sampler = ImuSampler.getInstance(imu);
+        Assert.assertSame(sampler, ImuSampler.getInstance(imu));
+        Assert.assertEquals(90, sampler.getLatest().getYaw(AngleUnit.DEGREES), 1e-6);
+        Assert.assertEquals(0, sampler.getStaleReadCount());
+    }
+
+    @Test
+    public void staleSamplesAreNotReadOnTheCallingThread() {
+        final SimIMU imu = new SimHardwareMap().addIMU("imu");
+        final ImuSampler sampler = ImuSampler.getInstance(imu);
+        ImuSampler.stopAll(); // as if the sampler thread had stalled
+        final ImuSampler.Sample sample = sampler.getLatest();
+        final long sampleCount = sampler.getSampleCount();
+
+        ImuSampler.STALE_AFTER_MS = -1; // every sample is stale
+        imu.setYawSignal(SimSignal.constant(-45));
+        Assert.assertTrue(sampler.isStale());
+        Assert.assertSame(sample, sampler.getLatest());
+        Assert.assertEquals(1, sampler.getStaleReadCount());
+        Assert.assertEquals(sampleCount, sampler.getSampleCount());
+    }
+}
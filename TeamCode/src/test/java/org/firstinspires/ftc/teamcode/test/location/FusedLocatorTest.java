@@ -0,0 +1,150 @@
+package org.firstinspires.ftc.teamcode.test.location;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.teamcode.modules.location.AprilTagLocator;
+import org.firstinspires.ftc.teamcode.modules.location.FusedLocator;
+import org.firstinspires.ftc.teamcode.test.AllocationAssert;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+import org.firstinspires.ftc.vision.apriltag.AprilTagGameDatabase;
+import org.firstinspires.ftc.vision.apriltag.AprilTagMetadata;
+import org.firstinspires.ftc.vision.apriltag.AprilTagPoseFtc;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+/**
+ * Feeds odometry movement and absolute measurements to a {@link FusedLocator} by hand, and checks how it combines them
+ */
+public class FusedLocatorTest {
+    private static final long PERIOD_NANOS = 5_000_000; // 200 Hz
+
+    /**
+     * Drives the robot straight forward
+     * @param locator The locator to predict with
+     * @param updates The amount of odometry updates
+     * @param mmPerUpdate How far the robot moves each update
+     * @param startNanos The timestamp of the first update
+     * @return The timestamp of the last update
+     */
+    private static long driveForward(FusedLocator locator, int updates, double mmPerUpdate, long startNanos) {
+        long nanos = startNanos;
+        for (int i = 0; i < updates; i++) {
+            nanos += PERIOD_NANOS;
+            locator.onPoseUpdate(0, mmPerUpdate, 0, nanos);
+        }
+        return nanos;
+    }
+
+    @Test
+    public void predictionFollowsOdometry() {
+        final FusedLocator locator = new FusedLocator(null, 1000, 500, 90, AngleUnit.DEGREES);
+        driveForward(locator, 100, 2, 0);
+        // facing 90 degrees counterclockwise from +y is facing -x
+        Assert.assertEquals(800, locator.getX(), 1e-6);
+        Assert.assertEquals(500, locator.getY(), 1e-6);
+        Assert.assertEquals(90, locator.getHeading(AngleUnit.DEGREES), 1e-6);
+    }
+
+    @Test
+    public void measurementCorrectsDrift() {
+        final FusedLocator locator = new FusedLocator(null, 0, 0, 0, AngleUnit.DEGREES);
+        final long nanos = driveForward(locator, 200, 5, 0);
+        final double stdBefore = locator.getPositionStdMm();
+
+        // odometry thinks the robot is at y = 1000, but it is really at y = 1050
+        Assert.assertTrue(locator.addMeasurement(0, 1050, 0, nanos, 20, Math.toRadians(2)));
+        Assert.assertTrue(locator.getY() > 1025);
+        Assert.assertTrue(locator.getY() < 1050);
+        Assert.assertTrue(locator.getPositionStdMm() < stdBefore);
+        Assert.assertEquals(1, locator.getCorrectionCount());
+    }
+
+    @Test
+    public void delayedMeasurementIsComparedWithPastPose() {
+        final FusedLocator locator = new FusedLocator(null, 0, 0, 0, AngleUnit.DEGREES);
+        final long measuredNanos = driveForward(locator, 100, 5, 0);
+        driveForward(locator, 20, 5, measuredNanos);
+
+        // the measurement agrees with where the robot was when it was taken, so nothing should change
+        Assert.assertTrue(locator.addMeasurement(0, 500, 0, measuredNanos, 20, Math.toRadians(2)));
+        Assert.assertEquals(600, locator.getY(), 1e-6);
+        Assert.assertEquals(0, locator.getX(), 1e-6);
+    }
+
+    @Test
+    public void outliersAreRejected() {
+        final FusedLocator locator = new FusedLocator(null, 0, 0, 0, AngleUnit.DEGREES);
+        final long nanos = driveForward(locator, 50, 2, 0);
+        Assert.assertFalse(locator.addMeasurement(3000, 3000, 0, nanos, 20, Math.toRadians(2)));
+        Assert.assertEquals(100, locator.getY(), 1e-6);
+        Assert.assertEquals(1, locator.getRejectedCount());
+    }
+
+    @Test
+    public void uncertaintyDoesNotDependOnUpdateRate() {
+        final FusedLocator slow = new FusedLocator(null, 0, 0, 0, AngleUnit.DEGREES);
+        final FusedLocator fast = new FusedLocator(null, 0, 0, 0, AngleUnit.DEGREES);
+        // start out certain, so only the odometry's noise is compared
+        slow.resetPose(0, 0, 0, AngleUnit.DEGREES, 0, 0);
+        fast.resetPose(0, 0, 0, AngleUnit.DEGREES, 0, 0);
+        // the same 1 meter long arc, at 50 Hz and at 200 Hz
+        for (int i = 1; i <= 50; i++) {
+            slow.onPoseUpdate(0, 20, Math.toRadians(1), i * PERIOD_NANOS * 4);
+        }
+        for (int i = 1; i <= 200; i++) {
+            fast.onPoseUpdate(0, 5, Math.toRadians(0.25), i * PERIOD_NANOS);
+        }
+        Assert.assertEquals(slow.getX(), fast.getX(), 10);
+        Assert.assertEquals(slow.getY(), fast.getY(), 10);
+        Assert.assertTrue(slow.getPositionStdMm() > 0);
+        Assert.assertEquals(slow.getPositionStdMm(), fast.getPositionStdMm(), slow.getPositionStdMm() * 0.05);
+    }
+
+    @Test
+    public void backdropTagCorrectsPose() {
+        // BlueAllianceCenter is on the backdrop at x = 60.25 in, facing -x.  The robot is 30 in in front of the backdrop
+        //  and 6 in to the right of the tag, facing it (+x, which is -90 degrees from +y)
+        final AprilTagMetadata tag = AprilTagGameDatabase.getCenterStageTagLibrary().lookupTag(2);
+        final double robotX = DistanceUnit.INCH.toMm(tag.fieldPosition.get(0) - 30) + FusedLocator.FIELD_SIZE_MM / 2;
+        final double robotY = DistanceUnit.INCH.toMm(tag.fieldPosition.get(1) - 6) + FusedLocator.FIELD_SIZE_MM / 2;
+
+        // odometry has drifted 80 mm along the backdrop
+        final FusedLocator locator = new FusedLocator(null, robotX, robotY + 80, -90, AngleUnit.DEGREES);
+        final long nanos = PERIOD_NANOS;
+        locator.onPoseUpdate(0, 0, 0, nanos);
+
+        // the tag is straight ahead, 6 in to the left
+        final AprilTagPoseFtc pose = new AprilTagPoseFtc(-6, 30, 0, 0, 0, 0, Math.hypot(6, 30), 0, 0);
+        final AprilTagDetection detection = new AprilTagDetection(tag.id, 0, 0, null, null, tag, pose, null, nanos);
+        locator.addAprilTagFrame(new AprilTagLocator.Frame(1, nanos, Collections.singletonList(detection)));
+
+        Assert.assertEquals(0, locator.getRejectedCount());
+        Assert.assertEquals(1, locator.getCorrectionCount());
+        Assert.assertEquals(robotX, locator.getX(), 10);
+        Assert.assertTrue("Corrected y is " + (locator.getY() - robotY) + " mm off", Math.abs(locator.getY() - robotY) < 40);
+        Assert.assertEquals(-90, locator.getHeading(AngleUnit.DEGREES), 2);
+
+        // the same frame isn't applied twice
+        locator.addAprilTagFrame(new AprilTagLocator.Frame(1, nanos, Collections.singletonList(detection)));
+        Assert.assertEquals(1, locator.getCorrectionCount());
+    }
+
+    /**
+     * The most a published pose can take up: a 16 byte object header, 3 doubles, and 2 longs
+     */
+    private static final long PUBLISHED_POSE_BYTES = 56;
+
+    @Test
+    public void predictAndCorrectOnlyAllocatePublishedPoses() {
+        final FusedLocator locator = new FusedLocator(null, 0, 0, 0, AngleUnit.DEGREES);
+        final long[] nanos = { 0 };
+        // each prediction and each correction publishes one pose
+        AllocationAssert.assertAllocatesAtMost(2 * PUBLISHED_POSE_BYTES, i -> {
+            nanos[0] += PERIOD_NANOS;
+            locator.onPoseUpdate(0.1, 1, 0.001, nanos[0]);
+            locator.addMeasurement(locator.getX(), locator.getY(), 0, nanos[0] - PERIOD_NANOS * 10, 30, 0.05);
+        });
+    }
+}
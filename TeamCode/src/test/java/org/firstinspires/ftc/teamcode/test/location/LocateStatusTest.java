@@ -0,0 +1,43 @@
+package org.firstinspires.ftc.teamcode.test.location;
+
+import org.firstinspires.ftc.teamcode.modules.location.DefaultLocator;
+import org.firstinspires.ftc.teamcode.modules.location.LocateStatus;
+import org.firstinspires.ftc.teamcode.modules.location.LocatorException;
+import org.firstinspires.ftc.teamcode.modules.location.Movement;
+import org.firstinspires.ftc.teamcode.modules.location.NoAbsolutePositionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that failing to locate is reported without building exceptions
+ */
+@SuppressWarnings("deprecation")
+public class LocateStatusTest {
+    @Test
+    public void failedLocateLeavesResultUnchanged() {
+        final Movement result = new Movement(1, 2, 3);
+        Assert.assertEquals(LocateStatus.NO_ABSOLUTE_POSITION, new DefaultLocator().locate(result));
+        Assert.assertEquals(new Movement(1, 2, 3), result);
+    }
+
+    @Test
+    public void legacyExceptionsArePreallocatedAndStackless() {
+        final DefaultLocator locator = new DefaultLocator();
+        final LocatorException first = getLocationException(locator);
+        final LocatorException second = getLocationException(locator);
+        Assert.assertTrue(first instanceof NoAbsolutePositionException);
+        Assert.assertSame(first, second);
+        Assert.assertSame(locator, first.getLocator());
+        Assert.assertEquals(0, first.getStackTrace().length);
+    }
+
+    private static LocatorException getLocationException(DefaultLocator locator) {
+        try {
+            locator.getLocation();
+        }
+        catch (LocatorException e) {
+            return e;
+        }
+        throw new AssertionError("getLocation should have thrown");
+    }
+}
@@ -0,0 +1,86 @@
+package org.firstinspires.ftc.teamcode.test.location;
+
+import org.firstinspires.ftc.teamcode.hardware.BulkReadCoordinator;
+import org.firstinspires.ftc.teamcode.modules.location.LocateStatus;
+import org.firstinspires.ftc.teamcode.modules.location.Locator;
+import org.firstinspires.ftc.teamcode.modules.location.LocatorKind;
+import org.firstinspires.ftc.teamcode.modules.location.Movement;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that converting between locators only locates the robot once per bulk-read snapshot, unless a locator's pose
+ *  changes
+ */
+public class LocatorTransformCacheTest {
+    /**
+     * A locator that counts how often it is located, and whose pose can be moved by hand
+     */
+    private static final class CountingLocator implements Locator {
+        private final Movement location;
+        private final Movement fieldSize;
+        private long version;
+        private int locateCount;
+
+        CountingLocator(double x, double y, double theta, Movement fieldSize) {
+            location = new Movement(x, y, theta);
+            this.fieldSize = fieldSize;
+        }
+
+        void moveTo(double x, double y, double theta) {
+            location.set(x, y, theta);
+            version++;
+        }
+
+        @Override
+        public LocateStatus locate(Movement result) {
+            locateCount++;
+            result.set(location);
+            return LocateStatus.OK;
+        }
+
+        @Override
+        public long getPoseVersion() {
+            return version;
+        }
+
+        @Override
+        public LocatorKind getKind() {
+            return LocatorKind.FIELD_RELATIVE;
+        }
+
+        @Override
+        public Movement getFieldSize() {
+            return fieldSize;
+        }
+    }
+
+    private final CountingLocator inches = new CountingLocator(10, 20, 30, new Movement(144, 144, 360));
+    private final CountingLocator millimeters = new CountingLocator(300, 400, 0.5, new Movement(3657.6, 3657.6, 2 * Math.PI));
+
+    @Test
+    public void conversionsInOneSnapshotLocateOnce() {
+        final long clearCount = BulkReadCoordinator.getInstance().getClearCount();
+        final Movement point = new Movement(0, 0, 0);
+        for (int i = 0; i < 1000; i++) {
+            point.set(i, 50, 90);
+            millimeters.convertFromOtherLocator(point, inches, point);
+        }
+        // nothing else starts a new snapshot here, and converting must not start one either
+        Assert.assertEquals(clearCount, BulkReadCoordinator.getInstance().getClearCount());
+        Assert.assertEquals(1, inches.locateCount);
+        Assert.assertEquals(1, millimeters.locateCount);
+    }
+
+    @Test
+    public void newPoseInvalidatesTransform() {
+        final Movement point = new Movement(12, 20, 30);
+        millimeters.convertFromOtherLocator(point, inches, point);
+        Assert.assertEquals(new Movement(300 + 2 * 25.4, 400, 0.5), point);
+
+        inches.moveTo(0, 20, 30);
+        point.set(12, 20, 30);
+        millimeters.convertFromOtherLocator(point, inches, point);
+        Assert.assertEquals(new Movement(300 + 12 * 25.4, 400, 0.5), point);
+    }
+}
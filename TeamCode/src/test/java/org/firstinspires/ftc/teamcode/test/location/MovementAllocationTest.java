@@ -0,0 +1,85 @@
+package org.firstinspires.ftc.teamcode.test.location;
+
+import org.firstinspires.ftc.teamcode.modules.location.LocalizedMovement;
+import org.firstinspires.ftc.teamcode.modules.location.LocateStatus;
+import org.firstinspires.ftc.teamcode.modules.location.Locator;
+import org.firstinspires.ftc.teamcode.modules.location.LocatorKind;
+import org.firstinspires.ftc.teamcode.modules.location.Movement;
+import org.firstinspires.ftc.teamcode.test.AllocationAssert;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Measures what a typical locator conversion chain allocates: converting a target from one locator's coordinates to
+ *  another's, finding the error from the current position, and scaling it
+ */
+public class MovementAllocationTest {
+    /**
+     * A locator whose location is kept in a field, so that only the pose math is measured
+     */
+    private static final class FixedLocator implements Locator {
+        private final LocalizedMovement location;
+        private final Movement fieldSize;
+
+        FixedLocator(double x, double y, double theta, Movement fieldSize) {
+            location = new LocalizedMovement(x, y, theta, this);
+            this.fieldSize = fieldSize;
+        }
+
+        @Override
+        public LocateStatus locate(Movement result) {
+            result.set(location);
+            return LocateStatus.OK;
+        }
+
+        @Override
+        public LocalizedMovement getLocation() {
+            return location;
+        }
+
+        @Override
+        public boolean isActive() {
+            return true;
+        }
+
+        @Override
+        public LocatorKind getKind() {
+            return LocatorKind.FIELD_RELATIVE;
+        }
+
+        @Override
+        public Movement getFieldSize() {
+            return fieldSize;
+        }
+    }
+
+    private final FixedLocator inches = new FixedLocator(10, 20, 30, new Movement(144, 144, 360));
+    private final FixedLocator millimeters = new FixedLocator(300, 400, 0.5, new Movement(3657.6, 3657.6, 2 * Math.PI));
+
+    private final Movement target = new Movement(0, 0, 0);
+    private final Movement error = new Movement(0, 0, 0);
+
+    private double sink;
+
+    private void inPlaceChain(int i) {
+        target.set(i % 100, 50, 90);
+        millimeters.convertFromOtherLocator(target, inches, target);
+        target.subtract(millimeters.getLocation(), error).multiply(0.5, error);
+        sink += error.x;
+    }
+
+    @Test
+    public void inPlaceChainMatchesAllocatingChain() {
+        final LocalizedMovement converted = millimeters.convertFromOtherLocator(new Movement(60, 50, 90), inches);
+        final Movement expected = converted.subtract(millimeters.getLocation()).multiply(0.5);
+        target.set(60, 50, 90);
+        millimeters.convertFromOtherLocator(target, inches, target);
+        target.subtract(millimeters.getLocation(), error).multiply(0.5, error);
+        Assert.assertEquals(expected, error);
+    }
+
+    @Test
+    public void inPlaceChainDoesNotAllocate() {
+        AllocationAssert.assertNoAllocation(this::inPlaceChain);
+    }
+}
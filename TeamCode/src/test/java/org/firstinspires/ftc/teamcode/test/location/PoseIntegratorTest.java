@@ -0,0 +1,100 @@
+package org.firstinspires.ftc.teamcode.test.location;
+
+import org.firstinspires.ftc.teamcode.hardware.ImuSampler;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimHardwareMap;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimIMU;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimMotor;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimSignal;
+import org.firstinspires.ftc.teamcode.modules.location.PoseIntegrator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drives simulated wheels and an IMU along known paths, and checks the integrated pose against where the robot ended up
+ */
+public class PoseIntegratorTest {
+    /**
+     * How long each move takes, in seconds
+     */
+    private static final double MOVE_SECONDS = 0.3;
+
+    /**
+     * How fast each wheel turns while moving, in ticks per second
+     */
+    private static final double TICKS_PER_SECOND = 1000;
+
+    private SimHardwareMap hardwareMap;
+    private SimMotor frontLeft, frontRight, backLeft, backRight;
+    private SimIMU imu;
+    private PoseIntegrator integrator;
+
+    /**
+     * The simulation time the move starts at
+     */
+    private double startSeconds;
+
+    @Before
+    public void setUp() {
+        hardwareMap = new SimHardwareMap();
+        frontLeft = hardwareMap.addMotor("fl");
+        frontRight = hardwareMap.addMotor("fr");
+        backLeft = hardwareMap.addMotor("bl");
+        backRight = hardwareMap.addMotor("br");
+        imu = hardwareMap.addIMU("imu");
+        startSeconds = hardwareMap.getBus().getElapsedSeconds() + 0.05;
+    }
+
+    @After
+    public void tearDown() {
+        if (integrator != null) {
+            integrator.stop();
+        }
+        ImuSampler.stopAll();
+    }
+
+    /**
+     * Creates a signal that ramps from 0 at the start of the move, and holds its value once the move is over
+     * @param finalValue The value at the end of the move
+     */
+    private SimSignal ramp(double finalValue) {
+        return seconds -> finalValue * Math.max(0, Math.min(seconds - startSeconds, MOVE_SECONDS)) / MOVE_SECONDS;
+    }
+
+    /**
+     * Runs the move and returns the resulting pose, with 1 mm per tick
+     */
+    private PoseIntegrator.Pose move(double frontLeftTicks, double frontRightTicks, double backLeftTicks,
+                                     double backRightTicks, double yawDegrees) throws InterruptedException {
+        frontLeft.setPositionSignal(ramp(frontLeftTicks));
+        frontRight.setPositionSignal(ramp(frontRightTicks));
+        backLeft.setPositionSignal(ramp(backLeftTicks));
+        backRight.setPositionSignal(ramp(backRightTicks));
+        imu.setYawSignal(ramp(yawDegrees));
+        integrator = new PoseIntegrator(frontLeft, frontRight, backLeft, backRight, ImuSampler.getInstance(imu), 1);
+        Thread.sleep((long) ((startSeconds - hardwareMap.getBus().getElapsedSeconds() + MOVE_SECONDS) * 1000) + 100);
+        return integrator.getLatest();
+    }
+
+    @Test
+    public void drivesForward() throws InterruptedException {
+        final double ticks = TICKS_PER_SECOND * MOVE_SECONDS;
+        final PoseIntegrator.Pose pose = move(ticks, ticks, ticks, ticks, 0);
+        Assert.assertEquals(0, pose.x, 1e-6);
+        Assert.assertEquals(ticks, pose.y, 1e-6);
+        Assert.assertEquals(0, pose.heading, 1e-6);
+    }
+
+    @Test
+    public void strafesWhileTurning() throws InterruptedException {
+        // strafing right while turning a quarter turn counterclockwise traces a quarter circle
+        final double ticks = TICKS_PER_SECOND * MOVE_SECONDS;
+        final PoseIntegrator.Pose pose = move(ticks, -ticks, -ticks, ticks, 90);
+        final double radius = ticks / (Math.PI / 2);
+        // the IMU is sampled at a different rate than the encoders, so allow a few percent of the path length
+        Assert.assertEquals(radius, pose.x, 0.03 * ticks);
+        Assert.assertEquals(radius, pose.y, 0.03 * ticks);
+        Assert.assertEquals(Math.PI / 2, pose.heading, 1e-3);
+    }
+}
@@ -0,0 +1,62 @@
+package org.firstinspires.ftc.teamcode.test.metrics;
+
+import org.firstinspires.ftc.teamcode.modules.core.LatencyHistogram;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+    @Test
+    public void emptyHistogramReportsZero() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getPercentile(50));
+        Assert.assertEquals(0, histogram.getMean(), 0);
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 4; i++) {
+            histogram.record(i);
+        }
+        Assert.assertEquals(2, histogram.getPercentile(50));
+        Assert.assertEquals(4, histogram.getPercentile(100));
+        Assert.assertEquals(2.5, histogram.getMean(), 0);
+    }
+
+    @Test
+    public void percentilesAreWithinBucketPrecision() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertWithinPrecision(500_000, histogram.getPercentile(50));
+        assertWithinPrecision(990_000, histogram.getPercentile(99));
+        Assert.assertEquals(1_000_000, histogram.getPercentile(100));
+        Assert.assertEquals(1_000_000, histogram.getMax());
+    }
+
+    @Test
+    public void hugeAndNegativeValuesAreClamped() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE / 2);
+        Assert.assertEquals(0, histogram.getPercentile(50));
+        Assert.assertEquals(Long.MAX_VALUE / 2, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void resetRemovesEverything() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(12345);
+        histogram.reset();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getPercentile(99));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        Assert.assertTrue("expected ~" + expected + " but was " + actual,
+                actual >= expected && actual <= expected + expected / 8);
+    }
+}
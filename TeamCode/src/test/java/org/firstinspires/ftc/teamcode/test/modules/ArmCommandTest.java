@@ -0,0 +1,159 @@
+package org.firstinspires.ftc.teamcode.test.modules;
+
+import org.firstinspires.ftc.teamcode.hardware.sim.SimRobot;
+import org.firstinspires.ftc.teamcode.modules.Arm;
+import org.firstinspires.ftc.teamcode.modules.concurrent.RateGroup;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks how arm commands are published to the position updater.  Unless a test starts the updater, the published
+ *  command is only changed by the test.
+ */
+public class ArmCommandTest {
+    private static final double BACKDROP = Arm.ArmPresets.DEPOSIT_ON_BACKDROP;
+    private static final double FLOOR = Arm.ArmPresets.DEPOSIT_ON_FLOOR;
+
+    private final Arm arm = new Arm(SimRobot.createOpMode());
+
+    @After
+    public void tearDown() {
+        arm.cleanupModule();
+    }
+
+    private int targetOf(double rotation) {
+        final Arm other = new Arm(SimRobot.createOpMode());
+        try {
+            other.rotateArmTo(rotation);
+            return other.getArmMotorTarget();
+        }
+        finally {
+            other.cleanupModule();
+        }
+    }
+
+    @Test
+    public void onlyChangedCommandsArePublished() {
+        Assert.assertEquals(0, arm.getArmCommandCount());
+        arm.rotateArmTo(BACKDROP);
+        arm.rotateArmTo(BACKDROP);
+        Assert.assertEquals(1, arm.getArmCommandCount());
+
+        // the wrist flag is part of the command, so changing only the flag is a new command with the same target
+        final int target = arm.getArmMotorTarget();
+        arm.rotateArmTo(BACKDROP, true);
+        Assert.assertEquals(2, arm.getArmCommandCount());
+        Assert.assertEquals(target, arm.getArmMotorTarget());
+    }
+
+    @Test
+    public void lastCommandWins() {
+        arm.rotateArmTo(BACKDROP);
+        arm.rotateArmTo(FLOOR, true);
+        arm.rotateArmTo(BACKDROP);
+        Assert.assertEquals(3, arm.getArmCommandCount());
+        Assert.assertEquals(targetOf(BACKDROP), arm.getArmMotorTarget());
+    }
+
+    @Test
+    public void concurrentCommandsAreNeverTorn() throws InterruptedException {
+        final int commandsPerThread = 10_000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread backdrop = new Thread(() -> {
+            awaitQuietly(start);
+            for (int i = 0; i < commandsPerThread; i++) {
+                arm.rotateArmTo(BACKDROP, (i & 1) == 0);
+            }
+        });
+        final Thread floor = new Thread(() -> {
+            awaitQuietly(start);
+            for (int i = 0; i < commandsPerThread; i++) {
+                arm.rotateArmTo(FLOOR, (i & 1) == 0);
+            }
+        });
+        backdrop.start();
+        floor.start();
+        start.countDown();
+        backdrop.join();
+        floor.join();
+
+        // whichever thread finished last, the target is one of the two commands, never a mix of them
+        final int target = arm.getArmMotorTarget();
+        Assert.assertTrue(target == targetOf(BACKDROP) || target == targetOf(FLOOR));
+        Assert.assertTrue(arm.getArmCommandCount() <= 2L * commandsPerThread);
+
+        final long count = arm.getArmCommandCount();
+        arm.rotateArmTo(target == targetOf(BACKDROP) ? FLOOR : BACKDROP);
+        Assert.assertEquals(count + 1, arm.getArmCommandCount());
+    }
+
+    @Test
+    public void updaterOnlyAppliesPublishedCommands() throws InterruptedException {
+        final int backdrop = targetOf(BACKDROP);
+        final int floor = targetOf(FLOOR);
+        arm.rotateArmTo(BACKDROP); // so that the updater never sees the initial (unpublished) command
+        arm.startThreads();
+
+        final long hammerNanos = TimeUnit.MILLISECONDS.toNanos(500);
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread backdropThread = new Thread(() -> hammer(start, BACKDROP, hammerNanos));
+        final Thread floorThread = new Thread(() -> hammer(start, FLOOR, hammerNanos));
+        backdropThread.start();
+        floorThread.start();
+        start.countDown();
+
+        long prevApplied = 0;
+        while (backdropThread.isAlive() || floorThread.isAlive()) {
+            final long applied = arm.getAppliedArmCommandCount();
+            final int target = arm.getAppliedArmMotorTarget();
+            Assert.assertTrue("Applied a target that was never published: " + target,
+                    applied == 0 || target == backdrop || target == floor);
+            Assert.assertTrue(applied >= prevApplied);
+            Assert.assertTrue(applied <= arm.getArmCommandCount());
+            prevApplied = applied;
+            Thread.yield();
+        }
+        backdropThread.join();
+        floorThread.join();
+
+        // the updater catches up with the last command within a few periods
+        final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        while (arm.getAppliedArmMotorTarget() != arm.getArmMotorTarget() && System.nanoTime() < deadlineNanos) {
+            Thread.sleep(1);
+        }
+        Assert.assertEquals(arm.getArmMotorTarget(), arm.getAppliedArmMotorTarget());
+
+        // the commands are only ever stored and loaded, so contention on them doesn't slow the updater down.  The bounds
+        //  are loose since the test threads share the CPU with the updater
+        final double frequency = RateGroup.CONTROL_FAST.getFrequency();
+        Assert.assertTrue("Updater ran at " + arm.getControllerFrequency() + " Hz",
+                arm.getControllerFrequency() > frequency / 2);
+        Assert.assertTrue("Updater started " + arm.getControllerJitterNanos() / 1e6 + " ms late on average",
+                arm.getControllerJitterNanos() < 1e9 / frequency);
+    }
+
+    /**
+     * Repeatedly publishes commands to one position, toggling the wrist flag so that every command is new
+     */
+    private void hammer(CountDownLatch start, double rotation, long durationNanos) {
+        awaitQuietly(start);
+        final long endNanos = System.nanoTime() + durationNanos;
+        for (int i = 0; System.nanoTime() < endNanos; i++) {
+            arm.rotateArmTo(rotation, (i & 1) == 0);
+            Thread.yield(); // like an OpMode loop, give the other threads a turn
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
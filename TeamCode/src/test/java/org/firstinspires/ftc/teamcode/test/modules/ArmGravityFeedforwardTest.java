@@ -0,0 +1,51 @@
+package org.firstinspires.ftc.teamcode.test.modules;
+
+import org.firstinspires.ftc.teamcode.modules.ArmGravityFeedforward;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+public class ArmGravityFeedforwardTest {
+    @Test
+    public void geometryFollowsCosine() {
+        final ArmGravityFeedforward table = ArmGravityFeedforward.fromGeometry(0.2, -90, 270, 73);
+        Assert.assertEquals(0.2, table.getPower(0), 1e-9);
+        Assert.assertEquals(0, table.getPower(90), 1e-9);
+        Assert.assertEquals(-0.2, table.getPower(180), 1e-9);
+        // between entries, linear interpolation of a 5 degree table is well within 0.1% of the holding power
+        Assert.assertEquals(0.2 * Math.cos(Math.toRadians(42.5)), table.getPower(42.5), 2e-4);
+        Assert.assertFalse(table.isMeasured());
+    }
+
+    @Test
+    public void samplesAreInterpolatedAndClamped() {
+        final ArmGravityFeedforward table = ArmGravityFeedforward.fromSamples(
+                new double[] { 0, 90, 180 }, new double[] { 0.1, 0.0, -0.3 }, -90, 270, 73);
+        Assert.assertEquals(0.05, table.getPower(45), 1e-9);
+        Assert.assertEquals(-0.15, table.getPower(135), 1e-9);
+        Assert.assertEquals(0.1, table.getPower(-60), 1e-9);
+        Assert.assertEquals(-0.3, table.getPower(1000), 1e-9);
+        Assert.assertTrue(table.isMeasured());
+    }
+
+    @Test
+    public void samplesSurviveSaving() throws IOException {
+        final File file = File.createTempFile("arm_gravity", ".csv");
+        try {
+            ArmGravityFeedforward.saveSamples(file, new double[] { 10, 40 }, new double[] { 0.12345, -0.05 });
+            final double[][] samples = ArmGravityFeedforward.readSamples(file);
+            Assert.assertArrayEquals(new double[] { 10, 40 }, samples[0], 1e-9);
+            Assert.assertArrayEquals(new double[] { 0.12345, -0.05 }, samples[1], 1e-9);
+        }
+        finally {
+            Assert.assertTrue(file.delete());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnorderedSamples() {
+        ArmGravityFeedforward.fromSamples(new double[] { 90, 0 }, new double[] { 0, 0 }, -90, 270, 73);
+    }
+}
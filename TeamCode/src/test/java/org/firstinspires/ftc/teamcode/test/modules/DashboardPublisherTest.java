@@ -0,0 +1,79 @@
+package org.firstinspires.ftc.teamcode.test.modules;
+
+import org.firstinspires.ftc.teamcode.modules.core.DashboardPublisher;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that the publisher only sends complete, new snapshots, in order
+ */
+public class DashboardPublisherTest {
+    private static final double DEFAULT_PUBLISH_HZ = DashboardPublisher.PUBLISH_HZ;
+
+    private static final class Snapshot {
+        long value;
+        long copy; // written after value, so a torn snapshot has value != copy
+    }
+
+    @After
+    public void tearDown() {
+        DashboardPublisher.PUBLISH_HZ = DEFAULT_PUBLISH_HZ;
+    }
+
+    @Test
+    public void sendsLatestSnapshotsInOrder() throws InterruptedException {
+        DashboardPublisher.PUBLISH_HZ = 500;
+        final List<Long> rendered = new ArrayList<>();
+        // counted on the publisher thread and asserted on this one, since a failed assertion there would just stop it
+        final AtomicInteger tornCount = new AtomicInteger();
+        final DashboardPublisher<Snapshot> publisher = new DashboardPublisher<>("Test Publisher", Snapshot::new,
+                (snapshot, packet) -> {
+                    if (snapshot.value != snapshot.copy) {
+                        tornCount.incrementAndGet();
+                    }
+                    synchronized (rendered) {
+                        rendered.add(snapshot.value);
+                    }
+                },
+                packet -> {});
+        try {
+            final int published = 20_000;
+            for (long i = 1; i <= published; i++) {
+                final Snapshot snapshot = publisher.getSnapshot();
+                snapshot.value = i;
+                snapshot.copy = i;
+                publisher.publish();
+            }
+            final long deadline = System.nanoTime() + 2_000_000_000L;
+            while (System.nanoTime() < deadline) {
+                synchronized (rendered) {
+                    if (!rendered.isEmpty() && rendered.get(rendered.size() - 1) == published) {
+                        break;
+                    }
+                }
+                Thread.sleep(5);
+            }
+            // let a few more periods pass, to check that the last snapshot isn't sent again
+            Thread.sleep(20);
+
+            Assert.assertEquals("Torn snapshots rendered", 0, tornCount.get());
+            Assert.assertEquals(published, publisher.getPublishCount());
+            Assert.assertTrue(publisher.getSentCount() <= publisher.getPublishCount());
+            synchronized (rendered) {
+                Assert.assertEquals(Long.valueOf(published), rendered.get(rendered.size() - 1));
+                for (int i = 1; i < rendered.size(); i++) {
+                    Assert.assertTrue("Sent " + rendered.get(i) + " after " + rendered.get(i - 1),
+                            rendered.get(i) > rendered.get(i - 1));
+                }
+            }
+        }
+        finally {
+            publisher.stop();
+        }
+    }
+}
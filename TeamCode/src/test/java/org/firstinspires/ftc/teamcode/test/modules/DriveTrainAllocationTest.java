@@ -0,0 +1,33 @@
+package org.firstinspires.ftc.teamcode.test.modules;
+
+import org.firstinspires.ftc.teamcode.hardware.ImuSampler;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimRobot;
+import org.firstinspires.ftc.teamcode.modules.DriveTrain;
+import org.firstinspires.ftc.teamcode.modules.FieldCentricDriveTrain;
+import org.firstinspires.ftc.teamcode.test.AllocationAssert;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Makes sure that the drive loop never allocates, using the JVM's per-thread allocation counter
+ */
+public class DriveTrainAllocationTest {
+    private static void assertSetVelocityDoesNotAllocate(DriveTrain driveTrain) {
+        AllocationAssert.assertNoAllocation(i -> driveTrain.setVelocity(Math.sin(i), Math.cos(i), 0.25));
+    }
+
+    @After
+    public void tearDown() {
+        ImuSampler.stopAll();
+    }
+
+    @Test
+    public void robotCentricSetVelocityDoesNotAllocate() {
+        assertSetVelocityDoesNotAllocate(new DriveTrain(SimRobot.createOpMode()));
+    }
+
+    @Test
+    public void fieldCentricSetVelocityDoesNotAllocate() {
+        assertSetVelocityDoesNotAllocate(new FieldCentricDriveTrain(SimRobot.createOpMode()));
+    }
+}
@@ -0,0 +1,53 @@
+package org.firstinspires.ftc.teamcode.test.modules;
+
+import org.firstinspires.ftc.teamcode.hardware.sim.SimRobot;
+import org.firstinspires.ftc.teamcode.modules.ActiveIntake;
+import org.firstinspires.ftc.teamcode.modules.PlaneLauncher;
+import org.firstinspires.ftc.teamcode.modules.core.ModuleManager;
+import org.firstinspires.ftc.teamcode.modules.core.TelemetryPipeline;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TelemetryPipelineTest {
+    private static final double DEFAULT_FLUSH_HZ = TelemetryPipeline.FLUSH_HZ;
+
+    private static ModuleManager createModuleManager() {
+        final ModuleManager moduleManager = new ModuleManager(SimRobot.createOpMode());
+        moduleManager.loadModules(PlaneLauncher.class, ActiveIntake.class);
+        return moduleManager;
+    }
+
+    @After
+    public void tearDown() {
+        TelemetryPipeline.FLUSH_HZ = DEFAULT_FLUSH_HZ;
+    }
+
+    @Test
+    public void flushesAreRateLimited() {
+        TelemetryPipeline.FLUSH_HZ = 0.5; // far longer than this test takes
+        final ModuleManager moduleManager = createModuleManager();
+        for (int i = 0; i < 100; i++) {
+            moduleManager.logModuleStatus();
+        }
+        Assert.assertEquals(1, moduleManager.getTelemetryPipeline().getFlushCount());
+    }
+
+    @Test
+    public void unchangedModulesAreNotRewritten() {
+        TelemetryPipeline.FLUSH_HZ = Double.POSITIVE_INFINITY;
+        final ModuleManager moduleManager = createModuleManager();
+        final TelemetryPipeline pipeline = moduleManager.getTelemetryPipeline();
+
+        moduleManager.logModuleStatus();
+        Assert.assertEquals(2, pipeline.getLogCount()); // both modules log the first time
+
+        moduleManager.logModuleStatus();
+        Assert.assertEquals(2, pipeline.getLogCount());
+        Assert.assertEquals(2, pipeline.getReusedLogCount());
+
+        moduleManager.getModule(PlaneLauncher.class).launch();
+        moduleManager.logModuleStatus();
+        Assert.assertEquals(3, pipeline.getLogCount());
+    }
+}
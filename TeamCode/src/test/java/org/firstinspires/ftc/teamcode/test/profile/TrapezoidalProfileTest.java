@@ -0,0 +1,55 @@
+package org.firstinspires.ftc.teamcode.test.profile;
+
+import org.firstinspires.ftc.teamcode.util.TrapezoidalProfile;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TrapezoidalProfileTest {
+    @Test
+    public void longMoveCruisesAtMaxVelocity() {
+        final TrapezoidalProfile profile = new TrapezoidalProfile().plan(0, 100, 10, 5);
+        // 2 s to accelerate, 10 units each way while accelerating, 8 s cruising, 2 s to decelerate
+        Assert.assertEquals(12, profile.getDuration(), 1e-9);
+        Assert.assertEquals(10, profile.getPosition(2), 1e-9);
+        Assert.assertEquals(10, profile.getVelocity(6), 1e-9);
+        Assert.assertEquals(50, profile.getPosition(6), 1e-9);
+        Assert.assertEquals(100, profile.getPosition(12), 1e-9);
+        Assert.assertEquals(0, profile.getVelocity(12), 1e-9);
+    }
+
+    @Test
+    public void shortMoveIsTriangular() {
+        final TrapezoidalProfile profile = new TrapezoidalProfile().plan(10, 0, 10, 5);
+        // peak velocity is sqrt(10 * 5), reached halfway through
+        final double peakTime = Math.sqrt(50) / 5;
+        Assert.assertEquals(2 * peakTime, profile.getDuration(), 1e-9);
+        Assert.assertEquals(5, profile.getPosition(peakTime), 1e-9);
+        Assert.assertEquals(-Math.sqrt(50), profile.getVelocity(peakTime), 1e-9);
+    }
+
+    @Test
+    public void positionIsContinuousAndMonotonic() {
+        final TrapezoidalProfile profile = new TrapezoidalProfile().plan(-20, 300, 150, 400);
+        double previous = profile.getPosition(0);
+        for (double t = 0; t <= profile.getDuration() + 0.1; t += 0.001) {
+            final double position = profile.getPosition(t);
+            Assert.assertTrue(position >= previous);
+            Assert.assertTrue(position - previous <= 150 * 0.001 + 1e-9);
+            previous = position;
+        }
+        Assert.assertEquals(300, previous, 0);
+    }
+
+    @Test
+    public void copiesAreIdentical() {
+        final TrapezoidalProfile original = new TrapezoidalProfile().plan(5, 60, 20, 30);
+        final TrapezoidalProfile copy = new TrapezoidalProfile().set(original);
+        Assert.assertEquals(original.getDuration(), copy.getDuration(), 0);
+        Assert.assertEquals(original.getPosition(1.3), copy.getPosition(1.3), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveConstraints() {
+        new TrapezoidalProfile().plan(0, 1, 0, 1);
+    }
+}
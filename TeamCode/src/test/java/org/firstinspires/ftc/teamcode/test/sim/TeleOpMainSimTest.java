@@ -0,0 +1,48 @@
+package org.firstinspires.ftc.teamcode.test.sim;
+
+import org.firstinspires.ftc.teamcode.hardware.sim.SimHardwareMap;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimLynxModule;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimMotor;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimOpModeRunner;
+import org.firstinspires.ftc.teamcode.modules.DriveTrain;
+import org.firstinspires.ftc.teamcode.opmode.teleop.TeleOpMain;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Runs the TeleOp against simulated hardware
+ */
+public class TeleOpMainSimTest {
+    private static final int LOOP_COUNT = 50;
+
+    @Test
+    public void drivesForwardHeadless() {
+        final SimHardwareMap hardwareMap = SimHardwareMap.createRobot();
+        final SimOpModeRunner runner = new SimOpModeRunner(new TeleOpMain(), hardwareMap);
+        runner.init();
+        Assert.assertFalse("Init failed", runner.isStopped());
+
+        runner.start();
+        runner.getGamepad1().left_stick_y = 1;
+        runner.loop(LOOP_COUNT);
+        Assert.assertFalse(runner.isStopped());
+
+        final SimMotor frontLeft = hardwareMap.get(SimMotor.class, DriveTrain.FRONT_LEFT_MECANUM_DRIVER_DEFAULT_NAME);
+        Assert.assertNotEquals(0, frontLeft.getPower(), 0);
+        Assert.assertTrue(hardwareMap.getBus().getTransactionCount() > 0);
+        Assert.assertTrue(hardwareMap.get(SimLynxModule.class, "Control Hub").getBulkReadCount() > 0);
+
+        runner.stop();
+        Assert.assertTrue(runner.isStopped());
+    }
+
+    @Test
+    public void failsafeStopsOpMode() {
+        final SimOpModeRunner runner = new SimOpModeRunner(new TeleOpMain(), SimHardwareMap.createRobot());
+        runner.init();
+        runner.start();
+        runner.getGamepad1().guide = true;
+        runner.loop(1);
+        Assert.assertTrue(runner.isStopped());
+    }
+}